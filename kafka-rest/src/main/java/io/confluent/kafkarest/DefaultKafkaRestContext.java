@@ -19,11 +19,12 @@ import io.confluent.kafkarest.v2.KafkaConsumerManager;
 import java.util.Properties;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.metrics.Metrics;
 
 /**
  * Shared, global state for the REST proxy server, including configuration and connection pools.
- * ProducerPool, AdminClientWrapper and KafkaConsumerManager instances are initialized lazily
- * if required.
+ * ProducerPool, AdminClientWrapper, KafkaConsumerManager and Metrics instances are initialized
+ * lazily if required.
  */
 public class DefaultKafkaRestContext implements KafkaRestContext {
 
@@ -31,6 +32,7 @@ public class DefaultKafkaRestContext implements KafkaRestContext {
   private ProducerPool producerPool;
   private KafkaConsumerManager kafkaConsumerManager;
   private Admin adminClient;
+  private Metrics metrics;
 
   public DefaultKafkaRestContext(
       KafkaRestConfig config,
@@ -51,7 +53,7 @@ public class DefaultKafkaRestContext implements KafkaRestContext {
   @Override
   public ProducerPool getProducerPool() {
     if (producerPool == null) {
-      producerPool = new ProducerPool(config);
+      producerPool = new ProducerPool(config, getMetrics());
     }
     return producerPool;
   }
@@ -72,6 +74,16 @@ public class DefaultKafkaRestContext implements KafkaRestContext {
     return adminClient;
   }
 
+  /**
+   * Returns the registry of the application's own metrics, closed when this context is shut down.
+   */
+  public Metrics getMetrics() {
+    if (metrics == null) {
+      metrics = KafkaRestMetrics.create(config);
+    }
+    return metrics;
+  }
+
   public static Properties adminProperties(KafkaRestConfig kafkaRestConfig) {
     Properties properties = new Properties();
     properties.putAll(kafkaRestConfig.getAdminProperties());
@@ -92,5 +104,8 @@ public class DefaultKafkaRestContext implements KafkaRestContext {
     if (adminClient != null) {
       adminClient.close();
     }
+    if (metrics != null) {
+      metrics.close();
+    }
   }
 }
@@ -191,6 +191,30 @@ public class Errors {
     );
   }
 
+  public static final String INVALID_PRODUCE_RECORD_MESSAGE = "Invalid produce record: ";
+  public static final int INVALID_PRODUCE_RECORD_ERROR_CODE = 42206;
+
+  public static RestConstraintViolationException invalidProduceRecordException(
+      String reason
+  ) {
+    return new RestConstraintViolationException(
+        INVALID_PRODUCE_RECORD_MESSAGE + reason,
+        INVALID_PRODUCE_RECORD_ERROR_CODE
+    );
+  }
+
+  public static final String PRODUCE_BUDGET_EXCEEDED_MESSAGE =
+      "Too many records are being produced, retry later.";
+  public static final int PRODUCE_BUDGET_EXCEEDED_ERROR_CODE = 42901;
+
+  public static RestException produceBudgetExceededException() {
+    return new RestException(
+        PRODUCE_BUDGET_EXCEEDED_MESSAGE,
+        Response.Status.TOO_MANY_REQUESTS.getStatusCode(),
+        PRODUCE_BUDGET_EXCEEDED_ERROR_CODE
+    );
+  }
+
   public static final String ZOOKEEPER_ERROR_MESSAGE = "Zookeeper error: ";
   public static final int ZOOKEEPER_ERROR_ERROR_CODE = 50001;
 
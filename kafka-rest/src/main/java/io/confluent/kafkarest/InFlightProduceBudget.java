@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.ProduceRecord;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Meter;
+
+/**
+ * Tracks the records of one embedded format that have been handed to the Kafka producers but not
+ * acknowledged yet, and turns away new produce requests once too many are in flight. This keeps
+ * request threads from blocking inside {@code KafkaProducer.send()} when the brokers fall behind.
+ */
+final class InFlightProduceBudget {
+
+  private static final String METRIC_GROUP = "produce-admission-metrics";
+
+  private final long maxBytes;
+  private final long maxRecords;
+  private final Sensor rejectedSensor;
+
+  private long inFlightBytes = 0;
+  private long inFlightRecords = 0;
+
+  InFlightProduceBudget(
+      EmbeddedFormat format,
+      long maxBytes,
+      long maxRecords,
+      Metrics metrics
+  ) {
+    this.maxBytes = maxBytes;
+    this.maxRecords = maxRecords;
+
+    Map<String, String> tags = Collections.singletonMap("format", format.name().toLowerCase());
+    rejectedSensor = metrics.sensor("produce-admission-rejected-" + format.name().toLowerCase());
+    rejectedSensor.add(
+        new Meter(
+            metrics.metricName(
+                "rejected-rate",
+                METRIC_GROUP,
+                "The number of produce requests per second rejected for being over budget.",
+                tags),
+            metrics.metricName(
+                "rejected-total",
+                METRIC_GROUP,
+                "The total number of produce requests rejected for being over budget.",
+                tags)));
+    metrics.addMetric(
+        metrics.metricName(
+            "inflight-bytes",
+            METRIC_GROUP,
+            "The estimated size of the records being produced.",
+            tags),
+        (Gauge<Long>) (config, now) -> getInFlightBytes());
+    metrics.addMetric(
+        metrics.metricName(
+            "inflight-records",
+            METRIC_GROUP,
+            "The number of records being produced.",
+            tags),
+        (Gauge<Long>) (config, now) -> getInFlightRecords());
+    metrics.addMetric(
+        metrics.metricName(
+            "inflight-max-bytes",
+            METRIC_GROUP,
+            "The maximum estimated size of the records being produced, 0 if unlimited.",
+            tags),
+        (Gauge<Long>) (config, now) -> maxBytes);
+    metrics.addMetric(
+        metrics.metricName(
+            "inflight-max-records",
+            METRIC_GROUP,
+            "The maximum number of records being produced, 0 if unlimited.",
+            tags),
+        (Gauge<Long>) (config, now) -> maxRecords);
+  }
+
+  /**
+   * Reserves room for {@code records} records of {@code bytes} bytes, returning false if that
+   * would go over budget. A request is always let through if nothing else is in flight, so
+   * requests larger than the whole budget are not starved.
+   */
+  synchronized boolean tryAcquire(long records, long bytes) {
+    if (inFlightRecords > 0
+        && ((maxRecords > 0 && inFlightRecords + records > maxRecords)
+        || (maxBytes > 0 && inFlightBytes + bytes > maxBytes))) {
+      rejectedSensor.record();
+      return false;
+    }
+    inFlightRecords += records;
+    inFlightBytes += bytes;
+    return true;
+  }
+
+  synchronized void release(long records, long bytes) {
+    inFlightRecords -= records;
+    inFlightBytes -= bytes;
+  }
+
+  synchronized long getInFlightBytes() {
+    return inFlightBytes;
+  }
+
+  synchronized long getInFlightRecords() {
+    return inFlightRecords;
+  }
+
+  /**
+   * Returns a rough estimate of the size of the given records, before serialization.
+   */
+  static long estimateRecordsSize(Collection<? extends ProduceRecord<?, ?>> records) {
+    long size = 0;
+    for (ProduceRecord<?, ?> record : records) {
+      size += estimateSize(record.getKey()) + estimateSize(record.getValue());
+    }
+    return size;
+  }
+
+  private static long estimateSize(Object value) {
+    if (value == null) {
+      return 0;
+    } else if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    } else if (value instanceof CharSequence) {
+      return ((CharSequence) value).length();
+    } else if (value instanceof JsonNode) {
+      return estimateSize((JsonNode) value);
+    } else if (value instanceof Map) {
+      long size = 0;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        size += estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+      }
+      return size;
+    } else if (value instanceof Collection) {
+      long size = 0;
+      for (Object element : (Collection<?>) value) {
+        size += estimateSize(element);
+      }
+      return size;
+    } else {
+      // Numbers, booleans and the like.
+      return 8;
+    }
+  }
+
+  private static long estimateSize(JsonNode node) {
+    if (node.isTextual()) {
+      return node.textValue().length();
+    } else if (node.isObject()) {
+      long size = 0;
+      Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        size += field.getKey().length() + estimateSize(field.getValue());
+      }
+      return size;
+    } else if (node.isArray()) {
+      long size = 0;
+      for (JsonNode element : node) {
+        size += estimateSize(element);
+      }
+      return size;
+    } else {
+      return 8;
+    }
+  }
+}
@@ -112,7 +112,8 @@ public class KafkaRestApplication extends Application<KafkaRestConfig> {
 
     config.register(new BackendsModule());
     config.register(new ConfigModule(appConfig));
-    config.register(new ControllersModule());
+    // Shared with the producer pool, so all of the application's metrics live in one registry.
+    config.register(new ControllersModule(KafkaRestContextProvider.getDefaultMetrics()));
     config.register(new ExceptionsModule());
     config.register(new ResourcesFeature(context, appConfig));
     config.register(new ResponseModule());
@@ -87,6 +87,30 @@ public class KafkaRestConfig extends RestConfig {
       + " The value of -1 denotes unbounded thread creation";
   public static final String CONSUMER_MAX_THREADS_DEFAULT = "50";
 
+  public static final String CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG =
+      "consumer.virtual.threads.enable";
+  private static final String CONSUMER_VIRTUAL_THREADS_ENABLE_DOC =
+      "Whether to run consumer requests on virtual threads, on JDKs that support them, instead of "
+      + "a thread pool. consumer.threads then limits how many read requests run at once, and the "
+      + "others wait for their turn instead of being retried later. Read requests waiting for "
+      + "records to arrive, commits and closes don't count against the limit. Ignored, with a "
+      + "warning, on JDKs without virtual threads.";
+  public static final boolean CONSUMER_VIRTUAL_THREADS_ENABLE_DEFAULT = false;
+
+  public static final String CONSUMER_MULTIPLEX_GROUPS_CONFIG = "consumer.multiplex.groups";
+  private static final String CONSUMER_MULTIPLEX_GROUPS_DOC =
+      "Consumer groups whose consumer instances share consumers, instead of each having its own. "
+      + "Instances in these groups only support manual partition assignment, and a partition can "
+      + "be assigned to a single instance among those sharing a consumer at a time. Offsets are "
+      + "only committed on request, so auto.commit.enable is not supported.";
+  public static final String CONSUMER_MULTIPLEX_GROUPS_DEFAULT = "";
+
+  public static final String CONSUMER_MULTIPLEX_POOL_SIZE_CONFIG = "consumer.multiplex.pool.size";
+  private static final String CONSUMER_MULTIPLEX_POOL_SIZE_DOC =
+      "The maximum number of consumers shared by the consumer instances of a group in "
+      + "consumer.multiplex.groups created with the same configs.";
+  public static final int CONSUMER_MULTIPLEX_POOL_SIZE_DEFAULT = 4;
+
   public static final String ZOOKEEPER_CONNECT_CONFIG = "zookeeper.connect";
   private static final String ZOOKEEPER_CONNECT_DOC =
       "NOTE: Only required when using v1 Consumer API's. Specifies the ZooKeeper connection "
@@ -140,9 +164,59 @@ public class KafkaRestConfig extends RestConfig {
 
   public static final String PRODUCER_THREADS_CONFIG = "producer.threads";
   private static final String PRODUCER_THREADS_DOC =
-      "Number of threads to run produce requests on.";
+      "Number of threads used to complete produce requests, i.e. to turn the acknowledgements "
+      + "received by the Kafka producers into HTTP responses, off the producers' I/O threads.";
   public static final String PRODUCER_THREADS_DEFAULT = "5";
 
+  public static final String PRODUCER_COMPLETION_QUEUE_SIZE_CONFIG =
+      "producer.completion.queue.size";
+  private static final String PRODUCER_COMPLETION_QUEUE_SIZE_DOC =
+      "Maximum number of completed produce requests waiting for a producer thread. When the queue "
+      + "is full, the response is built on the Kafka producer I/O thread instead.";
+  public static final String PRODUCER_COMPLETION_QUEUE_SIZE_DEFAULT = "10000";
+
+  public static final String PRODUCER_POOL_SIZE_CONFIG = "producer.pool.size";
+  private static final String PRODUCER_POOL_SIZE_DOC =
+      "Number of Kafka producers to create per embedded format. Produce requests are spread across "
+      + "them by hashing the target topic (or topic and partition), so requests for the same "
+      + "target always use the same producer and keep their ordering. Increasing this allows "
+      + "produce traffic for a single format to use more than one producer I/O thread.";
+  public static final String PRODUCER_POOL_SIZE_DEFAULT = "1";
+
+  public static final String PRODUCER_INFLIGHT_MAX_BYTES_CONFIG = "producer.inflight.max.bytes";
+  private static final String PRODUCER_INFLIGHT_MAX_BYTES_DOC =
+      "Maximum (estimated) size in bytes of the records being produced at any time, per embedded "
+      + "format. Produce requests that would go over it are rejected right away with a 429 "
+      + "instead of blocking on the Kafka producer. A value of 0 disables the limit.";
+  public static final String PRODUCER_INFLIGHT_MAX_BYTES_DEFAULT = "0";
+
+  public static final String PRODUCER_INFLIGHT_MAX_RECORDS_CONFIG = "producer.inflight.max.records";
+  private static final String PRODUCER_INFLIGHT_MAX_RECORDS_DOC =
+      "Maximum number of records being produced at any time, per embedded format. Produce "
+      + "requests that would go over it are rejected right away with a 429. A value of 0 disables "
+      + "the limit.";
+  public static final String PRODUCER_INFLIGHT_MAX_RECORDS_DEFAULT = "0";
+
+  public static final String PRODUCER_SCHEMA_CACHE_SIZE_CONFIG = "producer.schema.cache.size";
+  private static final String PRODUCER_SCHEMA_CACHE_SIZE_DOC =
+      "Maximum number of schemas, per embedded format, the producers keep resolved by subject and "
+      + "schema string or by schema ID. Least recently used schemas are evicted first.";
+  public static final String PRODUCER_SCHEMA_CACHE_SIZE_DEFAULT = "1000";
+
+  public static final String PRODUCER_PARALLEL_CONVERSION_THRESHOLD_CONFIG =
+      "producer.parallel.conversion.threshold";
+  private static final String PRODUCER_PARALLEL_CONVERSION_THRESHOLD_DOC =
+      "Minimum number of records in an Avro, JSON Schema or Protobuf produce request for their "
+      + "conversion to be split across the conversion threads. A value of 0 disables parallel "
+      + "conversion.";
+  public static final String PRODUCER_PARALLEL_CONVERSION_THRESHOLD_DEFAULT = "0";
+
+  public static final String PRODUCER_CONVERSION_THREADS_CONFIG = "producer.conversion.threads";
+  private static final String PRODUCER_CONVERSION_THREADS_DOC =
+      "Number of threads, shared by all schema producers, used to convert large produce requests. "
+      + "See " + PRODUCER_PARALLEL_CONVERSION_THRESHOLD_CONFIG + ". Defaults to the number of "
+      + "available processors.";
+
   public static final String CONSUMER_ITERATOR_TIMEOUT_MS_CONFIG = "consumer.iterator.timeout.ms";
   private static final String CONSUMER_ITERATOR_TIMEOUT_MS_DOC =
       "Timeout for blocking consumer iterator operations. "
@@ -152,14 +226,18 @@ public class KafkaRestConfig extends RestConfig {
 
   public static final String CONSUMER_ITERATOR_BACKOFF_MS_CONFIG = "consumer.iterator.backoff.ms";
   private static final String CONSUMER_ITERATOR_BACKOFF_MS_DOC =
-      "Amount of time to backoff when an iterator runs "
-      + "out of data. If a consumer has a dedicated worker thread, this is effectively the "
-      + "maximum error for the "
-      + "entire request timeout. It should be small enough to closely target the timeout, but "
-      + "large enough to "
-      + "avoid busy waiting.";
+      "Deprecated, no longer used. Read requests now wait for data in the consumer's poll, see "
+      + "consumer.poll.timeout.ms.";
   public static final String CONSUMER_ITERATOR_BACKOFF_MS_DEFAULT = "50";
 
+  public static final String CONSUMER_POLL_TIMEOUT_MS_CONFIG = "consumer.poll.timeout.ms";
+  private static final String CONSUMER_POLL_TIMEOUT_MS_DOC =
+      "The maximum time a read request blocks in a single poll of its consumer while waiting for "
+      + "data. Records are returned as soon as they arrive, whatever this value. Between polls, "
+      + "other operations on the same consumer instance (e.g. commits) and other read requests get "
+      + "to run, so this bounds how long they wait behind a read request.";
+  public static final String CONSUMER_POLL_TIMEOUT_MS_DEFAULT = "100";
+
   public static final String CONSUMER_REQUEST_TIMEOUT_MS_CONFIG = "consumer.request.timeout.ms";
   private static final String CONSUMER_REQUEST_TIMEOUT_MS_DOC =
       "The maximum total time to wait for messages for a "
@@ -176,6 +254,39 @@ public class KafkaRestConfig extends RestConfig {
       + "response data and from JSON encoding the entire response.";
   public static final long CONSUMER_REQUEST_MAX_BYTES_DEFAULT = 64 * 1024 * 1024;
 
+  public static final String CONSUMER_STREAM_MAX_MS_CONFIG = "consumer.stream.max.ms";
+  private static final String CONSUMER_STREAM_MAX_MS_DOC =
+      "The maximum time a streaming read request keeps streaming records. The stream then ends "
+      + "after the batch in progress, and the client can open a new one. This bounds how long "
+      + "abandoned or long-lived streams hold on to a request thread.";
+  public static final long CONSUMER_STREAM_MAX_MS_DEFAULT = 300000;
+
+  public static final String CONSUMER_PREFETCH_MAX_BYTES_CONFIG = "consumer.prefetch.max.bytes";
+  private static final String CONSUMER_PREFETCH_MAX_BYTES_DOC =
+      "The maximum number of bytes in unencoded message keys and values that each consumer "
+      + "instance fetches ahead of read requests, in the background, so they can be answered "
+      + "without waiting for a fetch. 0 disables prefetching. A buffer may go over this by at "
+      + "most one poll's worth of records. Note that with auto commit enabled, prefetched records "
+      + "may be committed before they are read.";
+  public static final long CONSUMER_PREFETCH_MAX_BYTES_DEFAULT = 0;
+
+  public static final String CONSUMER_PREFETCH_TOTAL_MAX_BYTES_CONFIG =
+      "consumer.prefetch.total.max.bytes";
+  private static final String CONSUMER_PREFETCH_TOTAL_MAX_BYTES_DOC =
+      "The maximum number of bytes in unencoded message keys and values buffered by all the "
+      + "consumer instances together. Prefetching stops while this is exceeded, whatever "
+      + "consumer.prefetch.max.bytes.";
+  public static final long CONSUMER_PREFETCH_TOTAL_MAX_BYTES_DEFAULT = 256 * 1024 * 1024;
+
+  public static final String CONSUMER_JSON_PASSTHROUGH_ENABLE_CONFIG =
+      "consumer.json.passthrough.enable";
+  private static final String CONSUMER_JSON_PASSTHROUGH_ENABLE_DOC =
+      "Whether JSON format consumers return message keys and values as they are stored, instead "
+      + "of parsing them and encoding them again. They are still checked to be valid JSON, and "
+      + "any that aren't are replaced by an error object with error_code "
+      + Errors.JSON_CONVERSION_ERROR_CODE + " rather than failing the whole read.";
+  public static final boolean CONSUMER_JSON_PASSTHROUGH_ENABLE_DEFAULT = false;
+
   public static final String CONSUMER_INSTANCE_TIMEOUT_MS_CONFIG = "consumer.instance.timeout.ms";
   private static final String CONSUMER_INSTANCE_TIMEOUT_MS_DOC =
       "Amount of idle time before a consumer instance "
@@ -346,6 +457,14 @@ public class KafkaRestConfig extends RestConfig {
       "Whether to enable REST Proxy V3 API. Default is true.";
   private static final boolean API_V3_ENABLE_DEFAULT = true;
 
+  public static final String CLUSTER_METADATA_CACHE_TTL_MS_CONFIG =
+      "cluster.metadata.cache.ttl.ms";
+  private static final String CLUSTER_METADATA_CACHE_TTL_MS_DOC =
+      "How often the cluster metadata (cluster ID, controller and brokers) used by the REST Proxy "
+      + "V3 API is refreshed in the background. Requests are served from the last refresh, instead "
+      + "of each describing the cluster. 0 disables the cache.";
+  public static final long CLUSTER_METADATA_CACHE_TTL_MS_DEFAULT = 30000;
+
   private static final ConfigDef config;
 
   public static final String HTTPS = "https";
@@ -390,6 +509,28 @@ public class KafkaRestConfig extends RestConfig {
         Importance.MEDIUM,
         CONSUMER_MAX_THREADS_DOC
     )
+    .define(
+        CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG,
+        Type.BOOLEAN,
+        CONSUMER_VIRTUAL_THREADS_ENABLE_DEFAULT,
+        Importance.LOW,
+        CONSUMER_VIRTUAL_THREADS_ENABLE_DOC
+    )
+    .define(
+        CONSUMER_MULTIPLEX_GROUPS_CONFIG,
+        Type.LIST,
+        CONSUMER_MULTIPLEX_GROUPS_DEFAULT,
+        Importance.LOW,
+        CONSUMER_MULTIPLEX_GROUPS_DOC
+    )
+    .define(
+        CONSUMER_MULTIPLEX_POOL_SIZE_CONFIG,
+        Type.INT,
+        CONSUMER_MULTIPLEX_POOL_SIZE_DEFAULT,
+        Range.atLeast(1),
+        Importance.LOW,
+        CONSUMER_MULTIPLEX_POOL_SIZE_DOC
+    )
     .define(
         ZOOKEEPER_CONNECT_CONFIG,
         Type.STRING,
@@ -423,9 +564,66 @@ public class KafkaRestConfig extends RestConfig {
         PRODUCER_THREADS_CONFIG,
         Type.INT,
         PRODUCER_THREADS_DEFAULT,
+        Range.atLeast(1),
         Importance.LOW,
         PRODUCER_THREADS_DOC
     )
+    .define(
+        PRODUCER_COMPLETION_QUEUE_SIZE_CONFIG,
+        Type.INT,
+        PRODUCER_COMPLETION_QUEUE_SIZE_DEFAULT,
+        Range.atLeast(1),
+        Importance.LOW,
+        PRODUCER_COMPLETION_QUEUE_SIZE_DOC
+    )
+    .define(
+        PRODUCER_POOL_SIZE_CONFIG,
+        Type.INT,
+        PRODUCER_POOL_SIZE_DEFAULT,
+        Range.atLeast(1),
+        Importance.LOW,
+        PRODUCER_POOL_SIZE_DOC
+    )
+    .define(
+        PRODUCER_INFLIGHT_MAX_BYTES_CONFIG,
+        Type.LONG,
+        PRODUCER_INFLIGHT_MAX_BYTES_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        PRODUCER_INFLIGHT_MAX_BYTES_DOC
+    )
+    .define(
+        PRODUCER_INFLIGHT_MAX_RECORDS_CONFIG,
+        Type.LONG,
+        PRODUCER_INFLIGHT_MAX_RECORDS_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        PRODUCER_INFLIGHT_MAX_RECORDS_DOC
+    )
+    .define(
+        PRODUCER_SCHEMA_CACHE_SIZE_CONFIG,
+        Type.LONG,
+        PRODUCER_SCHEMA_CACHE_SIZE_DEFAULT,
+        Range.atLeast(1),
+        Importance.LOW,
+        PRODUCER_SCHEMA_CACHE_SIZE_DOC
+    )
+    .define(
+        PRODUCER_PARALLEL_CONVERSION_THRESHOLD_CONFIG,
+        Type.INT,
+        PRODUCER_PARALLEL_CONVERSION_THRESHOLD_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        PRODUCER_PARALLEL_CONVERSION_THRESHOLD_DOC
+    )
+    .define(
+        PRODUCER_CONVERSION_THREADS_CONFIG,
+        Type.INT,
+        Runtime.getRuntime().availableProcessors(),
+        Range.atLeast(1),
+        Importance.LOW,
+        PRODUCER_CONVERSION_THREADS_DOC
+    )
     .define(
         CONSUMER_ITERATOR_TIMEOUT_MS_CONFIG,
         Type.INT,
@@ -440,6 +638,14 @@ public class KafkaRestConfig extends RestConfig {
         Importance.LOW,
         CONSUMER_ITERATOR_BACKOFF_MS_DOC
     )
+    .define(
+        CONSUMER_POLL_TIMEOUT_MS_CONFIG,
+        Type.INT,
+        CONSUMER_POLL_TIMEOUT_MS_DEFAULT,
+        Range.atLeast(1),
+        Importance.LOW,
+        CONSUMER_POLL_TIMEOUT_MS_DOC
+    )
     .define(
         CONSUMER_REQUEST_TIMEOUT_MS_CONFIG,
         Type.INT,
@@ -454,6 +660,37 @@ public class KafkaRestConfig extends RestConfig {
         Importance.MEDIUM,
         CONSUMER_REQUEST_MAX_BYTES_DOC
     )
+    .define(
+        CONSUMER_STREAM_MAX_MS_CONFIG,
+        Type.LONG,
+        CONSUMER_STREAM_MAX_MS_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        CONSUMER_STREAM_MAX_MS_DOC
+    )
+    .define(
+        CONSUMER_PREFETCH_MAX_BYTES_CONFIG,
+        Type.LONG,
+        CONSUMER_PREFETCH_MAX_BYTES_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        CONSUMER_PREFETCH_MAX_BYTES_DOC
+    )
+    .define(
+        CONSUMER_PREFETCH_TOTAL_MAX_BYTES_CONFIG,
+        Type.LONG,
+        CONSUMER_PREFETCH_TOTAL_MAX_BYTES_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        CONSUMER_PREFETCH_TOTAL_MAX_BYTES_DOC
+    )
+    .define(
+        CONSUMER_JSON_PASSTHROUGH_ENABLE_CONFIG,
+        Type.BOOLEAN,
+        CONSUMER_JSON_PASSTHROUGH_ENABLE_DEFAULT,
+        Importance.LOW,
+        CONSUMER_JSON_PASSTHROUGH_ENABLE_DOC
+    )
     .define(
         CONSUMER_INSTANCE_TIMEOUT_MS_CONFIG,
         Type.INT,
@@ -672,7 +909,14 @@ public class KafkaRestConfig extends RestConfig {
         Type.BOOLEAN,
         API_V3_ENABLE_DEFAULT,
         Importance.LOW,
-        API_V3_ENABLE_DOC);
+        API_V3_ENABLE_DOC)
+    .define(
+        CLUSTER_METADATA_CACHE_TTL_MS_CONFIG,
+        Type.LONG,
+        CLUSTER_METADATA_CACHE_TTL_MS_DEFAULT,
+        Range.atLeast(0),
+        Importance.LOW,
+        CLUSTER_METADATA_CACHE_TTL_MS_DOC);
   }
 
   private Time time;
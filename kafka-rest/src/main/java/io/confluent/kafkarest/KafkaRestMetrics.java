@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest;
+
+import io.confluent.rest.RestConfig;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+
+/**
+ * Creates the {@link Metrics} registries used by the components of this application (as opposed to
+ * the embedded Kafka clients, which manage their own). Metrics are exposed over JMX, under the
+ * namespace configured by {@code metrics.jmx.prefix}.
+ */
+public final class KafkaRestMetrics {
+
+  private KafkaRestMetrics() {
+  }
+
+  public static Metrics create(KafkaRestConfig config) {
+    MetricConfig metricConfig =
+        new MetricConfig()
+            .samples(config.getInt(RestConfig.METRICS_NUM_SAMPLES_CONFIG))
+            .timeWindow(
+                config.getLong(RestConfig.METRICS_SAMPLE_WINDOW_MS_CONFIG), TimeUnit.MILLISECONDS);
+    return new Metrics(
+        metricConfig,
+        Collections.<MetricsReporter>singletonList(new JmxReporter()),
+        config.getTime(),
+        config.getMetricsContext());
+  }
+}
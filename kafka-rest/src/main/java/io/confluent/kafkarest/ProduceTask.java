@@ -16,15 +16,21 @@
 package io.confluent.kafkarest;
 
 import io.confluent.kafkarest.entities.ProduceRequest;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Container for state associated with one REST-ful produce request, i.e. a batched send
+ * Container for state associated with one REST-ful produce request, i.e. a batched send.
+ *
+ * <p>Acknowledgements arrive concurrently from the producer I/O threads, possibly while the request
+ * thread is still sending. Each record owns a slot in a presized result array, and completion is
+ * tracked with an atomic counter, so no lock is taken on either path.</p>
  */
 public class ProduceTask {
 
@@ -32,26 +38,53 @@ public class ProduceTask {
 
   private final ProduceRequest<?, ?> produceRequest;
   private final int numRecords;
+  private final Runnable onAcknowledged;
   private final ProducerPool.ProduceRequestCallback callback;
-  private int completed;
-  private Integer keySchemaId;
-  private Integer valueSchemaId;
-  private List<RecordMetadataOrException> results;
+  private final Executor completionExecutor;
+  private final RecordMetadataOrException[] results;
+  // Index of the next record to get a callback, i.e. number of records sent so far.
+  private final AtomicInteger sent = new AtomicInteger();
+  private final AtomicInteger completed = new AtomicInteger();
+  private volatile Integer keySchemaId;
+  private volatile Integer valueSchemaId;
 
   public ProduceTask(ProduceRequest<?, ?> produceRequest, int numRecords,
       ProducerPool.ProduceRequestCallback callback) {
+    // Run the callback on whichever thread acknowledges the last record.
+    this(produceRequest, numRecords, callback, Runnable::run);
+  }
+
+  /**
+   * Creates a task whose {@code callback} runs on {@code completionExecutor} once all records have
+   * been acknowledged, rather than on the producer I/O thread that acknowledged the last one.
+   */
+  public ProduceTask(ProduceRequest<?, ?> produceRequest, int numRecords,
+      ProducerPool.ProduceRequestCallback callback, Executor completionExecutor) {
+    this(produceRequest, numRecords, () -> { }, callback, completionExecutor);
+  }
+
+  /**
+   * Creates a task that also runs {@code onAcknowledged} on the producer I/O thread that
+   * acknowledged the last record, before handing {@code callback} off to {@code
+   * completionExecutor}. Meant for cheap bookkeeping that shouldn't wait behind queued completions.
+   */
+  public ProduceTask(ProduceRequest<?, ?> produceRequest, int numRecords,
+      Runnable onAcknowledged, ProducerPool.ProduceRequestCallback callback,
+      Executor completionExecutor) {
     this.produceRequest = produceRequest;
     this.numRecords = numRecords;
+    this.onAcknowledged = onAcknowledged;
     this.callback = callback;
-    this.completed = 0;
-    this.results = new ArrayList<RecordMetadataOrException>();
+    this.completionExecutor = completionExecutor;
+    this.results = new RecordMetadataOrException[numRecords];
   }
 
-  public synchronized Callback createCallback() {
-    final int index = results.size();
-    // Dummy data, which just helps us keep track of the index & ensures there's a slot for
-    // storage when we get the callback
-    results.add(null);
+  public Callback createCallback() {
+    final int index = sent.getAndIncrement();
+    if (index >= numRecords) {
+      throw new IllegalStateException(
+          String.format("Produce task expected %d records but got more.", numRecords));
+    }
     return new Callback() {
       @Override
       public void onCompletion(RecordMetadata metadata, Exception exception) {
@@ -60,18 +93,20 @@ public class ProduceTask {
     };
   }
 
-  public synchronized void onCompletion(int messageNum, RecordMetadata metadata,
-                                        Exception exception) {
-    results.set(messageNum, new RecordMetadataOrException(metadata, exception));
+  public void onCompletion(int messageNum, RecordMetadata metadata, Exception exception) {
+    // The write to the slot happens-before the increment below, and the increment that reaches
+    // numRecords happens-after all others, so the last thread sees every result.
+    results[messageNum] = new RecordMetadataOrException(metadata, exception);
 
     if (exception != null) {
       log.error("Producer error for request " + this.toString(), exception);
     }
 
-    completed += 1;
-
-    if (completed == numRecords) {
-      this.callback.onCompletion(keySchemaId, valueSchemaId, results);
+    if (completed.incrementAndGet() == numRecords) {
+      onAcknowledged.run();
+      List<RecordMetadataOrException> resultList = Arrays.asList(results);
+      completionExecutor.execute(
+          () -> this.callback.onCompletion(keySchemaId, valueSchemaId, resultList));
     }
   }
 
@@ -15,6 +15,9 @@
 
 package io.confluent.kafkarest;
 
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
@@ -27,12 +30,23 @@ import io.confluent.kafkarest.converters.JsonSchemaConverter;
 import io.confluent.kafkarest.converters.ProtobufConverter;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.ProduceRequest;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Meter;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.Serializer;
 import org.slf4j.Logger;
@@ -40,14 +54,35 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Shared pool of Kafka producers used to send messages. The pool manages batched sends, tracking
- * all required acks for a batch and managing timeouts. Currently this pool only contains one
- * producer per serialization format (e.g. byte[], Avro).
+ * all required acks for a batch and managing timeouts. The pool contains a configurable number of
+ * producers per serialization format (e.g. byte[], Avro), see {@link
+ * KafkaRestConfig#PRODUCER_POOL_SIZE_CONFIG}. Each request is routed to one of them by hashing its
+ * target topic (or topic and partition, if explicitly given), so all requests for the same target
+ * go through the same producer and keep their relative ordering. Requests are turned away with a
+ * 429 while too many records of their format are in flight, see {@link InFlightProduceBudget}.
  */
 public class ProducerPool {
 
   private static final Logger log = LoggerFactory.getLogger(ProducerPool.class);
-  private Map<EmbeddedFormat, RestProducer> producers =
-      new HashMap<EmbeddedFormat, RestProducer>();
+  private static final String COMPLETION_METRIC_GROUP = "produce-completion-metrics";
+  private static final String ASYNC_METRIC_GROUP = "produce-async-metrics";
+
+  private Map<EmbeddedFormat, List<RestProducer>> producers =
+      new HashMap<EmbeddedFormat, List<RestProducer>>();
+  // Completed produce requests are handed off to this executor, so building and sending the
+  // HTTP response does not hold up the Kafka producers' I/O threads.
+  private final ThreadPoolExecutor completionExecutor;
+  private final Map<EmbeddedFormat, InFlightProduceBudget> budgets =
+      new HashMap<EmbeddedFormat, InFlightProduceBudget>();
+  // Shared by the schema producers to convert large requests in parallel. Null if disabled.
+  @Nullable
+  private final ExecutorService conversionExecutor;
+  private final int conversionThreads;
+  private final int parallelConversionThreshold;
+  private final Metrics metrics;
+  private final boolean ownsMetrics;
+  private final Sensor asyncRecordSensor;
+  private final Sensor asyncRecordErrorSensor;
 
   public ProducerPool(KafkaRestConfig appConfig) {
     this(appConfig, null);
@@ -65,26 +100,193 @@ public class ProducerPool {
       String bootstrapBrokers,
       Properties producerConfigOverrides
   ) {
+    this(
+        appConfig,
+        bootstrapBrokers,
+        producerConfigOverrides,
+        KafkaRestMetrics.create(appConfig),
+        /* ownsMetrics= */ true);
+  }
+
+  /**
+   * Creates a pool that registers its metrics in the given registry, which is shared with the rest
+   * of the application and is left open when the pool is shut down.
+   */
+  public ProducerPool(KafkaRestConfig appConfig, Metrics metrics) {
+    this(
+        appConfig,
+        RestConfigUtils.bootstrapBrokers(appConfig),
+        /* producerConfigOverrides= */ null,
+        metrics,
+        /* ownsMetrics= */ false);
+  }
+
+  private ProducerPool(
+      KafkaRestConfig appConfig,
+      String bootstrapBrokers,
+      Properties producerConfigOverrides,
+      Metrics metrics,
+      boolean ownsMetrics
+  ) {
+    this.metrics = requireNonNull(metrics);
+    this.ownsMetrics = ownsMetrics;
+    this.completionExecutor = buildCompletionExecutor(appConfig, metrics);
+    this.asyncRecordSensor =
+        buildAsyncSensor(
+            metrics,
+            "record",
+            "records produced without waiting for their acknowledgement");
+    this.asyncRecordErrorSensor =
+        buildAsyncSensor(
+            metrics,
+            "record-error",
+            "records produced without waiting for their acknowledgement that failed");
+    this.conversionThreads = appConfig.getInt(KafkaRestConfig.PRODUCER_CONVERSION_THREADS_CONFIG);
+    this.parallelConversionThreshold =
+        appConfig.getInt(KafkaRestConfig.PRODUCER_PARALLEL_CONVERSION_THRESHOLD_CONFIG);
+    this.conversionExecutor =
+        parallelConversionThreshold > 0
+            ? Executors.newFixedThreadPool(
+                conversionThreads,
+                new ThreadFactoryBuilder()
+                    .setNameFormat("kafka-rest-produce-conversion-%d")
+                    .setDaemon(true)
+                    .build())
+            : null;
+
+    int poolSize = appConfig.getInt(KafkaRestConfig.PRODUCER_POOL_SIZE_CONFIG);
+    long maxInFlightBytes = appConfig.getLong(KafkaRestConfig.PRODUCER_INFLIGHT_MAX_BYTES_CONFIG);
+    long maxInFlightRecords =
+        appConfig.getLong(KafkaRestConfig.PRODUCER_INFLIGHT_MAX_RECORDS_CONFIG);
+    for (EmbeddedFormat format : EmbeddedFormat.values()) {
+      producers.put(format, new ArrayList<RestProducer>(poolSize));
+      budgets.put(
+          format,
+          new InFlightProduceBudget(format, maxInFlightBytes, maxInFlightRecords, metrics));
+    }
 
-    Map<String, Object> binaryProps =
-        buildStandardConfig(appConfig, bootstrapBrokers, producerConfigOverrides);
-    producers.put(EmbeddedFormat.BINARY, buildBinaryProducer(binaryProps));
+    // Producers of the same format share their schemas, they all talk to the same Schema Registry.
+    long schemaCacheSize = appConfig.getLong(KafkaRestConfig.PRODUCER_SCHEMA_CACHE_SIZE_CONFIG);
+    SchemaCache avroSchemaCache = new SchemaCache(schemaCacheSize, "avro", metrics);
+    SchemaCache jsonSchemaCache = new SchemaCache(schemaCacheSize, "jsonschema", metrics);
+    SchemaCache protobufSchemaCache = new SchemaCache(schemaCacheSize, "protobuf", metrics);
 
-    Map<String, Object> jsonProps =
-        buildStandardConfig(appConfig, bootstrapBrokers, producerConfigOverrides);
-    producers.put(EmbeddedFormat.JSON, buildJsonProducer(jsonProps));
+    for (int i = 0; i < poolSize; i++) {
+      Map<String, Object> binaryProps = withPoolClientId(
+          buildStandardConfig(appConfig, bootstrapBrokers, producerConfigOverrides), poolSize, i);
+      producers.get(EmbeddedFormat.BINARY).add(buildBinaryProducer(binaryProps));
 
-    Map<String, Object> avroProps =
-        buildSchemaConfig(appConfig, bootstrapBrokers, producerConfigOverrides);
-    producers.put(EmbeddedFormat.AVRO, buildAvroProducer(avroProps));
+      Map<String, Object> jsonProps = withPoolClientId(
+          buildStandardConfig(appConfig, bootstrapBrokers, producerConfigOverrides), poolSize, i);
+      producers.get(EmbeddedFormat.JSON).add(buildJsonProducer(jsonProps));
 
-    Map<String, Object> jsonSchemaProps =
-        buildSchemaConfig(appConfig, bootstrapBrokers, producerConfigOverrides);
-    producers.put(EmbeddedFormat.JSONSCHEMA, buildJsonSchemaProducer(jsonSchemaProps));
+      Map<String, Object> avroProps = withPoolClientId(
+          buildSchemaConfig(appConfig, bootstrapBrokers, producerConfigOverrides), poolSize, i);
+      producers.get(EmbeddedFormat.AVRO).add(buildAvroProducer(avroProps, avroSchemaCache));
 
-    Map<String, Object> protobufProps =
-        buildSchemaConfig(appConfig, bootstrapBrokers, producerConfigOverrides);
-    producers.put(EmbeddedFormat.PROTOBUF, buildProtobufProducer(protobufProps));
+      Map<String, Object> jsonSchemaProps = withPoolClientId(
+          buildSchemaConfig(appConfig, bootstrapBrokers, producerConfigOverrides), poolSize, i);
+      producers.get(EmbeddedFormat.JSONSCHEMA)
+          .add(buildJsonSchemaProducer(jsonSchemaProps, jsonSchemaCache));
+
+      Map<String, Object> protobufProps = withPoolClientId(
+          buildSchemaConfig(appConfig, bootstrapBrokers, producerConfigOverrides), poolSize, i);
+      producers.get(EmbeddedFormat.PROTOBUF)
+          .add(buildProtobufProducer(protobufProps, protobufSchemaCache));
+    }
+  }
+
+  private static ThreadPoolExecutor buildCompletionExecutor(
+      KafkaRestConfig appConfig,
+      Metrics metrics
+  ) {
+    int threads = appConfig.getInt(KafkaRestConfig.PRODUCER_THREADS_CONFIG);
+    int queueSize = appConfig.getInt(KafkaRestConfig.PRODUCER_COMPLETION_QUEUE_SIZE_CONFIG);
+
+    Sensor callerRunsSensor = metrics.sensor("produce-completion-caller-runs");
+    callerRunsSensor.add(
+        new Meter(
+            metrics.metricName(
+                "caller-runs-rate",
+                COMPLETION_METRIC_GROUP,
+                "The number of completions per second run on the producer I/O thread because the "
+                    + "completion queue was full."),
+            metrics.metricName(
+                "caller-runs-total",
+                COMPLETION_METRIC_GROUP,
+                "The total number of completions run on the producer I/O thread because the "
+                    + "completion queue was full.")));
+
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            /* keepAliveTime= */ 0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(queueSize),
+            new ThreadFactoryBuilder()
+                .setNameFormat("kafka-rest-produce-completion-%d")
+                .setDaemon(true)
+                .build(),
+            (runnable, rejectingExecutor) -> {
+              // Never drop a completion, otherwise the HTTP request would hang forever. Running it
+              // on the caller (i.e. the producer I/O thread) also pushes back on the producers.
+              callerRunsSensor.record();
+              runnable.run();
+            });
+
+    metrics.addMetric(
+        metrics.metricName(
+            "queue-size",
+            COMPLETION_METRIC_GROUP,
+            "The number of completed produce requests waiting for a completion thread."),
+        (Gauge<Integer>) (config, now) -> executor.getQueue().size());
+    metrics.addMetric(
+        metrics.metricName(
+            "queue-capacity",
+            COMPLETION_METRIC_GROUP,
+            "The maximum number of completed produce requests that can wait for a completion "
+                + "thread."),
+        (Gauge<Integer>) (config, now) -> queueSize);
+    metrics.addMetric(
+        metrics.metricName(
+            "active-threads",
+            COMPLETION_METRIC_GROUP,
+            "The number of completion threads currently building responses."),
+        (Gauge<Integer>) (config, now) -> executor.getActiveCount());
+
+    return executor;
+  }
+
+  private static Sensor buildAsyncSensor(Metrics metrics, String name, String description) {
+    Sensor sensor = metrics.sensor("produce-async-" + name);
+    sensor.add(
+        new Meter(
+            metrics.metricName(
+                name + "-rate",
+                ASYNC_METRIC_GROUP,
+                "The number of " + description + " per second."),
+            metrics.metricName(
+                name + "-total",
+                ASYNC_METRIC_GROUP,
+                "The total number of " + description + ".")));
+    return sensor;
+  }
+
+  /**
+   * Makes an explicitly configured {@code client.id} unique among the producers of the same format,
+   * so their metrics don't clash. Nothing is done if the pool only holds one producer per format.
+   */
+  private static Map<String, Object> withPoolClientId(
+      Map<String, Object> props,
+      int poolSize,
+      int index
+  ) {
+    Object clientId = props.get(ProducerConfig.CLIENT_ID_CONFIG);
+    if (poolSize > 1 && clientId != null && !clientId.toString().isEmpty()) {
+      props.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-" + index);
+    }
+    return props;
   }
 
   private Map<String, Object> buildStandardConfig(
@@ -138,7 +340,10 @@ public class ProducerPool {
     return buildConfig(schemaDefaults, producerProps, producerConfigOverrides);
   }
 
-  private SchemaRestProducer buildAvroProducer(Map<String, Object> props) {
+  private SchemaRestProducer buildAvroProducer(
+      Map<String, Object> props,
+      SchemaCache schemaCache
+  ) {
     final KafkaAvroSerializer keySerializer = new KafkaAvroSerializer();
     keySerializer.configure(props, true);
     final KafkaAvroSerializer valueSerializer = new KafkaAvroSerializer();
@@ -146,10 +351,14 @@ public class ProducerPool {
     KafkaProducer<Object, Object> producer
         = new KafkaProducer<Object, Object>(props, keySerializer, valueSerializer);
     return new SchemaRestProducer(producer, keySerializer, valueSerializer,
-        new AvroSchemaProvider(), new AvroConverter());
+        new AvroSchemaProvider(), new AvroConverter(), schemaCache,
+        conversionExecutor, conversionThreads, parallelConversionThreshold);
   }
 
-  private SchemaRestProducer buildJsonSchemaProducer(Map<String, Object> props) {
+  private SchemaRestProducer buildJsonSchemaProducer(
+      Map<String, Object> props,
+      SchemaCache schemaCache
+  ) {
     final KafkaJsonSchemaSerializer keySerializer = new KafkaJsonSchemaSerializer();
     keySerializer.configure(props, true);
     final KafkaJsonSchemaSerializer valueSerializer = new KafkaJsonSchemaSerializer();
@@ -157,10 +366,14 @@ public class ProducerPool {
     KafkaProducer<Object, Object> producer
         = new KafkaProducer<Object, Object>(props, keySerializer, valueSerializer);
     return new SchemaRestProducer(producer, keySerializer, valueSerializer,
-        new JsonSchemaProvider(), new JsonSchemaConverter());
+        new JsonSchemaProvider(), new JsonSchemaConverter(), schemaCache,
+        conversionExecutor, conversionThreads, parallelConversionThreshold);
   }
 
-  private SchemaRestProducer buildProtobufProducer(Map<String, Object> props) {
+  private SchemaRestProducer buildProtobufProducer(
+      Map<String, Object> props,
+      SchemaCache schemaCache
+  ) {
     final KafkaProtobufSerializer keySerializer = new KafkaProtobufSerializer();
     keySerializer.configure(props, true);
     final KafkaProtobufSerializer valueSerializer = new KafkaProtobufSerializer();
@@ -168,7 +381,8 @@ public class ProducerPool {
     KafkaProducer<Object, Object> producer
         = new KafkaProducer<Object, Object>(props, keySerializer, valueSerializer);
     return new SchemaRestProducer(producer, keySerializer, valueSerializer,
-        new ProtobufSchemaProvider(), new ProtobufConverter());
+        new ProtobufSchemaProvider(), new ProtobufConverter(), schemaCache,
+        conversionExecutor, conversionThreads, parallelConversionThreshold);
   }
 
   private Map<String, Object> buildConfig(
@@ -198,24 +412,111 @@ public class ProducerPool {
       ProduceRequest<K, V> produceRequest,
       ProduceRequestCallback callback
   ) {
+    int numRecords = produceRequest.getRecords().size();
+    long size = InFlightProduceBudget.estimateRecordsSize(produceRequest.getRecords());
+    InFlightProduceBudget budget = budgets.get(recordFormat);
+    if (!budget.tryAcquire(numRecords, size)) {
+      throw Errors.produceBudgetExceededException();
+    }
+
     ProduceTask task =
         new ProduceTask(
             produceRequest,
-            produceRequest.getRecords().size(),
-            callback);
+            numRecords,
+            // Released as soon as the records are acknowledged, not once a completion thread
+            // gets to the callback, so queued completions don't hold back new requests.
+            () -> budget.release(numRecords, size),
+            callback,
+            completionExecutor);
     log.trace("Starting produce task " + task.toString());
     @SuppressWarnings("unchecked")
-    RestProducer<K, V> restProducer = (RestProducer<K, V>) producers.get(recordFormat);
-    restProducer.produce(
-        task,
+    RestProducer<K, V> restProducer =
+        (RestProducer<K, V>) selectProducer(recordFormat, topic, partition);
+    try {
+      restProducer.produce(
+          task,
+          topic,
+          partition,
+          produceRequest.getRecords());
+    } catch (RuntimeException e) {
+      // The task won't complete, so give its share of the budget back now.
+      budget.release(numRecords, size);
+      throw e;
+    }
+  }
+
+  /**
+   * Produces the records of {@code produceRequest} without reporting their offsets back to the
+   * caller. Records that fail to be delivered are logged and counted in the {@code
+   * produce-async-metrics} group instead. Errors found before the records are handed to the
+   * producer, e.g. schema or conversion errors, are still thrown.
+   */
+  public <K, V> void produceAsync(
+      String topic,
+      Integer partition,
+      EmbeddedFormat recordFormat,
+      ProduceRequest<K, V> produceRequest
+  ) {
+    produce(
         topic,
         partition,
-        produceRequest.getRecords());
+        recordFormat,
+        produceRequest,
+        (keySchemaId, valueSchemaId, results) -> {
+          int failed = 0;
+          for (RecordMetadataOrException result : results) {
+            if (result.getException() != null) {
+              failed++;
+            }
+          }
+          asyncRecordSensor.record(results.size());
+          if (failed > 0) {
+            asyncRecordErrorSensor.record(failed);
+            log.warn(
+                "{} of {} records produced to topic {} without waiting for acknowledgement failed.",
+                failed, results.size(), topic);
+          }
+        });
+  }
+
+  /**
+   * Picks the producer of the given format responsible for {@code topic} (and {@code partition},
+   * if given). The choice is stable, so the same target always maps to the same producer.
+   */
+  private RestProducer<?, ?> selectProducer(
+      EmbeddedFormat recordFormat,
+      String topic,
+      Integer partition
+  ) {
+    List<RestProducer> formatProducers = producers.get(recordFormat);
+    if (formatProducers.size() == 1) {
+      return formatProducers.get(0);
+    }
+    int hash = partition == null ? topic.hashCode() : 31 * topic.hashCode() + partition;
+    return formatProducers.get(Math.floorMod(hash, formatProducers.size()));
   }
 
   public void shutdown() {
-    for (RestProducer restProducer : producers.values()) {
-      restProducer.close();
+    for (List<RestProducer> formatProducers : producers.values()) {
+      for (RestProducer restProducer : formatProducers) {
+        restProducer.close();
+      }
+    }
+    if (conversionExecutor != null) {
+      conversionExecutor.shutdown();
+    }
+    // Closing the producers flushes any in-flight records, so all completions have been submitted
+    // by now. Let the ones still queued finish.
+    completionExecutor.shutdown();
+    try {
+      if (!completionExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Timed out waiting for pending produce completions to finish.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (ownsMetrics) {
+      metrics.close();
     }
   }
 
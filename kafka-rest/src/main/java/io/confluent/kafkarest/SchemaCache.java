@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * A size-bounded cache of the schemas referenced by produce requests, either by subject and schema
+ * string or by schema ID. Once warm, produce requests neither parse schemas nor talk to Schema
+ * Registry. Least recently used entries are evicted first.
+ */
+public final class SchemaCache {
+
+  private static final String METRIC_GROUP = "produce-schema-cache-metrics";
+
+  private final Cache<SubjectAndSchema, SchemaAndId> bySubjectAndSchema;
+  private final Cache<Integer, ParsedSchema> byId;
+
+  public SchemaCache(long maxSize) {
+    bySubjectAndSchema = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+    byId = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+  }
+
+  /**
+   * Creates a cache for the schemas of the given {@code format}, reporting its hits and misses to
+   * {@code metrics}.
+   */
+  public SchemaCache(long maxSize, String format, Metrics metrics) {
+    this(maxSize);
+
+    Map<String, String> tags = Collections.singletonMap("format", format);
+    metrics.addMetric(
+        metrics.metricName(
+            "hit-total",
+            METRIC_GROUP,
+            "The total number of schemas resolved from the cache.",
+            tags),
+        (Gauge<Long>) (config, now) ->
+            bySubjectAndSchema.stats().hitCount() + byId.stats().hitCount());
+    metrics.addMetric(
+        metrics.metricName(
+            "miss-total",
+            METRIC_GROUP,
+            "The total number of schemas that had to be parsed or fetched from Schema Registry.",
+            tags),
+        (Gauge<Long>) (config, now) ->
+            bySubjectAndSchema.stats().missCount() + byId.stats().missCount());
+    metrics.addMetric(
+        metrics.metricName(
+            "eviction-total",
+            METRIC_GROUP,
+            "The total number of schemas evicted from the cache.",
+            tags),
+        (Gauge<Long>) (config, now) ->
+            bySubjectAndSchema.stats().evictionCount() + byId.stats().evictionCount());
+    metrics.addMetric(
+        metrics.metricName(
+            "size",
+            METRIC_GROUP,
+            "The number of schemas in the cache.",
+            tags),
+        (Gauge<Long>) (config, now) -> bySubjectAndSchema.size() + byId.size());
+  }
+
+  @Nullable
+  public SchemaAndId getBySubjectAndSchema(String subject, String schema) {
+    return bySubjectAndSchema.getIfPresent(SubjectAndSchema.create(subject, schema));
+  }
+
+  public void putBySubjectAndSchema(String subject, String schema, SchemaAndId schemaAndId) {
+    bySubjectAndSchema.put(SubjectAndSchema.create(subject, schema), schemaAndId);
+  }
+
+  @Nullable
+  public ParsedSchema getById(int schemaId) {
+    return byId.getIfPresent(schemaId);
+  }
+
+  public void putById(int schemaId, ParsedSchema schema) {
+    byId.put(schemaId, schema);
+  }
+
+  @AutoValue
+  abstract static class SubjectAndSchema {
+
+    SubjectAndSchema() {
+    }
+
+    abstract String getSubject();
+
+    abstract String getSchema();
+
+    static SubjectAndSchema create(String subject, String schema) {
+      return new AutoValue_SchemaCache_SubjectAndSchema(subject, schema);
+    }
+  }
+
+  @AutoValue
+  public abstract static class SchemaAndId {
+
+    SchemaAndId() {
+    }
+
+    public abstract ParsedSchema getSchema();
+
+    public abstract int getSchemaId();
+
+    public static SchemaAndId create(ParsedSchema schema, int schemaId) {
+      return new AutoValue_SchemaCache_SchemaAndId(schema, schemaId);
+    }
+  }
+}
@@ -27,21 +27,31 @@ import io.confluent.kafkarest.entities.ProduceRequest;
 import io.confluent.rest.exceptions.RestException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 
 public class SchemaRestProducer implements RestProducer<JsonNode, JsonNode> {
 
+  private static final long DEFAULT_SCHEMA_CACHE_SIZE = 1000;
+
   protected final KafkaProducer<Object, Object> producer;
   protected final AbstractKafkaSchemaSerDe keySerializer;
   protected final AbstractKafkaSchemaSerDe valueSerializer;
   protected final SchemaProvider schemaProvider;
   protected final SchemaConverter schemaConverter;
-  protected final Map<ParsedSchema, Integer> schemaIdCache;
+  protected final SchemaCache schemaCache;
+  @Nullable
+  private final ExecutorService conversionExecutor;
+  private final int conversionParallelism;
+  private final int parallelConversionThreshold;
 
   public SchemaRestProducer(
       KafkaProducer<Object, Object> producer,
@@ -49,13 +59,61 @@ public class SchemaRestProducer implements RestProducer<JsonNode, JsonNode> {
       AbstractKafkaSchemaSerDe valueSerializer,
       SchemaProvider schemaProvider,
       SchemaConverter schemaConverter
+  ) {
+    this(
+        producer,
+        keySerializer,
+        valueSerializer,
+        schemaProvider,
+        schemaConverter,
+        new SchemaCache(DEFAULT_SCHEMA_CACHE_SIZE));
+  }
+
+  public SchemaRestProducer(
+      KafkaProducer<Object, Object> producer,
+      AbstractKafkaSchemaSerDe keySerializer,
+      AbstractKafkaSchemaSerDe valueSerializer,
+      SchemaProvider schemaProvider,
+      SchemaConverter schemaConverter,
+      SchemaCache schemaCache
+  ) {
+    this(
+        producer,
+        keySerializer,
+        valueSerializer,
+        schemaProvider,
+        schemaConverter,
+        schemaCache,
+        /* conversionExecutor= */ null,
+        /* conversionParallelism= */ 0,
+        /* parallelConversionThreshold= */ 0);
+  }
+
+  /**
+   * Creates a producer that converts batches of at least {@code parallelConversionThreshold}
+   * records using up to {@code conversionParallelism} threads of {@code conversionExecutor}. A
+   * null executor means records are always converted on the calling thread.
+   */
+  public SchemaRestProducer(
+      KafkaProducer<Object, Object> producer,
+      AbstractKafkaSchemaSerDe keySerializer,
+      AbstractKafkaSchemaSerDe valueSerializer,
+      SchemaProvider schemaProvider,
+      SchemaConverter schemaConverter,
+      SchemaCache schemaCache,
+      @Nullable ExecutorService conversionExecutor,
+      int conversionParallelism,
+      int parallelConversionThreshold
   ) {
     this.producer = producer;
     this.keySerializer = keySerializer;
     this.valueSerializer = valueSerializer;
     this.schemaProvider = schemaProvider;
     this.schemaConverter = schemaConverter;
-    this.schemaIdCache = new ConcurrentHashMap<>(100);
+    this.schemaCache = schemaCache;
+    this.conversionExecutor = conversionExecutor;
+    this.conversionParallelism = conversionParallelism;
+    this.parallelConversionThreshold = parallelConversionThreshold;
   }
 
   public void produce(
@@ -67,41 +125,31 @@ public class SchemaRestProducer implements RestProducer<JsonNode, JsonNode> {
     ProduceRequest<?, ?> schemaHolder = task.getSchemaHolder();
     ParsedSchema keySchema = null;
     ParsedSchema valueSchema = null;
-    Integer keySchemaId = schemaHolder.getKeySchemaId();
-    Integer valueSchemaId = schemaHolder.getValueSchemaId();
+    Integer keySchemaId = null;
+    Integer valueSchemaId = null;
     try {
       // If both ID and schema are null, that may be ok. Validation of the ProduceTask by the
       // caller should have checked this already.
-      if (keySchemaId != null) {
-        keySchema = keySerializer.getSchemaById(keySchemaId);
-      } else if (schemaHolder.getKeySchema() != null) {
-        keySchema = schemaProvider.parseSchema(
-                schemaHolder.getKeySchema(), Collections.emptyList())
-                .orElseThrow(() -> Errors.invalidSchemaException(schemaHolder.getKeySchema())
-        );
-        if (schemaIdCache.containsKey(keySchema)) {
-          keySchemaId = schemaIdCache.get(keySchema);
-          keySchema = keySerializer.getSchemaById(keySchemaId);
-        } else {
-          keySchemaId = keySerializer.register(topic + "-key", keySchema);
-          schemaIdCache.put(keySchema, keySchemaId);
-        }
+      SchemaCache.SchemaAndId key =
+          resolveSchema(
+              keySerializer,
+              topic + "-key",
+              schemaHolder.getKeySchemaId(),
+              schemaHolder.getKeySchema());
+      if (key != null) {
+        keySchema = key.getSchema();
+        keySchemaId = key.getSchemaId();
       }
 
-      if (valueSchemaId != null) {
-        valueSchema = valueSerializer.getSchemaById(valueSchemaId);
-      } else if (schemaHolder.getValueSchema() != null) {
-        valueSchema = schemaProvider.parseSchema(
-                schemaHolder.getValueSchema(), Collections.emptyList())
-                .orElseThrow(() -> Errors.invalidSchemaException(schemaHolder.getValueSchema())
-        );
-        if (schemaIdCache.containsKey(valueSchema)) {
-          valueSchemaId = schemaIdCache.get(valueSchema);
-          valueSchema = valueSerializer.getSchemaById(valueSchemaId);
-        } else {
-          valueSchemaId = valueSerializer.register(topic + "-value", valueSchema);
-          schemaIdCache.put(valueSchema, valueSchemaId);
-        }
+      SchemaCache.SchemaAndId value =
+          resolveSchema(
+              valueSerializer,
+              topic + "-value",
+              schemaHolder.getValueSchemaId(),
+              schemaHolder.getValueSchema());
+      if (value != null) {
+        valueSchema = value.getSchema();
+        valueSchemaId = value.getSchemaId();
       }
     } catch (RestClientException e) {
       // FIXME We should return more specific error codes (unavailable vs registration failed in
@@ -116,23 +164,9 @@ public class SchemaRestProducer implements RestProducer<JsonNode, JsonNode> {
 
     // Convert everything before doing any sends so if any conversion fails we can kill
     // the entire request so we don't get partially sent requests
-    ArrayList<ProducerRecord<Object, Object>> kafkaRecords
-        = new ArrayList<ProducerRecord<Object, Object>>();
+    List<ProducerRecord<Object, Object>> kafkaRecords;
     try {
-      for (ProduceRecord<JsonNode, JsonNode> record : records) {
-        // Beware of null schemas and NullNodes here: we need to avoid attempting the conversion
-        // if there isn't a schema. Validation will have already checked that all the keys/values
-        // were NullNodes.
-        Object key = keySchema != null
-            ? schemaConverter.toObject(record.getKey(), keySchema) : null;
-        Object value = valueSchema != null
-            ? schemaConverter.toObject(record.getValue(), valueSchema) : null;
-        Integer recordPartition = partition;
-        if (recordPartition == null) {
-          recordPartition = record.getPartition();
-        }
-        kafkaRecords.add(new ProducerRecord(topic, recordPartition, key, value));
-      }
+      kafkaRecords = convertRecords(topic, partition, keySchema, valueSchema, records);
     } catch (ConversionException e) {
       throw Errors.jsonConversionException(e);
     }
@@ -141,6 +175,129 @@ public class SchemaRestProducer implements RestProducer<JsonNode, JsonNode> {
     }
   }
 
+  /**
+   * Converts the given records, splitting the work across the conversion executor (and the
+   * calling thread) if there are at least {@code parallelConversionThreshold} of them. Either all
+   * records are converted or the first {@link ConversionException} is thrown.
+   */
+  private List<ProducerRecord<Object, Object>> convertRecords(
+      String topic,
+      Integer partition,
+      @Nullable ParsedSchema keySchema,
+      @Nullable ParsedSchema valueSchema,
+      Collection<? extends ProduceRecord<JsonNode, JsonNode>> records
+  ) {
+    if (conversionExecutor == null
+        || parallelConversionThreshold <= 0
+        || records.size() < parallelConversionThreshold) {
+      List<ProducerRecord<Object, Object>> kafkaRecords = new ArrayList<>(records.size());
+      for (ProduceRecord<JsonNode, JsonNode> record : records) {
+        kafkaRecords.add(convertRecord(topic, partition, keySchema, valueSchema, record));
+      }
+      return kafkaRecords;
+    }
+
+    List<? extends ProduceRecord<JsonNode, JsonNode>> recordList = new ArrayList<>(records);
+    @SuppressWarnings("unchecked")
+    ProducerRecord<Object, Object>[] kafkaRecords = new ProducerRecord[recordList.size()];
+    // One chunk per conversion thread, plus one for the calling thread, which would otherwise
+    // just sit waiting.
+    int chunkSize = (recordList.size() + conversionParallelism) / (conversionParallelism + 1);
+    List<Future<?>> chunks = new ArrayList<>(conversionParallelism);
+    try {
+      for (int start = chunkSize; start < recordList.size(); start += chunkSize) {
+        int from = start;
+        int to = Math.min(start + chunkSize, recordList.size());
+        chunks.add(
+            conversionExecutor.submit(
+                () -> {
+                  for (int i = from; i < to; i++) {
+                    kafkaRecords[i] =
+                        convertRecord(topic, partition, keySchema, valueSchema, recordList.get(i));
+                  }
+                }));
+      }
+      for (int i = 0; i < Math.min(chunkSize, recordList.size()); i++) {
+        kafkaRecords[i] =
+            convertRecord(topic, partition, keySchema, valueSchema, recordList.get(i));
+      }
+      for (Future<?> chunk : chunks) {
+        chunk.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while converting records.", e);
+    } finally {
+      // No-op if everything went well. Otherwise, the request is failing anyway.
+      for (Future<?> chunk : chunks) {
+        chunk.cancel(/* mayInterruptIfRunning= */ false);
+      }
+    }
+    return Arrays.asList(kafkaRecords);
+  }
+
+  private ProducerRecord<Object, Object> convertRecord(
+      String topic,
+      Integer partition,
+      @Nullable ParsedSchema keySchema,
+      @Nullable ParsedSchema valueSchema,
+      ProduceRecord<JsonNode, JsonNode> record
+  ) {
+    // Beware of null schemas and NullNodes here: we need to avoid attempting the conversion
+    // if there isn't a schema. Validation will have already checked that all the keys/values
+    // were NullNodes.
+    Object key = keySchema != null
+        ? schemaConverter.toObject(record.getKey(), keySchema) : null;
+    Object value = valueSchema != null
+        ? schemaConverter.toObject(record.getValue(), valueSchema) : null;
+    Integer recordPartition = partition;
+    if (recordPartition == null) {
+      recordPartition = record.getPartition();
+    }
+    return new ProducerRecord<>(topic, recordPartition, key, value);
+  }
+
+  /**
+   * Resolves the schema of a produce request, given either by ID or as a schema string to register
+   * under {@code subject}. Returns null if neither is given.
+   */
+  @Nullable
+  private SchemaCache.SchemaAndId resolveSchema(
+      AbstractKafkaSchemaSerDe serializer,
+      String subject,
+      @Nullable Integer schemaId,
+      @Nullable String rawSchema
+  ) throws IOException, RestClientException {
+    if (schemaId != null) {
+      ParsedSchema schema = schemaCache.getById(schemaId);
+      if (schema == null) {
+        schema = serializer.getSchemaById(schemaId);
+        schemaCache.putById(schemaId, schema);
+      }
+      return SchemaCache.SchemaAndId.create(schema, schemaId);
+    }
+    if (rawSchema == null) {
+      return null;
+    }
+
+    SchemaCache.SchemaAndId cached = schemaCache.getBySubjectAndSchema(subject, rawSchema);
+    if (cached != null) {
+      return cached;
+    }
+    ParsedSchema schema =
+        schemaProvider.parseSchema(rawSchema, Collections.emptyList())
+            .orElseThrow(() -> Errors.invalidSchemaException(rawSchema));
+    SchemaCache.SchemaAndId resolved =
+        SchemaCache.SchemaAndId.create(schema, serializer.register(subject, schema));
+    schemaCache.putBySubjectAndSchema(subject, rawSchema, resolved);
+    return resolved;
+  }
+
   public void close() {
     producer.close();
   }
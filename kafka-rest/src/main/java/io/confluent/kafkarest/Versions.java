@@ -44,6 +44,22 @@ public class Versions {
   public static final String KAFKA_V2_JSON_PROTOBUF_WEIGHTED_LOW =
       KAFKA_V2_JSON_PROTOBUF + "; qs=0.1";
 
+  // Newline-delimited variants, one record per line, used to stream produce requests and their
+  // per-record results, and consumed records, instead of buffering the whole batch.
+  public static final String KAFKA_V2_NDJSON = "application/vnd.kafka.v2+x-ndjson";
+  public static final String KAFKA_V2_NDJSON_BINARY = "application/vnd.kafka.binary.v2+x-ndjson";
+  public static final String KAFKA_V2_NDJSON_JSON = "application/vnd.kafka.json.v2+x-ndjson";
+  public static final String KAFKA_V2_NDJSON_AVRO = "application/vnd.kafka.avro.v2+x-ndjson";
+  public static final String KAFKA_V2_NDJSON_JSON_SCHEMA =
+      "application/vnd.kafka.jsonschema.v2+x-ndjson";
+  public static final String KAFKA_V2_NDJSON_PROTOBUF =
+      "application/vnd.kafka.protobuf.v2+x-ndjson";
+
+  // A single record whose value is the raw request body, with no base64 or JSON envelope. Not
+  // plain application/octet-stream, which is what requests with no content type default to.
+  public static final String KAFKA_V2_OCTET_STREAM_RAW =
+      "application/vnd.kafka.raw.v2+octet-stream";
+
   // These are defaults that track the most recent API version. These should always be specified
   // anywhere the latest version is produced/consumed.
   public static final String JSON = "application/json";
@@ -26,6 +26,7 @@ import io.confluent.kafkarest.entities.AbstractConfig;
 import io.confluent.kafkarest.entities.AlterConfigCommand;
 import io.confluent.kafkarest.entities.ConfigSource;
 import io.confluent.kafkarest.entities.ConfigSynonym;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -44,10 +45,13 @@ abstract class AbstractConfigManager<
 
   private final Admin adminClient;
   private final ClusterManager clusterManager;
+  private final AdminRequestCoalescer coalescer;
 
-  AbstractConfigManager(Admin adminClient, ClusterManager clusterManager) {
+  AbstractConfigManager(
+      Admin adminClient, ClusterManager clusterManager, AdminRequestCoalescer coalescer) {
     this.adminClient = requireNonNull(adminClient);
     this.clusterManager = requireNonNull(clusterManager);
+    this.coalescer = requireNonNull(coalescer);
   }
 
   final CompletableFuture<List<T>> listConfigs(
@@ -56,12 +60,16 @@ abstract class AbstractConfigManager<
         .thenApply(cluster -> checkEntityExists(cluster, "Cluster %s cannot be found.", clusterId))
         .thenCompose(
             cluster ->
-                KafkaFutures.toCompletableFuture(
-                    adminClient.describeConfigs(
-                        singletonList(resourceId),
-                        new DescribeConfigsOptions().includeSynonyms(true))
-                        .values()
-                        .get(resourceId)))
+                coalescer.coalesce(
+                    adminClient,
+                    Arrays.asList("describeConfigs", resourceId),
+                    () ->
+                        KafkaFutures.toCompletableFuture(
+                            adminClient.describeConfigs(
+                                singletonList(resourceId),
+                                new DescribeConfigsOptions().includeSynonyms(true))
+                                .values()
+                                .get(resourceId))))
         .thenApply(
             response ->
                 response.entries().stream()
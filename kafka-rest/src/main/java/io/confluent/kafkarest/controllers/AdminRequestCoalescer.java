@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * Shares a single in-flight {@link Admin} request between concurrent callers asking the same
+ * question of the same client, e.g. many requests describing the same topic at once.
+ *
+ * <p>Only in-flight requests are shared. Once a request completes, the next caller sends a new one,
+ * so results are never staler than they would be without coalescing.</p>
+ */
+final class AdminRequestCoalescer {
+
+  private static final String METRIC_GROUP = "admin-request-coalescing-metrics";
+
+  private final ConcurrentMap<Key, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong deduplicated = new AtomicLong();
+
+  @Inject
+  AdminRequestCoalescer(Metrics metrics) {
+    metrics.addMetric(
+        metrics.metricName(
+            "requests-total", METRIC_GROUP, "The number of Admin requests asked for."),
+        (Gauge<Long>) (config, now) -> requests.get());
+    metrics.addMetric(
+        metrics.metricName(
+            "deduplicated-total",
+            METRIC_GROUP,
+            "The number of Admin requests served by an identical request already in flight."),
+        (Gauge<Long>) (config, now) -> deduplicated.get());
+    metrics.addMetric(
+        metrics.metricName(
+            "dedupe-ratio",
+            METRIC_GROUP,
+            "The fraction of Admin requests served by an identical request already in flight."),
+        (Gauge<Double>) (config, now) -> getDedupeRatio());
+  }
+
+  /**
+   * Returns the result of {@code call}, or of an identical call already in flight.
+   *
+   * <p>Calls are identical if they're made on the same {@code adminClient}, and their {@code
+   * request} components are equal. The first component should name the {@link Admin} method, and
+   * the following ones its arguments.</p>
+   */
+  <T> CompletableFuture<T> coalesce(
+      Admin adminClient, List<?> request, Supplier<CompletableFuture<T>> call) {
+    requests.incrementAndGet();
+
+    Key key = new Key(adminClient, request);
+    CompletableFuture<T> shared = new CompletableFuture<>();
+    @SuppressWarnings("unchecked")
+    CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, shared);
+    if (existing != null) {
+      deduplicated.incrementAndGet();
+      return copyOf(existing);
+    }
+
+    CompletableFuture<T> result;
+    try {
+      result = call.get();
+    } catch (RuntimeException e) {
+      result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+    }
+    result.whenComplete(
+        (value, error) -> {
+          inFlight.remove(key, shared);
+          if (error != null) {
+            shared.completeExceptionally(error);
+          } else {
+            shared.complete(value);
+          }
+        });
+    return copyOf(shared);
+  }
+
+  /**
+   * Returns a future completed with {@code future}, so that callers can't complete the shared
+   * future for each other.
+   */
+  private static <T> CompletableFuture<T> copyOf(CompletableFuture<T> future) {
+    return future.thenApply(value -> value);
+  }
+
+  private double getDedupeRatio() {
+    long total = requests.get();
+    return total == 0 ? 0.0 : (double) deduplicated.get() / total;
+  }
+
+  private static final class Key {
+    private final Admin adminClient;
+    private final List<?> request;
+
+    private Key(Admin adminClient, List<?> request) {
+      this.adminClient = requireNonNull(adminClient);
+      this.request = requireNonNull(request);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      // Clients are compared by identity, so requests on behalf of different principals are
+      // never shared.
+      return adminClient == key.adminClient && request.equals(key.request);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(adminClient) + request.hashCode();
+    }
+  }
+}
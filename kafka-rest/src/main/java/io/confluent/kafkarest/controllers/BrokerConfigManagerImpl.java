@@ -29,8 +29,9 @@ final class BrokerConfigManagerImpl
     implements BrokerConfigManager {
 
   @Inject
-  BrokerConfigManagerImpl(Admin adminClient, ClusterManager clusterManager) {
-    super(adminClient, clusterManager);
+  BrokerConfigManagerImpl(
+      Admin adminClient, ClusterManager clusterManager, AdminRequestCoalescer coalescer) {
+    super(adminClient, clusterManager, coalescer);
   }
 
   @Override
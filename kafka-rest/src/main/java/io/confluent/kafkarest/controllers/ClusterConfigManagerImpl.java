@@ -29,8 +29,9 @@ final class ClusterConfigManagerImpl
     implements ClusterConfigManager {
 
   @Inject
-  ClusterConfigManagerImpl(Admin adminClient, ClusterManager clusterManager) {
-    super(adminClient, clusterManager);
+  ClusterConfigManagerImpl(
+      Admin adminClient, ClusterManager clusterManager, AdminRequestCoalescer coalescer) {
+    super(adminClient, clusterManager, coalescer);
   }
 
   @Override
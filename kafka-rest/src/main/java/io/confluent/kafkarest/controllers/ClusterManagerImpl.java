@@ -36,10 +36,12 @@ import org.apache.kafka.clients.admin.DescribeClusterResult;
 final class ClusterManagerImpl implements ClusterManager {
 
   private final Admin adminClient;
+  private final ClusterMetadataCache clusterMetadataCache;
 
   @Inject
-  ClusterManagerImpl(Admin adminClient) {
+  ClusterManagerImpl(Admin adminClient, ClusterMetadataCache clusterMetadataCache) {
     this.adminClient = requireNonNull(adminClient);
+    this.clusterMetadataCache = requireNonNull(clusterMetadataCache);
   }
 
   @Override
@@ -56,6 +58,10 @@ final class ClusterManagerImpl implements ClusterManager {
 
   @Override
   public CompletableFuture<Cluster> getLocalCluster() {
+    return clusterMetadataCache.getCluster(adminClient);
+  }
+
+  static CompletableFuture<Cluster> describeCluster(Admin adminClient) {
     DescribeClusterResult describeClusterResult =
         adminClient.describeCluster(
             new DescribeClusterOptions().includeAuthorizedOperations(false));
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.Time;
+import io.confluent.kafkarest.entities.Cluster;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+import org.glassfish.hk2.api.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The last known {@link Cluster} of each {@link Admin} client, refreshed in the background every
+ * {@code cluster.metadata.cache.ttl.ms}, so requests don't describe the cluster every time.
+ *
+ * <p>A failed refresh drops the cluster, so the next request describes it again, and fails if the
+ * cluster can't be described.</p>
+ */
+final class ClusterMetadataCache implements PreDestroy {
+
+  private static final Logger log = LoggerFactory.getLogger(ClusterMetadataCache.class);
+
+  private static final String METRIC_GROUP = "cluster-metadata-cache-metrics";
+
+  private final Time time;
+  private final Function<Admin, CompletableFuture<Cluster>> describeCluster;
+
+  // Weak keys, so the clients of discarded contexts can be garbage collected.
+  @GuardedBy("this")
+  private final Map<Admin, Snapshot> snapshots = new WeakHashMap<>();
+
+  // Null if the cache is disabled.
+  @Nullable
+  private final ScheduledExecutorService refreshExecutor;
+
+  @Inject
+  ClusterMetadataCache(KafkaRestConfig config, Metrics metrics) {
+    this(
+        Duration.ofMillis(config.getLong(KafkaRestConfig.CLUSTER_METADATA_CACHE_TTL_MS_CONFIG)),
+        config.getTime(),
+        metrics,
+        ClusterManagerImpl::describeCluster);
+  }
+
+  ClusterMetadataCache(
+      Duration ttl,
+      Time time,
+      Metrics metrics,
+      Function<Admin, CompletableFuture<Cluster>> describeCluster) {
+    this.time = requireNonNull(time);
+    this.describeCluster = requireNonNull(describeCluster);
+
+    if (ttl.isZero()) {
+      refreshExecutor = null;
+    } else {
+      refreshExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setNameFormat("kafka-rest-cluster-metadata-refresh-%d")
+                  .setDaemon(true)
+                  .build());
+      refreshExecutor.scheduleWithFixedDelay(
+          this::refresh, ttl.toMillis(), ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    metrics.addMetric(
+        metrics.metricName(
+            "age-ms",
+            METRIC_GROUP,
+            "The time since the oldest cluster metadata in the cache was described."),
+        (Gauge<Long>) (config, now) -> getAgeMs());
+  }
+
+  /**
+   * Returns the last known {@link Cluster} of {@code adminClient}, describing it if it's not known
+   * yet.
+   */
+  CompletableFuture<Cluster> getCluster(Admin adminClient) {
+    if (refreshExecutor == null) {
+      return describeCluster.apply(adminClient);
+    }
+
+    Snapshot snapshot;
+    boolean describe = false;
+    synchronized (this) {
+      snapshot = snapshots.get(adminClient);
+      if (snapshot == null) {
+        snapshot = new Snapshot();
+        snapshots.put(adminClient, snapshot);
+        describe = true;
+      }
+    }
+    // Concurrent requests for an unknown cluster share the same describe.
+    if (describe) {
+      describe(adminClient, snapshot);
+    }
+    return snapshot.cluster;
+  }
+
+  /**
+   * Describes again the clusters known, except those still being described.
+   */
+  void refresh() {
+    Map<Admin, Snapshot> toRefresh;
+    synchronized (this) {
+      toRefresh = new HashMap<>(snapshots);
+    }
+    for (Map.Entry<Admin, Snapshot> entry : toRefresh.entrySet()) {
+      Snapshot snapshot = entry.getValue();
+      if (snapshot.cluster.isDone() && snapshot.describing.compareAndSet(false, true)) {
+        describe(entry.getKey(), snapshot);
+      }
+    }
+  }
+
+  private void describe(Admin adminClient, Snapshot snapshot) {
+    CompletableFuture<Cluster> cluster;
+    try {
+      cluster = describeCluster.apply(adminClient);
+    } catch (RuntimeException e) {
+      cluster = new CompletableFuture<>();
+      cluster.completeExceptionally(e);
+    }
+    cluster.whenComplete(
+        (value, error) -> {
+          snapshot.describing.set(false);
+          if (error != null) {
+            log.debug("Failed to describe the cluster", error);
+            synchronized (this) {
+              snapshots.remove(adminClient, snapshot);
+            }
+            snapshot.cluster.completeExceptionally(error);
+            return;
+          }
+          if (!snapshot.cluster.complete(value)) {
+            snapshot.cluster = CompletableFuture.completedFuture(value);
+          }
+          snapshot.describedAtMs = time.milliseconds();
+        });
+  }
+
+  private synchronized long getAgeMs() {
+    long now = time.milliseconds();
+    long age = 0;
+    for (Snapshot snapshot : snapshots.values()) {
+      if (snapshot.describedAtMs >= 0) {
+        age = Math.max(age, now - snapshot.describedAtMs);
+      }
+    }
+    return age;
+  }
+
+  @Override
+  public void preDestroy() {
+    if (refreshExecutor != null) {
+      refreshExecutor.shutdownNow();
+    }
+  }
+
+  private static final class Snapshot {
+    // Completed once the cluster is first described, and replaced by each refresh.
+    volatile CompletableFuture<Cluster> cluster = new CompletableFuture<>();
+    // -1 until the cluster is first described.
+    volatile long describedAtMs = -1;
+    final AtomicBoolean describing = new AtomicBoolean(true);
+  }
+}
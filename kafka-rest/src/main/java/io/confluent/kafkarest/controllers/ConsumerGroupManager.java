@@ -16,9 +16,11 @@
 package io.confluent.kafkarest.controllers;
 
 import io.confluent.kafkarest.entities.ConsumerGroup;
+import io.confluent.kafkarest.entities.Page;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
 
 /**
  * A service to manage Kafka {@link ConsumerGroup Consumer Groups}.
@@ -31,6 +33,14 @@ public interface ConsumerGroupManager {
    */
   CompletableFuture<List<ConsumerGroup>> listConsumerGroups(String clusterId);
 
+  /**
+   * Returns the page of at most {@code pageSize} Kafka {@link ConsumerGroup Consumer Groups},
+   * sorted by ID, following the consumer group {@code after}, or the first page if {@code after} is
+   * null. Only the consumer groups in the page are described.
+   */
+  CompletableFuture<Page<ConsumerGroup>> listConsumerGroups(
+      String clusterId, @Nullable String after, int pageSize);
+
   /**
    * Returns the Kafka {@link ConsumerGroup} with the given {@code consumerGroupId}.
    */
@@ -16,15 +16,21 @@
 package io.confluent.kafkarest.controllers;
 
 import static io.confluent.kafkarest.controllers.Entities.checkEntityExists;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
 import io.confluent.kafkarest.common.KafkaFutures;
 import io.confluent.kafkarest.entities.ConsumerGroup;
+import io.confluent.kafkarest.entities.Page;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.ConsumerGroupListing;
@@ -34,11 +40,14 @@ final class ConsumerGroupManagerImpl implements ConsumerGroupManager {
 
   private final Admin adminClient;
   private final ClusterManager clusterManager;
+  private final AdminRequestCoalescer coalescer;
 
   @Inject
-  ConsumerGroupManagerImpl(Admin adminClient, ClusterManager clusterManager) {
+  ConsumerGroupManagerImpl(
+      Admin adminClient, ClusterManager clusterManager, AdminRequestCoalescer coalescer) {
     this.adminClient = requireNonNull(adminClient);
     this.clusterManager = requireNonNull(clusterManager);
+    this.coalescer = requireNonNull(coalescer);
   }
 
   @Override
@@ -57,6 +66,37 @@ final class ConsumerGroupManagerImpl implements ConsumerGroupManager {
                         .collect(Collectors.toList())));
   }
 
+  @Override
+  public CompletableFuture<Page<ConsumerGroup>> listConsumerGroups(
+      String clusterId, @Nullable String after, int pageSize) {
+    return clusterManager.getCluster(clusterId)
+        .thenApply(
+            cluster -> checkEntityExists(cluster, "Cluster %s could not be found.", clusterId))
+        .thenCompose(
+            cluster -> KafkaFutures.toCompletableFuture(adminClient.listConsumerGroups().all()))
+        .thenCompose(
+            listings -> {
+              Page<String> page =
+                  Page.ofNames(
+                      listings.stream()
+                          .map(ConsumerGroupListing::groupId)
+                          .collect(Collectors.toList()),
+                      after,
+                      pageSize);
+              if (page.getItems().isEmpty()) {
+                return CompletableFuture.completedFuture(
+                    page.<ConsumerGroup>withItems(emptyList()));
+              }
+              return getConsumerGroups(clusterId, page.getItems())
+                  .thenApply(
+                      consumerGroups -> {
+                        List<ConsumerGroup> sorted = new ArrayList<>(consumerGroups);
+                        sorted.sort(Comparator.comparing(ConsumerGroup::getConsumerGroupId));
+                        return page.withItems(sorted);
+                      });
+            });
+  }
+
   @Override
   public CompletableFuture<Optional<ConsumerGroup>> getConsumerGroup(
       String clusterId, String consumerGroupId) {
@@ -69,8 +109,12 @@ final class ConsumerGroupManagerImpl implements ConsumerGroupManager {
 
   private CompletableFuture<List<ConsumerGroup>> getConsumerGroups(
       String clusterId, List<String> consumerGroupIds) {
-    return KafkaFutures.toCompletableFuture(
-        adminClient.describeConsumerGroups(consumerGroupIds).all())
+    return coalescer.coalesce(
+        adminClient,
+        Arrays.asList("describeConsumerGroups", consumerGroupIds),
+        () ->
+            KafkaFutures.toCompletableFuture(
+                adminClient.describeConsumerGroups(consumerGroupIds).all()))
         .thenApply(
             descriptions ->
                 descriptions.values()
@@ -15,6 +15,10 @@
 
 package io.confluent.kafkarest.controllers;
 
+import static java.util.Objects.requireNonNull;
+
+import javax.inject.Singleton;
+import org.apache.kafka.common.metrics.Metrics;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 
 /**
@@ -22,6 +26,16 @@ import org.glassfish.hk2.utilities.binding.AbstractBinder;
  */
 public final class ControllersModule extends AbstractBinder {
 
+  private final Metrics metrics;
+
+  /**
+   * Creates a module that binds the application's metrics registry, which is owned (and closed) by
+   * the caller.
+   */
+  public ControllersModule(Metrics metrics) {
+    this.metrics = requireNonNull(metrics);
+  }
+
   protected void configure() {
     bind(AclManagerImpl.class).to(AclManager.class);
     bind(BrokerConfigManagerImpl.class).to(BrokerConfigManager.class);
@@ -36,5 +50,9 @@ public final class ControllersModule extends AbstractBinder {
     bind(ReplicaManagerImpl.class).to(ReplicaManager.class);
     bind(TopicConfigManagerImpl.class).to(TopicConfigManager.class);
     bind(TopicManagerImpl.class).to(TopicManager.class);
+
+    bindAsContract(AdminRequestCoalescer.class).in(Singleton.class);
+    bindAsContract(ClusterMetadataCache.class).in(Singleton.class);
+    bind(metrics).to(Metrics.class);
   }
 }
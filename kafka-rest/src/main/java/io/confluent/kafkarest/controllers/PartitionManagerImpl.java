@@ -26,6 +26,7 @@ import io.confluent.kafkarest.common.KafkaFutures;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.Topic;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -43,11 +44,14 @@ final class PartitionManagerImpl implements PartitionManager {
 
   private final Admin adminClient;
   private final TopicManager topicManager;
+  private final AdminRequestCoalescer coalescer;
 
   @Inject
-  PartitionManagerImpl(Admin adminClient, TopicManager topicManager) {
+  PartitionManagerImpl(
+      Admin adminClient, TopicManager topicManager, AdminRequestCoalescer coalescer) {
     this.adminClient = requireNonNull(adminClient);
     this.topicManager = requireNonNull(topicManager);
+    this.coalescer = requireNonNull(coalescer);
   }
 
   @Override
@@ -99,6 +103,15 @@ final class PartitionManagerImpl implements PartitionManager {
       return completedFuture(emptyList());
     }
 
+    // OffsetSpec doesn't implement equals, so earliest and latest offsets are coalesced together.
+    return coalescer.coalesce(
+        adminClient,
+        Arrays.asList("listOffsets", partitions),
+        () -> listEarliestAndLatestOffsets(partitions));
+  }
+
+  private CompletableFuture<List<Partition>> listEarliestAndLatestOffsets(
+      List<Partition> partitions) {
     ListOffsetsResult earliestResponse = listOffsets(partitions, OffsetSpec.earliest());
     ListOffsetsResult latestResponse = listOffsets(partitions, OffsetSpec.latest());
 
@@ -20,31 +20,37 @@ import static io.confluent.kafkarest.controllers.Entities.findEntityByKey;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
-import io.confluent.kafkarest.common.CompletableFutures;
 import io.confluent.kafkarest.common.KafkaFutures;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.PartitionReplica;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.DescribeLogDirsOptions;
 import org.apache.kafka.clients.admin.DescribeLogDirsResult;
+import org.apache.kafka.common.TopicPartition;
 
 final class ReplicaManagerImpl implements ReplicaManager {
 
   private final Admin adminClient;
   private final BrokerManager brokerManager;
   private final PartitionManager partitionManager;
+  private final TopicManager topicManager;
 
   @Inject
   ReplicaManagerImpl(
-      Admin adminClient, BrokerManager brokerManager, PartitionManager partitionManager) {
+      Admin adminClient,
+      BrokerManager brokerManager,
+      PartitionManager partitionManager,
+      TopicManager topicManager) {
     this.adminClient = requireNonNull(adminClient);
     this.brokerManager = requireNonNull(brokerManager);
     this.partitionManager = requireNonNull(partitionManager);
+    this.topicManager = requireNonNull(topicManager);
   }
 
   @Override
@@ -79,20 +85,29 @@ final class ReplicaManagerImpl implements ReplicaManager {
               return KafkaFutures.toCompletableFuture(result.values().get(brokerId));
             })
         .thenCompose(
-            logDirs ->
-                CompletableFutures.allAsList(
-                    logDirs.values().stream()
-                        .flatMap(logDir -> logDir.replicaInfos.keySet().stream())
-                        .map(
-                            partition ->
-                                getReplica(
-                                    clusterId, partition.topic(), partition.partition(), brokerId))
-                        .collect(Collectors.toList())))
-        .thenApply(
-            replicas ->
-                replicas.stream()
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toList()));
+            logDirs -> {
+              Set<TopicPartition> hostedPartitions =
+                  logDirs.values().stream()
+                      .flatMap(logDir -> logDir.replicaInfos.keySet().stream())
+                      .collect(Collectors.toSet());
+              // Describe all the topics hosted by the broker at once, rather than each partition,
+              // and without offsets, which replicas don't need.
+              return topicManager.getTopics(
+                  clusterId,
+                  hostedPartitions.stream().map(TopicPartition::topic).collect(Collectors.toSet()))
+                  .thenApply(
+                      topics ->
+                          topics.stream()
+                              .flatMap(topic -> topic.getPartitions().stream())
+                              .filter(
+                                  partition ->
+                                      hostedPartitions.contains(
+                                          new TopicPartition(
+                                              partition.getTopicName(),
+                                              partition.getPartitionId())))
+                              .flatMap(partition -> partition.getReplicas().stream())
+                              .filter(replica -> replica.getBrokerId() == brokerId)
+                              .collect(Collectors.toList()));
+            });
   }
 }
@@ -28,8 +28,9 @@ final class TopicConfigManagerImpl
     extends AbstractConfigManager<TopicConfig, TopicConfig.Builder> implements TopicConfigManager {
 
   @Inject
-  TopicConfigManagerImpl(Admin adminClient, ClusterManager clusterManager) {
-    super(adminClient, clusterManager);
+  TopicConfigManagerImpl(
+      Admin adminClient, ClusterManager clusterManager, AdminRequestCoalescer coalescer) {
+    super(adminClient, clusterManager, coalescer);
   }
 
   @Override
@@ -15,12 +15,15 @@
 
 package io.confluent.kafkarest.controllers;
 
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.Topic;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
 
 /**
  * A service to manage Kafka {@link Topic Topics}.
@@ -33,17 +36,40 @@ public interface TopicManager {
    */
   CompletableFuture<List<Topic>> listTopics(String clusterId);
 
+  /**
+   * Returns the page of at most {@code pageSize} Kafka {@link Topic Topics}, sorted by name,
+   * following the topic named {@code after}, or the first page if {@code after} is null. Only the
+   * topics in the page are described.
+   */
+  CompletableFuture<Page<Topic>> listTopics(
+      String clusterId, @Nullable String after, int pageSize);
+
   /**
    * Returns the list of Kafka {@link Topic Topics} belonging to the {@link
    * io.confluent.kafkarest.entities.Cluster} that this application is connected to.
    */
   CompletableFuture<List<Topic>> listLocalTopics();
 
+  /**
+   * Returns the names of the Kafka {@link Topic Topics} belonging to the {@link
+   * io.confluent.kafkarest.entities.Cluster} that this application is connected to.
+   *
+   * <p>Unlike {@link #listLocalTopics()}, this doesn't describe the topics, so use this when only
+   * the names are needed.</p>
+   */
+  CompletableFuture<List<String>> listLocalTopicNames();
+
   /**
    * Returns the Kafka {@link Topic} with the given {@code topicName}.
    */
   CompletableFuture<Optional<Topic>> getTopic(String clusterId, String topicName);
 
+  /**
+   * Returns the Kafka {@link Topic Topics} with the given {@code topicNames}, described in a
+   * single batch.
+   */
+  CompletableFuture<List<Topic>> getTopics(String clusterId, Set<String> topicNames);
+
   /**
    * Returns the Kafka {@link Topic} with the given {@code topicName}, belonging to the {@link
    * io.confluent.kafkarest.entities.Cluster} that this application is connected to.
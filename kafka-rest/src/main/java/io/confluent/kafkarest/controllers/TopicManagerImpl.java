@@ -21,10 +21,13 @@ import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 
 import io.confluent.kafkarest.common.KafkaFutures;
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.PartitionReplica;
 import io.confluent.kafkarest.entities.Topic;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +35,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -44,11 +48,14 @@ final class TopicManagerImpl implements TopicManager {
 
   private final Admin adminClient;
   private final ClusterManager clusterManager;
+  private final AdminRequestCoalescer coalescer;
 
   @Inject
-  TopicManagerImpl(Admin adminClient, ClusterManager clusterManager) {
+  TopicManagerImpl(
+      Admin adminClient, ClusterManager clusterManager, AdminRequestCoalescer coalescer) {
     this.adminClient = requireNonNull(adminClient);
     this.clusterManager = requireNonNull(clusterManager);
+    this.coalescer = requireNonNull(coalescer);
   }
 
   @Override
@@ -68,6 +75,30 @@ final class TopicManagerImpl implements TopicManager {
             });
   }
 
+  @Override
+  public CompletableFuture<Page<Topic>> listTopics(
+      String clusterId, @Nullable String after, int pageSize) {
+    return clusterManager.getCluster(clusterId)
+        .thenApply(cluster -> checkEntityExists(cluster, "Cluster %s cannot be found.", clusterId))
+        .thenCompose(
+            cluster -> KafkaFutures.toCompletableFuture(adminClient.listTopics().names()))
+        .thenCompose(
+            topicNames -> {
+              Page<String> page =
+                  Page.ofNames(topicNames == null ? emptyList() : topicNames, after, pageSize);
+              if (page.getItems().isEmpty()) {
+                return CompletableFuture.completedFuture(page.<Topic>withItems(emptyList()));
+              }
+              return describeTopics(clusterId, page.getItems())
+                  .thenApply(
+                      topics -> {
+                        List<Topic> sorted = new ArrayList<>(topics);
+                        sorted.sort(Comparator.comparing(Topic::getName));
+                        return page.withItems(sorted);
+                      });
+            });
+  }
+
   @Override
   public CompletableFuture<List<Topic>> listLocalTopics() {
     return clusterManager.getLocalCluster()
@@ -87,6 +118,12 @@ final class TopicManagerImpl implements TopicManager {
                         }));
   }
 
+  @Override
+  public CompletableFuture<List<String>> listLocalTopicNames() {
+    return KafkaFutures.toCompletableFuture(adminClient.listTopics().names())
+        .thenApply(names -> names == null ? emptyList() : new ArrayList<>(names));
+  }
+
   @Override
   public CompletableFuture<Optional<Topic>> getTopic(String clusterId, String topicName) {
     requireNonNull(topicName);
@@ -110,6 +147,15 @@ final class TopicManagerImpl implements TopicManager {
             });
   }
 
+  @Override
+  public CompletableFuture<List<Topic>> getTopics(String clusterId, Set<String> topicNames) {
+    requireNonNull(topicNames);
+
+    return clusterManager.getCluster(clusterId)
+        .thenApply(cluster -> checkEntityExists(cluster, "Cluster %s cannot be found.", clusterId))
+        .thenCompose(cluster -> describeTopics(clusterId, new ArrayList<>(topicNames)));
+  }
+
   @Override
   public CompletableFuture<Optional<Topic>> getLocalTopic(String topicName) {
     requireNonNull(topicName);
@@ -130,7 +176,10 @@ final class TopicManagerImpl implements TopicManager {
   }
 
   private CompletableFuture<List<Topic>> describeTopics(String clusterId, List<String> topicNames) {
-    return KafkaFutures.toCompletableFuture(adminClient.describeTopics(topicNames).all())
+    return coalescer.coalesce(
+        adminClient,
+        Arrays.asList("describeTopics", topicNames),
+        () -> KafkaFutures.toCompletableFuture(adminClient.describeTopics(topicNames).all()))
         .thenApply(
             topics ->
                 topics.values().stream()
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
@@ -38,17 +40,30 @@ public final class AvroConverter implements SchemaConverter {
 
   private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
 
+  // Compiled converters, by schema instance. Schemas are resolved once and then reused by the
+  // producers, so identity is enough, and weak keys let the converters go with their schemas.
+  private final Cache<Schema, JsonToAvroConverter> converters =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   @Override
   public Object toObject(JsonNode value, ParsedSchema parsedSchema) {
     try {
-      return AvroSchemaUtils.toObject(value, (AvroSchema) parsedSchema);
+      return getConverter(((AvroSchema) parsedSchema).rawSchema()).convert(value);
     } catch (Exception e) {
-      // These can be generated by Avro's JSON decoder, the input/output stream operations, and the
-      // Jackson ObjectMapper.writeValue call.
+      // These are generated on type mismatches, same as Avro's JSON decoder would.
       throw new ConversionException("Failed to convert JSON to Avro: " + e.getMessage());
     }
   }
 
+  private JsonToAvroConverter getConverter(Schema schema) {
+    JsonToAvroConverter converter = converters.getIfPresent(schema);
+    if (converter == null) {
+      converter = JsonToAvroConverter.compile(schema);
+      converters.put(schema, converter);
+    }
+    return converter;
+  }
+
   @VisibleForTesting
   public Object toObject(JsonNode value, Schema schema) {
     return toObject(value, new AvroSchema(schema));
@@ -63,17 +78,34 @@ public final class AvroConverter implements SchemaConverter {
    */
   @Override
   public JsonNodeAndSize toJson(Object value) {
+    byte[] bytes = toJsonBytes(value);
+    if (bytes == null) {
+      return new JsonNodeAndSize(NullNode.getInstance(), 0);
+    }
     try {
-      byte[] bytes = AvroSchemaUtils.toJson(value);
-      if (bytes == null) {
-        return new JsonNodeAndSize(NullNode.getInstance(), 0);
-      }
       return new JsonNodeAndSize(JSON_MAPPER.readTree(bytes), bytes.length);
     } catch (IOException e) {
-      // These can be generated by Avro's JSON encoder, the output stream operations, and the
-      // Jackson ObjectMapper.readTree() call.
       log.error("Jackson failed to deserialize JSON generated by Avro's JSON encoder: ", e);
       throw new ConversionException("Failed to convert Avro to JSON: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public JsonNodeAndSize toRawJson(Object value) {
+    byte[] bytes = toJsonBytes(value);
+    if (bytes == null) {
+      return new JsonNodeAndSize(NullNode.getInstance(), 0);
+    }
+    return new JsonNodeAndSize(RawJsonValue.toJsonNode(bytes), bytes.length);
+  }
+
+  private static byte[] toJsonBytes(Object value) {
+    try {
+      return AvroSchemaUtils.toJson(value);
+    } catch (IOException e) {
+      // These can be generated by Avro's JSON encoder and the output stream operations.
+      log.error("Avro's JSON encoder failed to encode: ", e);
+      throw new ConversionException("Failed to convert Avro to JSON: " + e.getMessage());
     } catch (RuntimeException e) {
       // Catch-all since it's possible for, e.g., Avro to throw many different RuntimeExceptions
       log.error("Unexpected exception convertion Avro to JSON: ", e);
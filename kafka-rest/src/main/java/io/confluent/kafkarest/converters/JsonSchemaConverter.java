@@ -52,15 +52,33 @@ public final class JsonSchemaConverter implements SchemaConverter {
    */
   @Override
   public JsonNodeAndSize toJson(Object value) {
+    byte[] bytes = toJsonBytes(value);
+    if (bytes == null) {
+      return new JsonNodeAndSize(null, 0);
+    }
     try {
-      byte[] bytes = JsonSchemaUtils.toJson(value);
-      if (bytes == null) {
-        return new JsonNodeAndSize(null, 0);
-      }
       return new JsonNodeAndSize(JSON_MAPPER.readTree(bytes), bytes.length);
     } catch (IOException e) {
       log.error("Jackson failed to deserialize JSON: ", e);
       throw new ConversionException("Failed to convert JSON Schema to JSON: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public JsonNodeAndSize toRawJson(Object value) {
+    byte[] bytes = toJsonBytes(value);
+    if (bytes == null) {
+      return new JsonNodeAndSize(null, 0);
+    }
+    return new JsonNodeAndSize(RawJsonValue.toJsonNode(bytes), bytes.length);
+  }
+
+  private static byte[] toJsonBytes(Object value) {
+    try {
+      return JsonSchemaUtils.toJson(value);
+    } catch (IOException e) {
+      log.error("Jackson failed to serialize JSON: ", e);
+      throw new ConversionException("Failed to convert JSON Schema to JSON: " + e.getMessage());
     } catch (RuntimeException e) {
       log.error("Unexpected exception converting JSON Schema to JSON: ", e);
       throw new ConversionException("Failed to convert JSON Schema to JSON: " + e.getMessage());
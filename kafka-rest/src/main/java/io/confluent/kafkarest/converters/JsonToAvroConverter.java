@@ -0,0 +1,285 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.converters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Converts JSON, in the Avro JSON encoding, to Avro generic data for one specific schema.
+ *
+ * <p>The conversion is compiled once per schema into a tree of converters, one per schema node,
+ * so converting a record walks the {@link JsonNode} directly instead of writing it out and reading
+ * it back through Avro's {@code JsonDecoder}. The output (e.g. {@link Utf8} strings, {@link
+ * ByteBuffer} bytes) and the inputs accepted are the same as the decoder's.</p>
+ */
+final class JsonToAvroConverter {
+
+  private final Converter converter;
+
+  private JsonToAvroConverter(Converter converter) {
+    this.converter = converter;
+  }
+
+  static JsonToAvroConverter compile(Schema schema) {
+    return new JsonToAvroConverter(compile(schema, new IdentityHashMap<>()));
+  }
+
+  /**
+   * Converts the given JSON, throwing {@link AvroTypeException} if it doesn't match the schema.
+   */
+  Object convert(JsonNode value) {
+    return converter.convert(value);
+  }
+
+  private interface Converter {
+
+    Object convert(JsonNode value);
+  }
+
+  private static Converter compile(Schema schema, Map<Schema, RecordConverter> records) {
+    switch (schema.getType()) {
+      case NULL:
+        return value -> {
+          if (value != null && !value.isNull()) {
+            throw mismatch("null", value);
+          }
+          return null;
+        };
+      case BOOLEAN:
+        return value -> {
+          if (value == null || !value.isBoolean()) {
+            throw mismatch("boolean", value);
+          }
+          return value.booleanValue();
+        };
+      case INT:
+        return value -> {
+          if (value == null || !value.isNumber()) {
+            throw mismatch("int", value);
+          }
+          if (value.isIntegralNumber() ? !value.canConvertToInt() : !fitsInt(value.doubleValue())) {
+            throw new AvroTypeException("Numeric value (" + value + ") out of range of int");
+          }
+          return value.intValue();
+        };
+      case LONG:
+        return value -> {
+          if (value == null || !value.isNumber()) {
+            throw mismatch("long", value);
+          }
+          if (value.isIntegralNumber()
+              ? !value.canConvertToLong() : !fitsLong(value.doubleValue())) {
+            throw new AvroTypeException("Numeric value (" + value + ") out of range of long");
+          }
+          return value.longValue();
+        };
+      case FLOAT:
+        return value -> {
+          if (value == null || !value.isNumber()) {
+            throw mismatch("float", value);
+          }
+          return value.floatValue();
+        };
+      case DOUBLE:
+        return value -> {
+          if (value == null || !value.isNumber()) {
+            throw mismatch("double", value);
+          }
+          return value.doubleValue();
+        };
+      case STRING:
+        boolean javaString = GenericData.StringType.String.name().equals(
+            schema.getProp(GenericData.STRING_PROP));
+        return value -> {
+          if (value == null || !value.isTextual()) {
+            throw mismatch("string", value);
+          }
+          return javaString ? value.textValue() : new Utf8(value.textValue());
+        };
+      case BYTES:
+        return value -> {
+          if (value == null || !value.isTextual()) {
+            throw mismatch("bytes", value);
+          }
+          return ByteBuffer.wrap(value.textValue().getBytes(StandardCharsets.ISO_8859_1));
+        };
+      case FIXED:
+        return value -> {
+          if (value == null || !value.isTextual()) {
+            throw mismatch("fixed", value);
+          }
+          byte[] bytes = value.textValue().getBytes(StandardCharsets.ISO_8859_1);
+          if (bytes.length != schema.getFixedSize()) {
+            throw new AvroTypeException(
+                "Expected fixed length " + schema.getFixedSize() + ", but got " + bytes.length);
+          }
+          return new GenericData.Fixed(schema, bytes);
+        };
+      case ENUM:
+        return value -> {
+          if (value == null || !value.isTextual()) {
+            throw mismatch("enum", value);
+          }
+          if (!schema.hasEnumSymbol(value.textValue())) {
+            throw new AvroTypeException("Unknown symbol in enum " + value.textValue());
+          }
+          return new GenericData.EnumSymbol(schema, value.textValue());
+        };
+      case ARRAY:
+        return compileArray(schema, records);
+      case MAP:
+        return compileMap(schema, records);
+      case UNION:
+        return compileUnion(schema, records);
+      case RECORD:
+        RecordConverter record = records.get(schema);
+        if (record == null) {
+          // Register the converter before compiling the fields, so recursive schemas terminate.
+          record = new RecordConverter(schema);
+          records.put(schema, record);
+          record.compileFields(records);
+        }
+        return record;
+      default:
+        throw new IllegalArgumentException("Unsupported Avro type: " + schema.getType());
+    }
+  }
+
+  private static Converter compileArray(Schema schema, Map<Schema, RecordConverter> records) {
+    Converter elementConverter = compile(schema.getElementType(), records);
+    return value -> {
+      if (value == null || !value.isArray()) {
+        throw mismatch("array", value);
+      }
+      List<Object> elements = new ArrayList<>(value.size());
+      for (JsonNode element : value) {
+        elements.add(elementConverter.convert(element));
+      }
+      return new GenericData.Array<>(schema, elements);
+    };
+  }
+
+  private static Converter compileMap(Schema schema, Map<Schema, RecordConverter> records) {
+    Converter valueConverter = compile(schema.getValueType(), records);
+    return value -> {
+      if (value == null || !value.isObject()) {
+        throw mismatch("map", value);
+      }
+      Map<Utf8, Object> entries = new HashMap<>();
+      Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        entries.put(new Utf8(field.getKey()), valueConverter.convert(field.getValue()));
+      }
+      return entries;
+    };
+  }
+
+  private static Converter compileUnion(Schema schema, Map<Schema, RecordConverter> records) {
+    // Non-null branches are encoded as {"<branch name>": value}, the same as Avro's JsonDecoder.
+    Map<String, Converter> branches = new HashMap<>();
+    for (Schema branch : schema.getTypes()) {
+      branches.put(branch.getFullName(), compile(branch, records));
+    }
+    boolean hasNull = branches.containsKey(Schema.Type.NULL.getName());
+    return value -> {
+      if (value == null || value.isNull()) {
+        if (!hasNull) {
+          throw new AvroTypeException("Unknown union branch null");
+        }
+        return null;
+      }
+      if (!value.isObject() || value.size() != 1) {
+        throw mismatch("start-union", value);
+      }
+      Map.Entry<String, JsonNode> branch = value.fields().next();
+      Converter converter = branches.get(branch.getKey());
+      if (converter == null) {
+        throw new AvroTypeException("Unknown union branch " + branch.getKey());
+      }
+      return converter.convert(branch.getValue());
+    };
+  }
+
+  private static final class RecordConverter implements Converter {
+
+    private final Schema schema;
+    private final List<Schema.Field> fields;
+    private final List<Converter> fieldConverters;
+
+    private RecordConverter(Schema schema) {
+      this.schema = schema;
+      this.fields = schema.getFields();
+      this.fieldConverters = new ArrayList<>(fields.size());
+    }
+
+    private void compileFields(Map<Schema, RecordConverter> records) {
+      for (Schema.Field field : fields) {
+        fieldConverters.add(compile(field.schema(), records));
+      }
+    }
+
+    @Override
+    public Object convert(JsonNode value) {
+      if (value == null || !value.isObject()) {
+        throw mismatch("record-start", value);
+      }
+      GenericData.Record record = new GenericData.Record(schema);
+      for (int i = 0; i < fields.size(); i++) {
+        Schema.Field field = fields.get(i);
+        JsonNode fieldValue = value.get(field.name());
+        if (fieldValue == null) {
+          for (String alias : field.aliases()) {
+            fieldValue = value.get(alias);
+            if (fieldValue != null) {
+              break;
+            }
+          }
+        }
+        if (fieldValue == null) {
+          throw new AvroTypeException("Expected field name not found: " + field.name());
+        }
+        record.put(field.pos(), fieldConverters.get(i).convert(fieldValue));
+      }
+      return record;
+    }
+  }
+
+  private static boolean fitsInt(double value) {
+    return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+  }
+
+  private static boolean fitsLong(double value) {
+    return value >= Long.MIN_VALUE && value <= Long.MAX_VALUE;
+  }
+
+  private static AvroTypeException mismatch(String expected, JsonNode value) {
+    return new AvroTypeException(
+        "Expected " + expected + ". Got " + (value == null ? "NULL" : value.getNodeType()));
+  }
+}
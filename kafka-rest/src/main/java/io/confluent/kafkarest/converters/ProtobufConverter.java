@@ -53,15 +53,33 @@ public final class ProtobufConverter implements SchemaConverter {
    */
   @Override
   public JsonNodeAndSize toJson(Object value) {
+    byte[] bytes = toJsonBytes(value);
+    if (bytes == null) {
+      return new JsonNodeAndSize(null, 0);
+    }
     try {
-      byte[] bytes = ProtobufSchemaUtils.toJson((Message) value);
-      if (bytes == null) {
-        return new JsonNodeAndSize(null, 0);
-      }
       return new JsonNodeAndSize(JSON_MAPPER.readTree(bytes), bytes.length);
     } catch (IOException e) {
       log.error("Jackson failed to deserialize JSON generated by Protobuf's JSON encoder: ", e);
       throw new ConversionException("Failed to convert Protobuf to JSON: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public JsonNodeAndSize toRawJson(Object value) {
+    byte[] bytes = toJsonBytes(value);
+    if (bytes == null) {
+      return new JsonNodeAndSize(null, 0);
+    }
+    return new JsonNodeAndSize(RawJsonValue.toJsonNode(bytes), bytes.length);
+  }
+
+  private static byte[] toJsonBytes(Object value) {
+    try {
+      return ProtobufSchemaUtils.toJson((Message) value);
+    } catch (IOException e) {
+      log.error("Protobuf's JSON encoder failed to encode: ", e);
+      throw new ConversionException("Failed to convert Protobuf to JSON: " + e.getMessage());
     } catch (RuntimeException e) {
       log.error("Unexpected exception converting Protobuf to JSON: ", e);
       throw new ConversionException("Failed to convert Protobuf to JSON: " + e.getMessage());
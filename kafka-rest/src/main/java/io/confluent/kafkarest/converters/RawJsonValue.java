@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.converters;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * UTF-8 encoded JSON written into a response as it is, without being parsed or decoded first.
+ *
+ * <p>The UTF-8 generators Jackson uses for responses only ever ask for the unquoted bytes. The
+ * other forms are decoded on demand, for generators that write characters.
+ */
+public final class RawJsonValue implements SerializableString {
+
+  private final byte[] json;
+  private SerializedString string;
+
+  public RawJsonValue(byte[] json) {
+    this.json = json;
+  }
+
+  /**
+   * Returns a node that writes the JSON as it is when serialized. It can't be navigated.
+   */
+  public static JsonNode toJsonNode(byte[] json) {
+    return JsonNodeFactory.instance.rawValueNode(new RawValue(new RawJsonValue(json)));
+  }
+
+  private SerializedString asString() {
+    if (string == null) {
+      string = new SerializedString(new String(json, StandardCharsets.UTF_8));
+    }
+    return string;
+  }
+
+  @Override
+  public String getValue() {
+    return asString().getValue();
+  }
+
+  @Override
+  public int charLength() {
+    return asString().charLength();
+  }
+
+  @Override
+  public char[] asQuotedChars() {
+    return asString().asQuotedChars();
+  }
+
+  @Override
+  public byte[] asUnquotedUTF8() {
+    return json;
+  }
+
+  @Override
+  public byte[] asQuotedUTF8() {
+    return asString().asQuotedUTF8();
+  }
+
+  @Override
+  public int appendQuotedUTF8(byte[] buffer, int offset) {
+    return asString().appendQuotedUTF8(buffer, offset);
+  }
+
+  @Override
+  public int appendQuoted(char[] buffer, int offset) {
+    return asString().appendQuoted(buffer, offset);
+  }
+
+  @Override
+  public int appendUnquotedUTF8(byte[] buffer, int offset) {
+    if (offset + json.length > buffer.length) {
+      return -1;
+    }
+    System.arraycopy(json, 0, buffer, offset, json.length);
+    return json.length;
+  }
+
+  @Override
+  public int appendUnquoted(char[] buffer, int offset) {
+    return asString().appendUnquoted(buffer, offset);
+  }
+
+  @Override
+  public int writeQuotedUTF8(OutputStream out) throws IOException {
+    return asString().writeQuotedUTF8(out);
+  }
+
+  @Override
+  public int writeUnquotedUTF8(OutputStream out) throws IOException {
+    out.write(json);
+    return json.length;
+  }
+
+  @Override
+  public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+    return asString().putQuotedUTF8(buffer);
+  }
+
+  @Override
+  public int putUnquotedUTF8(ByteBuffer buffer) throws IOException {
+    if (json.length > buffer.remaining()) {
+      return -1;
+    }
+    buffer.put(json);
+    return json.length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return Arrays.equals(json, ((RawJsonValue) o).json);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(json);
+  }
+
+  @Override
+  public String toString() {
+    return getValue();
+  }
+}
@@ -34,6 +34,16 @@ public interface SchemaConverter {
    */
   JsonNodeAndSize toJson(Object value);
 
+  /**
+   * Converts data like {@link #toJson(Object)}, but without parsing the JSON into a tree. The
+   * returned node writes the encoded JSON straight into the JsonGenerator it is serialized with, so
+   * it can't be navigated.
+   *
+   * @param value the value to convert
+   * @return an object containing the node holding the encoded JSON and its size in bytes
+   */
+  JsonNodeAndSize toRawJson(Object value);
+
   final class JsonNodeAndSize {
 
     private final JsonNode json;
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.entities;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
+/**
+ * A page of a sorted collection, and the key to list the next page from, if more items follow.
+ */
+@AutoValue
+public abstract class Page<T> {
+
+  Page() {
+  }
+
+  public abstract ImmutableList<T> getItems();
+
+  public abstract Optional<String> getNextPageKey();
+
+  public static <T> Page<T> create(List<T> items, @Nullable String nextPageKey) {
+    return new AutoValue_Page<>(ImmutableList.copyOf(items), Optional.ofNullable(nextPageKey));
+  }
+
+  /**
+   * Returns the first {@code pageSize} of {@code names}, in order, greater than {@code after}, or
+   * the first {@code pageSize} ones if {@code after} is null. The key of the next page is the last
+   * name in this page.
+   */
+  public static Page<String> ofNames(
+      Collection<String> names, @Nullable String after, int pageSize) {
+    List<String> sorted = new ArrayList<>(names);
+    sorted.sort(null);
+    int from = 0;
+    if (after != null) {
+      while (from < sorted.size() && sorted.get(from).compareTo(after) <= 0) {
+        from++;
+      }
+    }
+    int to = (int) Math.min((long) from + pageSize, sorted.size());
+    return create(sorted.subList(from, to), to < sorted.size() ? sorted.get(to - 1) : null);
+  }
+
+  /**
+   * Returns the {@code pageSize} items of {@code sorted} starting at {@code offset}. The key of the
+   * next page is the offset of its first item.
+   */
+  public static <T> Page<T> ofOffset(List<T> sorted, int offset, int pageSize) {
+    int from = Math.min(offset, sorted.size());
+    int to = (int) Math.min((long) from + pageSize, sorted.size());
+    return create(sorted.subList(from, to), to < sorted.size() ? Integer.toString(to) : null);
+  }
+
+  /**
+   * Returns a page with {@code items} in place of this page's items, and the same next page.
+   */
+  public <U> Page<U> withItems(List<U> items) {
+    return create(items, getNextPageKey().orElse(null));
+  }
+}
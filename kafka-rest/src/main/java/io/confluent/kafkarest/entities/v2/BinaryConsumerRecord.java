@@ -17,10 +17,14 @@ package io.confluent.kafkarest.entities.v2;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.confluent.kafkarest.entities.ConsumerRecord;
-import io.confluent.kafkarest.entities.EntityUtils;
-import java.util.Arrays;
+import java.io.IOException;
 import java.util.Objects;
 import java.util.StringJoiner;
 import javax.annotation.Nullable;
@@ -34,10 +38,10 @@ public final class BinaryConsumerRecord {
   private final String topic;
 
   @Nullable
-  private final byte[] key;
+  private final ByteString key;
 
   @Nullable
-  private final byte[] value;
+  private final ByteString value;
 
   @PositiveOrZero
   @Nullable
@@ -54,6 +58,21 @@ public final class BinaryConsumerRecord {
       @JsonProperty("value") @Nullable byte[] value,
       @JsonProperty("partition") @Nullable Integer partition,
       @JsonProperty("offset") @Nullable Long offset) {
+    // The arrays were just decoded for this record, so there's no need to copy them.
+    this(
+        topic,
+        key != null ? UnsafeByteOperations.unsafeWrap(key) : null,
+        value != null ? UnsafeByteOperations.unsafeWrap(value) : null,
+        partition,
+        offset);
+  }
+
+  private BinaryConsumerRecord(
+      @Nullable String topic,
+      @Nullable ByteString key,
+      @Nullable ByteString value,
+      @Nullable Integer partition,
+      @Nullable Long offset) {
     this.topic = topic;
     this.key = key;
     this.value = value;
@@ -68,15 +87,17 @@ public final class BinaryConsumerRecord {
   }
 
   @JsonProperty
+  @JsonSerialize(using = Base64Serializer.class)
   @Nullable
-  public String getKey() {
-    return key != null ? EntityUtils.encodeBase64Binary(key) : null;
+  public ByteString getKey() {
+    return key;
   }
 
   @JsonProperty
+  @JsonSerialize(using = Base64Serializer.class)
   @Nullable
-  public String getValue() {
-    return value != null ? EntityUtils.encodeBase64Binary(value) : null;
+  public ByteString getValue() {
+    return value;
   }
 
   @JsonProperty
@@ -101,8 +122,8 @@ public final class BinaryConsumerRecord {
     }
     return new BinaryConsumerRecord(
         Objects.requireNonNull(record.getTopic()),
-        record.getKey() != null ? record.getKey().toByteArray() : null,
-        record.getValue() != null ? record.getValue().toByteArray() : null,
+        record.getKey(),
+        record.getValue(),
         record.getPartition(),
         record.getOffset());
   }
@@ -117,12 +138,7 @@ public final class BinaryConsumerRecord {
     if (offset == null || offset < 0) {
       throw new IllegalStateException();
     }
-    return ConsumerRecord.create(
-        topic,
-        key != null ? ByteString.copyFrom(key) : null,
-        value != null ? ByteString.copyFrom(value) : null,
-        partition,
-        offset);
+    return ConsumerRecord.create(topic, key, value, partition, offset);
   }
 
   @Override
@@ -135,28 +151,42 @@ public final class BinaryConsumerRecord {
     }
     BinaryConsumerRecord that = (BinaryConsumerRecord) o;
     return Objects.equals(topic, that.topic)
-        && Arrays.equals(key, that.key)
-        && Arrays.equals(value, that.value)
+        && Objects.equals(key, that.key)
+        && Objects.equals(value, that.value)
         && Objects.equals(partition, that.partition)
         && Objects.equals(offset, that.offset);
   }
 
   @Override
   public int hashCode() {
-    int result = Objects.hash(topic, partition, offset);
-    result = 31 * result + Arrays.hashCode(key);
-    result = 31 * result + Arrays.hashCode(value);
-    return result;
+    return Objects.hash(topic, key, value, partition, offset);
   }
 
   @Override
   public String toString() {
     return new StringJoiner(", ", BinaryConsumerRecord.class.getSimpleName() + "[", "]")
         .add("topic='" + topic + "'")
-        .add("key=" + Arrays.toString(key))
-        .add("value=" + Arrays.toString(value))
+        .add("key=" + key)
+        .add("value=" + value)
         .add("partition=" + partition)
         .add("offset=" + offset)
         .toString();
   }
-}
\ No newline at end of file
+
+  /**
+   * Writes the bytes as base64 straight into the response, without an intermediate copy of the
+   * bytes or of the encoded string.
+   */
+  private static final class Base64Serializer extends StdSerializer<ByteString> {
+
+    private Base64Serializer() {
+      super(ByteString.class);
+    }
+
+    @Override
+    public void serialize(ByteString bytes, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      generator.writeBinary(bytes.newInput(), bytes.size());
+    }
+  }
+}
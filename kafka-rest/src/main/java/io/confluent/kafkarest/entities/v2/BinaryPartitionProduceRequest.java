@@ -70,7 +70,7 @@ public final class BinaryPartitionProduceRequest {
     }
     return ProduceRequest.create(
         records.stream()
-            .map(record -> ProduceRecord.create(record.key, record.value, null))
+            .map(BinaryPartitionProduceRecord::toProduceRecord)
             .collect(Collectors.toList()),
         /* keySchema= */ null,
         /* keySchemaId= */ null,
@@ -140,6 +140,10 @@ public final class BinaryPartitionProduceRequest {
       return (value == null ? null : EntityUtils.encodeBase64Binary(value));
     }
 
+    public ProduceRecord<byte[], byte[]> toProduceRecord() {
+      return ProduceRecord.create(key, value, /* partition= */ null);
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
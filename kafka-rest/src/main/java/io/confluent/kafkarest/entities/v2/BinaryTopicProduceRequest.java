@@ -71,7 +71,7 @@ public final class BinaryTopicProduceRequest {
     }
     return ProduceRequest.create(
         records.stream()
-            .map(record -> ProduceRecord.create(record.key, record.value, record.partition))
+            .map(BinaryTopicProduceRecord::toProduceRecord)
             .collect(Collectors.toList()),
         /* keySchema= */ null,
         /* keySchemaId= */ null,
@@ -153,6 +153,10 @@ public final class BinaryTopicProduceRequest {
       return partition;
     }
 
+    public ProduceRecord<byte[], byte[]> toProduceRecord() {
+      return ProduceRecord.create(key, value, partition);
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
@@ -67,7 +67,7 @@ public final class JsonPartitionProduceRequest {
     }
     return ProduceRequest.create(
         records.stream()
-            .map(record -> ProduceRecord.create(record.key, record.value, null))
+            .map(JsonPartitionProduceRecord::toProduceRecord)
             .collect(Collectors.toList()),
         /* keySchema= */ null,
         /* keySchemaId= */ null,
@@ -129,6 +129,10 @@ public final class JsonPartitionProduceRequest {
       return value;
     }
 
+    public ProduceRecord<Object, Object> toProduceRecord() {
+      return ProduceRecord.create(key, value, /* partition= */ null);
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
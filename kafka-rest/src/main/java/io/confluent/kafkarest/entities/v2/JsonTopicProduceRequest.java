@@ -68,7 +68,7 @@ public final class JsonTopicProduceRequest {
     }
     return ProduceRequest.create(
         records.stream()
-            .map(record -> ProduceRecord.create(record.key, record.value, record.partition))
+            .map(JsonTopicProduceRecord::toProduceRecord)
             .collect(Collectors.toList()),
         /* keySchema= */ null,
         /* keySchemaId= */ null,
@@ -141,6 +141,10 @@ public final class JsonTopicProduceRequest {
       return partition;
     }
 
+    public ProduceRecord<Object, Object> toProduceRecord() {
+      return ProduceRecord.create(key, value, partition);
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
@@ -22,10 +22,11 @@ import io.confluent.kafkarest.ProducerPool;
 import io.confluent.kafkarest.v2.KafkaConsumerManager;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.ws.rs.core.Configurable;
+import org.apache.kafka.common.metrics.Metrics;
 
 public class KafkaRestContextProvider {
 
-  private static KafkaRestContext defaultContext = null;
+  private static DefaultKafkaRestContext defaultContext = null;
   private static KafkaRestConfig defaultAppConfig = null;
   private static final InheritableThreadLocal<KafkaRestContext> restContextInheritableThreadLocal =
       new InheritableThreadLocal<>();
@@ -52,6 +53,10 @@ public class KafkaRestContextProvider {
     return defaultContext;
   }
 
+  public static Metrics getDefaultMetrics() {
+    return defaultContext.getMetrics();
+  }
+
   public static KafkaRestContext getCurrentContext() {
     if (restContextInheritableThreadLocal.get() != null) {
       return restContextInheritableThreadLocal.get();
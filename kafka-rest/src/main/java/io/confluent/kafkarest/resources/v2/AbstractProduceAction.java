@@ -15,22 +15,39 @@
 
 package io.confluent.kafkarest.resources.v2;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.confluent.kafkarest.Errors;
 import io.confluent.kafkarest.KafkaRestContext;
 import io.confluent.kafkarest.ProducerPool;
 import io.confluent.kafkarest.RecordMetadataOrException;
 import io.confluent.kafkarest.Utils;
+import io.confluent.kafkarest.Versions;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.ProduceRecord;
 import io.confluent.kafkarest.entities.ProduceRequest;
 import io.confluent.kafkarest.entities.v2.PartitionOffset;
 import io.confluent.kafkarest.entities.v2.ProduceResponse;
+import io.confluent.rest.entities.ErrorMessage;
+import io.confluent.rest.exceptions.RestException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,24 +55,91 @@ abstract class AbstractProduceAction {
 
   private static final Logger log = LoggerFactory.getLogger(TopicsResource.class);
 
+  private static final int PRODUCE_RETRY_AFTER_SECONDS = 1;
+
+  static final String PREFER_HEADER = "Prefer";
+  private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+  private static final String RESPOND_ASYNC_PREFERENCE = "respond-async";
+
+  private static final ObjectMapper NDJSON_MAPPER =
+      new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
   private final KafkaRestContext ctx;
 
   AbstractProduceAction(KafkaRestContext ctx) {
     this.ctx = ctx;
   }
 
+  /**
+   * Produces the records of {@code request}. If {@code respondAsync}, the response (202 Accepted,
+   * without offsets) is sent as soon as the records are handed to the producer, and delivery
+   * failures are only logged and counted in the producer pool metrics.
+   */
   final <K, V> void produce(
       AsyncResponse asyncResponse,
       String topic,
       @Nullable Integer partition,
       EmbeddedFormat format,
-      ProduceRequest<K, V> request
+      ProduceRequest<K, V> request,
+      boolean respondAsync
   ) {
     log.trace(
-        "Executing topic produce request id={} topic={} partition={} format={} request={}",
-        asyncResponse, topic, partition, format, request
+        "Executing topic produce request id={} topic={} partition={} format={} async={} "
+            + "request={}",
+        asyncResponse, topic, partition, format, respondAsync, request
     );
 
+    try {
+      if (respondAsync) {
+        ctx.getProducerPool().produceAsync(topic, partition, format, request);
+        asyncResponse.resume(
+            Response.accepted()
+                .header(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC_PREFERENCE)
+                .build());
+      } else {
+        doProduce(asyncResponse, topic, partition, format, request);
+      }
+    } catch (RestException e) {
+      if (e.getErrorCode() != Errors.PRODUCE_BUDGET_EXCEEDED_ERROR_CODE) {
+        throw e;
+      }
+      // Tell the client when to come back. The exception mappers can't set headers.
+      asyncResponse.resume(
+          Response.status(Response.Status.TOO_MANY_REQUESTS)
+              .header(HttpHeaders.RETRY_AFTER, PRODUCE_RETRY_AFTER_SECONDS)
+              .entity(new ErrorMessage(e.getErrorCode(), e.getMessage()))
+              .build());
+    }
+  }
+
+  /**
+   * Whether the client asked not to wait for the records to be acknowledged, either with the
+   * {@code async} query parameter or with a {@code Prefer: respond-async} header (RFC 7240). The
+   * query parameter takes precedence.
+   */
+  static boolean isRespondAsync(@Nullable Boolean asyncParam, @Nullable String preferHeader) {
+    if (asyncParam != null) {
+      return asyncParam;
+    }
+    if (preferHeader == null) {
+      return false;
+    }
+    for (String preference : preferHeader.split(",")) {
+      String token = preference.split("[;=]", 2)[0].trim();
+      if (token.equalsIgnoreCase(RESPOND_ASYNC_PREFERENCE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private <K, V> void doProduce(
+      AsyncResponse asyncResponse,
+      String topic,
+      @Nullable Integer partition,
+      EmbeddedFormat format,
+      ProduceRequest<K, V> request
+  ) {
     ctx.getProducerPool().produce(
         topic, partition, format,
         request,
@@ -64,46 +148,151 @@ abstract class AbstractProduceAction {
               Integer keySchemaId, Integer valueSchemaId,
               List<RecordMetadataOrException> results
           ) {
-            List<PartitionOffset> offsets = new Vector<PartitionOffset>();
-            for (RecordMetadataOrException result : results) {
-              if (result.getException() != null) {
-                int errorCode =
-                    Utils.errorCodeFromProducerException(result.getException());
-                String errorMessage = result.getException().getMessage();
-                offsets.add(new PartitionOffset(null, null, errorCode, errorMessage));
-              } else {
-                offsets.add(new PartitionOffset(
-                    result.getRecordMetadata().partition(),
-                    result.getRecordMetadata().offset(),
-                    null,
-                    null
-                ));
+            try {
+              List<PartitionOffset> offsets = new Vector<PartitionOffset>();
+              for (RecordMetadataOrException result : results) {
+                offsets.add(toPartitionOffset(result));
               }
+              ProduceResponse response = new ProduceResponse(offsets, keySchemaId, valueSchemaId);
+              log.trace(
+                  "Completed topic produce request id={} response={}",
+                  asyncResponse, response
+              );
+              Response.Status requestStatus = response.getRequestStatus();
+              asyncResponse.resume(Response.status(requestStatus).entity(response).build());
+            } catch (RuntimeException e) {
+              // This runs on the produce completion executor, so nothing upstream would turn the
+              // exception into an error response.
+              asyncResponse.resume(e);
             }
-            ProduceResponse response = new ProduceResponse(offsets, keySchemaId, valueSchemaId);
-            log.trace(
-                "Completed topic produce request id={} response={}",
-                asyncResponse, response
-            );
-            Response.Status requestStatus = response.getRequestStatus();
-            asyncResponse.resume(Response.status(requestStatus).entity(response).build());
           }
         }
     );
   }
 
+  /**
+   * Produces newline-delimited records read from {@code body}, handing each record to the producer
+   * as soon as it is parsed. The returned response streams one {@link PartitionOffset} per line,
+   * in the same order as the records. Since the response is already committed by the time later
+   * records are parsed, a malformed record is reported as an error line and ends the stream.
+   */
+  final <T, K, V> Response produceStream(
+      String topic,
+      @Nullable Integer partition,
+      EmbeddedFormat format,
+      InputStream body,
+      Class<T> recordType,
+      Function<T, ProduceRecord<K, V>> toProduceRecord
+  ) {
+    log.trace(
+        "Executing streaming produce request topic={} partition={} format={}",
+        topic, partition, format
+    );
+
+    StreamingOutput output =
+        outputStream -> {
+          Deque<CompletableFuture<PartitionOffset>> pending = new ArrayDeque<>();
+          try (MappingIterator<T> records = NDJSON_MAPPER.readerFor(recordType).readValues(body)) {
+            while (true) {
+              ProduceRecord<K, V> record;
+              try {
+                if (!records.hasNextValue()) {
+                  break;
+                }
+                record = toProduceRecord.apply(records.nextValue());
+              } catch (JsonProcessingException e) {
+                pending.add(
+                    CompletableFuture.completedFuture(
+                        toPartitionOffset(
+                            Errors.invalidProduceRecordException(e.getOriginalMessage()))));
+                break;
+              } catch (RestException e) {
+                pending.add(CompletableFuture.completedFuture(toPartitionOffset(e)));
+                break;
+              } catch (RuntimeException e) {
+                // The response is already committed, so the error can only be reported in-band.
+                pending.add(
+                    CompletableFuture.completedFuture(
+                        toPartitionOffset(Errors.invalidProduceRecordException(e.getMessage()))));
+                break;
+              }
+
+              CompletableFuture<PartitionOffset> offset = new CompletableFuture<>();
+              pending.add(offset);
+              try {
+                ctx.getProducerPool().produce(
+                    topic, partition, format,
+                    ProduceRequest.create(
+                        Collections.singletonList(record),
+                        /* keySchema= */ null,
+                        /* keySchemaId= */ null,
+                        /* valueSchema= */ null,
+                        /* valueSchemaId= */ null),
+                    (keySchemaId, valueSchemaId, results) ->
+                        offset.complete(toPartitionOffset(results.get(0))));
+              } catch (RuntimeException e) {
+                offset.complete(toPartitionOffset(e));
+                break;
+              }
+
+              // Write out whatever is already acknowledged, without waiting on the rest.
+              writeOffsets(outputStream, pending, /* waitForAll= */ false);
+            }
+          }
+          writeOffsets(outputStream, pending, /* waitForAll= */ true);
+        };
+    return Response.ok(output, Versions.KAFKA_V2_NDJSON).build();
+  }
+
+  private static void writeOffsets(
+      OutputStream outputStream,
+      Deque<CompletableFuture<PartitionOffset>> pending,
+      boolean waitForAll
+  ) throws IOException {
+    boolean wrote = false;
+    while (!pending.isEmpty() && (waitForAll || pending.peekFirst().isDone())) {
+      NDJSON_MAPPER.writeValue(outputStream, pending.pollFirst().join());
+      outputStream.write('\n');
+      wrote = true;
+    }
+    if (wrote) {
+      outputStream.flush();
+    }
+  }
+
+  private static PartitionOffset toPartitionOffset(RecordMetadataOrException result) {
+    if (result.getException() != null) {
+      return toPartitionOffset(result.getException());
+    }
+    return new PartitionOffset(
+        result.getRecordMetadata().partition(),
+        result.getRecordMetadata().offset(),
+        null,
+        null
+    );
+  }
+
+  private static PartitionOffset toPartitionOffset(Exception exception) {
+    int errorCode =
+        exception instanceof RestException
+            ? ((RestException) exception).getErrorCode()
+            : Utils.errorCodeFromProducerException(exception);
+    return new PartitionOffset(null, null, errorCode, exception.getMessage());
+  }
+
   final void produceSchema(
       AsyncResponse asyncResponse,
       String topic,
       @Nullable Integer partition,
       ProduceRequest<JsonNode, JsonNode> request,
-      EmbeddedFormat avro
+      EmbeddedFormat avro,
+      boolean respondAsync
   ) {
     // Validations we can't do generically since they depend on the data format -- schemas need to
     // be available if there are any non-null entries
     checkKeySchema(request);
     checkValueSchema(request);
-    produce(asyncResponse, topic, partition, avro, request);
+    produce(asyncResponse, topic, partition, avro, request, respondAsync);
   }
 
   private static void checkKeySchema(ProduceRequest<JsonNode, ?> request) {
@@ -15,9 +15,13 @@
 
 package io.confluent.kafkarest.resources.v2;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.confluent.kafkarest.ConsumerReadCallback;
 import io.confluent.kafkarest.Errors;
+import io.confluent.kafkarest.KafkaRestConfig;
 import io.confluent.kafkarest.KafkaRestContext;
+import io.confluent.kafkarest.Time;
 import io.confluent.kafkarest.UriUtils;
 import io.confluent.kafkarest.Versions;
 import io.confluent.kafkarest.entities.ConsumerRecord;
@@ -38,11 +42,14 @@ import io.confluent.kafkarest.entities.v2.CreateConsumerInstanceResponse;
 import io.confluent.kafkarest.entities.v2.JsonConsumerRecord;
 import io.confluent.kafkarest.entities.v2.SchemaConsumerRecord;
 import io.confluent.kafkarest.v2.BinaryKafkaConsumerState;
+import io.confluent.kafkarest.v2.ConsumerRecordStream;
 import io.confluent.kafkarest.v2.JsonKafkaConsumerState;
 import io.confluent.kafkarest.v2.KafkaConsumerManager;
 import io.confluent.kafkarest.v2.KafkaConsumerState;
 import io.confluent.kafkarest.v2.SchemaKafkaConsumerState;
 import io.confluent.rest.annotations.PerformanceMetric;
+import io.confluent.rest.entities.ErrorMessage;
+import io.confluent.rest.exceptions.RestException;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -59,6 +66,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 @Path("/consumers")
@@ -84,6 +93,9 @@ import javax.ws.rs.core.UriInfo;
     })
 public final class ConsumersResource {
 
+  private static final ObjectMapper NDJSON_MAPPER =
+      new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
   private final KafkaRestContext ctx;
 
   public ConsumersResource(KafkaRestContext ctx) {
@@ -268,6 +280,106 @@ public final class ConsumersResource {
         SchemaConsumerRecord::fromConsumerRecord);
   }
 
+  @GET
+  @Path("/{group}/instances/{instance}/records")
+  @PerformanceMetric("consumer.records.stream-binary+v2")
+  @Produces({Versions.KAFKA_V2_NDJSON_BINARY})
+  public Response streamRecordBinary(
+      final @PathParam("group") String group,
+      final @PathParam("instance") String instance,
+      @QueryParam("timeout") @DefaultValue("-1") long timeout,
+      @QueryParam("max_bytes") @DefaultValue("-1") long maxBytes
+  ) {
+    return streamRecords(
+        group,
+        instance,
+        timeout,
+        maxBytes,
+        BinaryKafkaConsumerState.class,
+        BinaryConsumerRecord::fromConsumerRecord,
+        Versions.KAFKA_V2_NDJSON_BINARY);
+  }
+
+  @GET
+  @Path("/{group}/instances/{instance}/records")
+  @PerformanceMetric("consumer.records.stream-json+v2")
+  @Produces({Versions.KAFKA_V2_NDJSON_JSON})
+  public Response streamRecordJson(
+      final @PathParam("group") String group,
+      final @PathParam("instance") String instance,
+      @QueryParam("timeout") @DefaultValue("-1") long timeout,
+      @QueryParam("max_bytes") @DefaultValue("-1") long maxBytes
+  ) {
+    return streamRecords(
+        group,
+        instance,
+        timeout,
+        maxBytes,
+        JsonKafkaConsumerState.class,
+        JsonConsumerRecord::fromConsumerRecord,
+        Versions.KAFKA_V2_NDJSON_JSON);
+  }
+
+  @GET
+  @Path("/{group}/instances/{instance}/records")
+  @PerformanceMetric("consumer.records.stream-avro+v2")
+  @Produces({Versions.KAFKA_V2_NDJSON_AVRO})
+  public Response streamRecordAvro(
+      final @PathParam("group") String group,
+      final @PathParam("instance") String instance,
+      @QueryParam("timeout") @DefaultValue("-1") long timeout,
+      @QueryParam("max_bytes") @DefaultValue("-1") long maxBytes
+  ) {
+    return streamRecords(
+        group,
+        instance,
+        timeout,
+        maxBytes,
+        SchemaKafkaConsumerState.class,
+        SchemaConsumerRecord::fromConsumerRecord,
+        Versions.KAFKA_V2_NDJSON_AVRO);
+  }
+
+  @GET
+  @Path("/{group}/instances/{instance}/records")
+  @PerformanceMetric("consumer.records.stream-jsonschema+v2")
+  @Produces({Versions.KAFKA_V2_NDJSON_JSON_SCHEMA})
+  public Response streamRecordJsonSchema(
+      final @PathParam("group") String group,
+      final @PathParam("instance") String instance,
+      @QueryParam("timeout") @DefaultValue("-1") long timeout,
+      @QueryParam("max_bytes") @DefaultValue("-1") long maxBytes
+  ) {
+    return streamRecords(
+        group,
+        instance,
+        timeout,
+        maxBytes,
+        SchemaKafkaConsumerState.class,
+        SchemaConsumerRecord::fromConsumerRecord,
+        Versions.KAFKA_V2_NDJSON_JSON_SCHEMA);
+  }
+
+  @GET
+  @Path("/{group}/instances/{instance}/records")
+  @PerformanceMetric("consumer.records.stream-protobuf+v2")
+  @Produces({Versions.KAFKA_V2_NDJSON_PROTOBUF})
+  public Response streamRecordProtobuf(
+      final @PathParam("group") String group,
+      final @PathParam("instance") String instance,
+      @QueryParam("timeout") @DefaultValue("-1") long timeout,
+      @QueryParam("max_bytes") @DefaultValue("-1") long maxBytes
+  ) {
+    return streamRecords(
+        group,
+        instance,
+        timeout,
+        maxBytes,
+        SchemaKafkaConsumerState.class,
+        SchemaConsumerRecord::fromConsumerRecord,
+        Versions.KAFKA_V2_NDJSON_PROTOBUF);
+  }
+
   @POST
   @Path("/{group}/instances/{instance}/offsets")
   @PerformanceMetric("consumer.commit-offsets+v2")
@@ -417,4 +529,66 @@ public final class ConsumersResource {
         }
     );
   }
+
+  /**
+   * Streams the records read from the consumer instance one per line, batch by batch, until the
+   * client disconnects or the stream has been open for {@code consumer.stream.max.ms}. Batches
+   * are only read as fast as they can be written out, so a slow client holds back the consumer
+   * instead of records piling up in memory. A blank line is written when a batch comes back empty,
+   * which keeps the connection alive and notices disconnected clients. Since the response is
+   * already committed, a read error is sent as an error line and ends the stream.
+   */
+  private <KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> Response streamRecords(
+      String group,
+      String instance,
+      long timeout,
+      long maxBytes,
+      Class<? extends KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT>>
+          consumerStateType,
+      Function<ConsumerRecord<ClientKeyT, ClientValueT>, ?> toJsonWrapper,
+      String mediaType
+  ) {
+    // Throws not found and format mismatch errors before the response is committed.
+    maxBytes = (maxBytes <= 0) ? Long.MAX_VALUE : maxBytes;
+    ConsumerRecordStream<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> stream =
+        ctx.getKafkaConsumerManager().openRecordStream(
+            group, instance, consumerStateType, timeout, maxBytes);
+
+    Time time = ctx.getConfig().getTime();
+    long streamEnd =
+        time.milliseconds()
+            + ctx.getConfig().getLong(KafkaRestConfig.CONSUMER_STREAM_MAX_MS_CONFIG);
+
+    StreamingOutput output =
+        outputStream -> {
+          do {
+            List<ConsumerRecord<ClientKeyT, ClientValueT>> records;
+            try {
+              records = stream.nextBatch();
+            } catch (RuntimeException e) {
+              NDJSON_MAPPER.writeValue(outputStream, toErrorMessage(e));
+              outputStream.write('\n');
+              outputStream.flush();
+              return;
+            }
+            for (ConsumerRecord<ClientKeyT, ClientValueT> record : records) {
+              NDJSON_MAPPER.writeValue(outputStream, toJsonWrapper.apply(record));
+              outputStream.write('\n');
+            }
+            if (records.isEmpty()) {
+              outputStream.write('\n');
+            }
+            outputStream.flush();
+          } while (time.milliseconds() < streamEnd);
+        };
+    return Response.ok(output, mediaType).build();
+  }
+
+  private static ErrorMessage toErrorMessage(RuntimeException e) {
+    if (e instanceof RestException) {
+      return new ErrorMessage(((RestException) e).getErrorCode(), e.getMessage());
+    }
+    return new ErrorMessage(
+        Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), e.getMessage());
+  }
 }
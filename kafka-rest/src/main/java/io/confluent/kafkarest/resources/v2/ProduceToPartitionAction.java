@@ -19,18 +19,25 @@ import io.confluent.kafkarest.KafkaRestContext;
 import io.confluent.kafkarest.Versions;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.v2.BinaryPartitionProduceRequest;
+import io.confluent.kafkarest.entities.v2.BinaryPartitionProduceRequest.BinaryPartitionProduceRecord;
 import io.confluent.kafkarest.entities.v2.JsonPartitionProduceRequest;
+import io.confluent.kafkarest.entities.v2.JsonPartitionProduceRequest.JsonPartitionProduceRecord;
 import io.confluent.kafkarest.entities.v2.SchemaPartitionProduceRequest;
 import io.confluent.rest.annotations.PerformanceMetric;
+import java.io.InputStream;
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Response;
 
 @Path("/topics/{topic}/partitions")
 @Consumes({
@@ -38,7 +45,9 @@ import javax.ws.rs.container.Suspended;
     Versions.KAFKA_V2_JSON_JSON,
     Versions.KAFKA_V2_JSON_AVRO,
     Versions.KAFKA_V2_JSON_JSON_SCHEMA,
-    Versions.KAFKA_V2_JSON_PROTOBUF
+    Versions.KAFKA_V2_JSON_PROTOBUF,
+    Versions.KAFKA_V2_NDJSON_BINARY,
+    Versions.KAFKA_V2_NDJSON_JSON
 })
 @Produces({Versions.KAFKA_V2_JSON})
 public final class ProduceToPartitionAction extends AbstractProduceAction {
@@ -55,6 +64,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topic,
       @PathParam("partition") int partition,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull BinaryPartitionProduceRequest request
   ) {
     produce(
@@ -62,7 +73,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
         topic,
         partition,
         EmbeddedFormat.BINARY,
-        request.toProduceRequest());
+        request.toProduceRequest(),
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -73,6 +85,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topic,
       @PathParam("partition") int partition,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull JsonPartitionProduceRequest request
   ) {
     produce(
@@ -80,7 +94,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
         topic,
         partition,
         EmbeddedFormat.JSON,
-        request.toProduceRequest());
+        request.toProduceRequest(),
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -91,6 +106,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topic,
       @PathParam("partition") int partition,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull SchemaPartitionProduceRequest request
   ) {
     produceSchema(
@@ -98,7 +115,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
         topic,
         partition,
         request.toProduceRequest(),
-        EmbeddedFormat.AVRO);
+        EmbeddedFormat.AVRO,
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -109,6 +127,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topic,
       @PathParam("partition") int partition,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull SchemaPartitionProduceRequest request
   ) {
     produceSchema(
@@ -116,7 +136,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
         topic,
         partition,
         request.toProduceRequest(),
-        EmbeddedFormat.JSONSCHEMA);
+        EmbeddedFormat.JSONSCHEMA,
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -127,6 +148,8 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topic,
       @PathParam("partition") int partition,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull SchemaPartitionProduceRequest request
   ) {
     produceSchema(
@@ -134,6 +157,45 @@ public final class ProduceToPartitionAction extends AbstractProduceAction {
         topic,
         partition,
         request.toProduceRequest(),
-        EmbeddedFormat.PROTOBUF);
+        EmbeddedFormat.PROTOBUF,
+        isRespondAsync(async, prefer));
+  }
+
+  @POST
+  @Path("/{partition}")
+  @PerformanceMetric("partition.produce-binary-stream+v2")
+  @Consumes({Versions.KAFKA_V2_NDJSON_BINARY})
+  @Produces({Versions.KAFKA_V2_NDJSON})
+  public Response produceBinaryStream(
+      @PathParam("topic") String topic,
+      @PathParam("partition") int partition,
+      InputStream body
+  ) {
+    return produceStream(
+        topic,
+        partition,
+        EmbeddedFormat.BINARY,
+        body,
+        BinaryPartitionProduceRecord.class,
+        BinaryPartitionProduceRecord::toProduceRecord);
+  }
+
+  @POST
+  @Path("/{partition}")
+  @PerformanceMetric("partition.produce-json-stream+v2")
+  @Consumes({Versions.KAFKA_V2_NDJSON_JSON})
+  @Produces({Versions.KAFKA_V2_NDJSON})
+  public Response produceJsonStream(
+      @PathParam("topic") String topic,
+      @PathParam("partition") int partition,
+      InputStream body
+  ) {
+    return produceStream(
+        topic,
+        partition,
+        EmbeddedFormat.JSON,
+        body,
+        JsonPartitionProduceRecord.class,
+        JsonPartitionProduceRecord::toProduceRecord);
   }
 }
@@ -18,19 +18,32 @@ package io.confluent.kafkarest.resources.v2;
 import io.confluent.kafkarest.KafkaRestContext;
 import io.confluent.kafkarest.Versions;
 import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.EntityUtils;
+import io.confluent.kafkarest.entities.ProduceRecord;
+import io.confluent.kafkarest.entities.ProduceRequest;
 import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest;
+import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest.BinaryTopicProduceRecord;
 import io.confluent.kafkarest.entities.v2.JsonTopicProduceRequest;
+import io.confluent.kafkarest.entities.v2.JsonTopicProduceRequest.JsonTopicProduceRecord;
 import io.confluent.kafkarest.entities.v2.SchemaTopicProduceRequest;
 import io.confluent.rest.annotations.PerformanceMetric;
+import io.confluent.rest.validation.ConstraintViolations;
+import java.io.InputStream;
+import java.util.Collections;
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Response;
 
 @Path("/topics")
 @Consumes({
@@ -38,11 +51,17 @@ import javax.ws.rs.container.Suspended;
     Versions.KAFKA_V2_JSON_JSON,
     Versions.KAFKA_V2_JSON_AVRO,
     Versions.KAFKA_V2_JSON_PROTOBUF,
-    Versions.KAFKA_V2_JSON_JSON_SCHEMA
+    Versions.KAFKA_V2_JSON_JSON_SCHEMA,
+    Versions.KAFKA_V2_NDJSON_BINARY,
+    Versions.KAFKA_V2_NDJSON_JSON,
+    Versions.KAFKA_V2_OCTET_STREAM_RAW
 })
 @Produces({Versions.KAFKA_V2_JSON})
 public final class ProduceToTopicAction extends AbstractProduceAction {
 
+  private static final String KEY_HEADER = "Kafka-Key";
+  private static final String PARTITION_HEADER = "Kafka-Partition";
+
   public ProduceToTopicAction(KafkaRestContext ctx) {
     super(ctx);
   }
@@ -54,6 +73,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
   public void produceBinary(
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topicName,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull BinaryTopicProduceRequest request
   ) {
     produce(
@@ -61,7 +82,50 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
         topicName,
         /* partition= */ null,
         EmbeddedFormat.BINARY,
-        request.toProduceRequest());
+        request.toProduceRequest(),
+        isRespondAsync(async, prefer));
+  }
+
+  /**
+   * Produces the request body, as is, as the value of a single record. The optional key (base64
+   * encoded, like in the binary format) and partition can be given either as query parameters or
+   * as headers, the query parameters taking precedence.
+   */
+  @POST
+  @Path("/{topic}")
+  @PerformanceMetric("topic.produce-raw+v2")
+  @Consumes({Versions.KAFKA_V2_OCTET_STREAM_RAW})
+  public void produceRaw(
+      @Suspended AsyncResponse asyncResponse,
+      @PathParam("topic") String topicName,
+      @QueryParam("key") @Nullable String keyParam,
+      @HeaderParam(KEY_HEADER) @Nullable String keyHeader,
+      @QueryParam("partition") @PositiveOrZero @Nullable Integer partitionParam,
+      @HeaderParam(PARTITION_HEADER) @PositiveOrZero @Nullable Integer partitionHeader,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
+      @NotNull byte[] value
+  ) {
+    String key = keyParam != null ? keyParam : keyHeader;
+    Integer partition = partitionParam != null ? partitionParam : partitionHeader;
+    byte[] keyBytes;
+    try {
+      keyBytes = key != null ? EntityUtils.parseBase64Binary(key) : null;
+    } catch (IllegalArgumentException e) {
+      throw ConstraintViolations.simpleException("Record key contains invalid base64 encoding");
+    }
+    produce(
+        asyncResponse,
+        topicName,
+        partition,
+        EmbeddedFormat.BINARY,
+        ProduceRequest.create(
+            Collections.singletonList(ProduceRecord.create(keyBytes, value, partition)),
+            /* keySchema= */ null,
+            /* keySchemaId= */ null,
+            /* valueSchema= */ null,
+            /* valueSchemaId= */ null),
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -71,6 +135,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
   public void produceJson(
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topicName,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull JsonTopicProduceRequest request
   ) {
     produce(
@@ -78,7 +144,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
         topicName,
         /* partition= */ null,
         EmbeddedFormat.JSON,
-        request.toProduceRequest());
+        request.toProduceRequest(),
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -88,6 +155,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
   public void produceAvro(
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topicName,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull SchemaTopicProduceRequest request
   ) {
     produceSchema(
@@ -95,7 +164,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
         topicName,
         /* partition= */ null,
         request.toProduceRequest(),
-        EmbeddedFormat.AVRO);
+        EmbeddedFormat.AVRO,
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -105,6 +175,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
   public void produceJsonSchema(
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topicName,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull SchemaTopicProduceRequest request
   ) {
     produceSchema(
@@ -112,7 +184,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
         topicName,
         /* partition= */ null,
         request.toProduceRequest(),
-        EmbeddedFormat.JSONSCHEMA);
+        EmbeddedFormat.JSONSCHEMA,
+        isRespondAsync(async, prefer));
   }
 
   @POST
@@ -122,6 +195,8 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
   public void produceProtobuf(
       @Suspended AsyncResponse asyncResponse,
       @PathParam("topic") String topicName,
+      @QueryParam("async") @Nullable Boolean async,
+      @HeaderParam(PREFER_HEADER) @Nullable String prefer,
       @Valid @NotNull SchemaTopicProduceRequest request
   ) {
     produceSchema(
@@ -129,6 +204,43 @@ public final class ProduceToTopicAction extends AbstractProduceAction {
         topicName,
         /* partition= */ null,
         request.toProduceRequest(),
-        EmbeddedFormat.PROTOBUF);
+        EmbeddedFormat.PROTOBUF,
+        isRespondAsync(async, prefer));
+  }
+
+  @POST
+  @Path("/{topic}")
+  @PerformanceMetric("topic.produce-binary-stream+v2")
+  @Consumes({Versions.KAFKA_V2_NDJSON_BINARY})
+  @Produces({Versions.KAFKA_V2_NDJSON})
+  public Response produceBinaryStream(
+      @PathParam("topic") String topicName,
+      InputStream body
+  ) {
+    return produceStream(
+        topicName,
+        /* partition= */ null,
+        EmbeddedFormat.BINARY,
+        body,
+        BinaryTopicProduceRecord.class,
+        BinaryTopicProduceRecord::toProduceRecord);
+  }
+
+  @POST
+  @Path("/{topic}")
+  @PerformanceMetric("topic.produce-json-stream+v2")
+  @Consumes({Versions.KAFKA_V2_NDJSON_JSON})
+  @Produces({Versions.KAFKA_V2_NDJSON})
+  public Response produceJsonStream(
+      @PathParam("topic") String topicName,
+      InputStream body
+  ) {
+    return produceStream(
+        topicName,
+        /* partition= */ null,
+        EmbeddedFormat.JSON,
+        body,
+        JsonTopicProduceRecord.class,
+        JsonTopicProduceRecord::toProduceRecord);
   }
 }
@@ -27,7 +27,6 @@ import io.confluent.kafkarest.resources.AsyncResponses;
 import io.confluent.rest.annotations.PerformanceMetric;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.ws.rs.Consumes;
@@ -59,9 +58,7 @@ public final class TopicsResource {
   public void list(@Suspended AsyncResponse asyncResponse) {
     TopicManager topicManager = topicManagerProvider.get();
 
-    CompletableFuture<List<String>> response =
-        topicManager.listLocalTopics()
-            .thenApply(topics -> topics.stream().map(Topic::getName).collect(Collectors.toList()));
+    CompletableFuture<List<String>> response = topicManager.listLocalTopicNames();
 
     AsyncResponses.asyncResume(asyncResponse, response);
   }
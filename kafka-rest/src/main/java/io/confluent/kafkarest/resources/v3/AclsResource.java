@@ -23,6 +23,7 @@ import io.confluent.kafkarest.entities.Acl.Operation;
 import io.confluent.kafkarest.entities.Acl.PatternType;
 import io.confluent.kafkarest.entities.Acl.Permission;
 import io.confluent.kafkarest.entities.Acl.ResourceType;
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.v3.AclData;
 import io.confluent.kafkarest.entities.v3.AclDataList;
 import io.confluent.kafkarest.entities.v3.CreateAclRequest;
@@ -32,10 +33,13 @@ import io.confluent.kafkarest.entities.v3.ResourceCollection;
 import io.confluent.kafkarest.entities.v3.SearchAclsResponse;
 import io.confluent.kafkarest.resources.AsyncResponses;
 import io.confluent.kafkarest.resources.AsyncResponses.AsyncResponseBuilder;
+import io.confluent.kafkarest.response.UrlBuilder;
 import io.confluent.kafkarest.response.UrlFactory;
 import java.net.URI;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -79,7 +83,9 @@ public final class AclsResource {
       @QueryParam("principal") @DefaultValue("") String principal,
       @QueryParam("host") @DefaultValue("") String host,
       @QueryParam("operation") @DefaultValue("any") Operation operation,
-      @QueryParam("permission") @DefaultValue("any") Permission permission
+      @QueryParam("permission") @DefaultValue("any") Permission permission,
+      @QueryParam(Pagination.PAGE_SIZE) Integer pageSize,
+      @QueryParam(Pagination.PAGE_TOKEN) String pageToken
   ) {
     if (resourceType == Acl.ResourceType.UNKNOWN) {
       throw new BadRequestException("resource_type cannot be ANY");
@@ -94,6 +100,24 @@ public final class AclsResource {
       throw new BadRequestException("permission cannot be ANY");
     }
 
+    Supplier<UrlBuilder> searchUrl =
+        () ->
+            urlFactory.newUrlBuilder()
+                .appendPathSegment("v3")
+                .appendPathSegment("clusters")
+                .appendPathSegment(clusterId)
+                .appendPathSegment("acls")
+                .putQueryParameter("resource_type", resourceType.name())
+                .putQueryParameter("resource_name", resourceName)
+                .putQueryParameter("pattern_type", patternType.name())
+                .putQueryParameter("principal", principal)
+                .putQueryParameter("host", host)
+                .putQueryParameter("operation", operation.name())
+                .putQueryParameter("permission", permission.name());
+    boolean paginated = Pagination.isPaginated(pageSize, pageToken);
+    int size = paginated ? Pagination.getPageSize(pageSize) : 0;
+    int offset = paginated ? Pagination.decodePageOffset(pageToken) : 0;
+
     CompletableFuture<SearchAclsResponse> response =
         aclManager.get()
             .searchAcls(
@@ -106,39 +130,37 @@ public final class AclsResource {
                 operation,
                 permission)
             .thenApply(
-                acls ->
-                    SearchAclsResponse.create(
+                acls -> {
+                  List<AclData> sorted =
+                      acls.stream()
+                          .map(this::toAclData)
+                          .sorted(
+                              Comparator.comparing(AclData::getResourceType)
+                                  .thenComparing(AclData::getResourceName)
+                                  .thenComparing(AclData::getPatternType)
+                                  .thenComparing(AclData::getPrincipal)
+                                  .thenComparing(AclData::getHost)
+                                  .thenComparing(AclData::getOperation)
+                                  .thenComparing(AclData::getPermission))
+                          .collect(Collectors.toList());
+                  if (!paginated) {
+                    return SearchAclsResponse.create(
                         AclDataList.builder()
                             .setMetadata(
                                 ResourceCollection.Metadata.builder()
-                                    .setSelf(
-                                        urlFactory.newUrlBuilder()
-                                            .appendPathSegment("v3")
-                                            .appendPathSegment("clusters")
-                                            .appendPathSegment(clusterId)
-                                            .appendPathSegment("acls")
-                                            .putQueryParameter("resource_type", resourceType.name())
-                                            .putQueryParameter("resource_name", resourceName)
-                                            .putQueryParameter("pattern_type", patternType.name())
-                                            .putQueryParameter("principal", principal)
-                                            .putQueryParameter("host", host)
-                                            .putQueryParameter("operation", operation.name())
-                                            .putQueryParameter("permission", permission.name())
-                                            .build())
+                                    .setSelf(searchUrl.get().build())
                                     .build())
-                            .setData(
-                                acls.stream()
-                                    .map(this::toAclData)
-                                    .sorted(
-                                        Comparator.comparing(AclData::getResourceType)
-                                            .thenComparing(AclData::getResourceName)
-                                            .thenComparing(AclData::getPatternType)
-                                            .thenComparing(AclData::getPrincipal)
-                                            .thenComparing(AclData::getHost)
-                                            .thenComparing(AclData::getOperation)
-                                            .thenComparing(AclData::getPermission))
-                                    .collect(Collectors.toList()))
-                            .build()));
+                            .setData(sorted)
+                            .build());
+                  }
+                  // ACLs can't be searched a page at a time, so they're paged once sorted.
+                  Page<AclData> page = Page.ofOffset(sorted, offset, size);
+                  return SearchAclsResponse.create(
+                      AclDataList.builder()
+                          .setMetadata(Pagination.createMetadata(searchUrl, size, pageToken, page))
+                          .setData(page.getItems())
+                          .build());
+                });
 
     AsyncResponses.asyncResume(asyncResponse, response);
   }
@@ -38,6 +38,7 @@ import javax.ws.rs.NotFoundException;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
@@ -62,7 +63,17 @@ public final class ConsumerGroupsResource {
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   public void listConsumerGroups(
-      @Suspended AsyncResponse asyncResponse, @PathParam("clusterId") String clusterId) {
+      @Suspended AsyncResponse asyncResponse,
+      @PathParam("clusterId") String clusterId,
+      @QueryParam(Pagination.PAGE_SIZE) Integer pageSize,
+      @QueryParam(Pagination.PAGE_TOKEN) String pageToken
+  ) {
+    if (Pagination.isPaginated(pageSize, pageToken)) {
+      listConsumerGroupsPage(
+          asyncResponse, clusterId, Pagination.getPageSize(pageSize), pageToken);
+      return;
+    }
+
     CompletableFuture<ListConsumerGroupsResponse> response =
         consumerGroupManager.get()
             .listConsumerGroups(clusterId)
@@ -87,6 +98,37 @@ public final class ConsumerGroupsResource {
     AsyncResponses.asyncResume(asyncResponse, response);
   }
 
+  private void listConsumerGroupsPage(
+      AsyncResponse asyncResponse, String clusterId, int pageSize, String pageToken) {
+    CompletableFuture<ListConsumerGroupsResponse> response =
+        consumerGroupManager.get()
+            .listConsumerGroups(clusterId, Pagination.decodePageToken(pageToken), pageSize)
+            .thenApply(
+                page ->
+                    ListConsumerGroupsResponse.create(
+                        ConsumerGroupDataList.builder()
+                            .setMetadata(
+                                Pagination.createMetadata(
+                                    () ->
+                                        urlFactory.newUrlBuilder()
+                                            .appendPathSegment("v3")
+                                            .appendPathSegment("clusters")
+                                            .appendPathSegment(clusterId)
+                                            .appendPathSegment("consumer-groups"),
+                                    pageSize,
+                                    pageToken,
+                                    page))
+                            .setData(
+                                page.getItems().stream()
+                                    .map(
+                                        consumerGroup ->
+                                            toConsumerGroupData(clusterId, consumerGroup))
+                                    .collect(Collectors.toList()))
+                            .build()));
+
+    AsyncResponses.asyncResume(asyncResponse, response);
+  }
+
   @GET
   @Path("/{consumerGroupId}")
   @Produces(MediaType.APPLICATION_JSON)
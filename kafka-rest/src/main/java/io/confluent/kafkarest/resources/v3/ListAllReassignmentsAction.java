@@ -18,6 +18,7 @@ package io.confluent.kafkarest.resources.v3;
 import static java.util.Objects.requireNonNull;
 
 import io.confluent.kafkarest.controllers.ReassignmentManager;
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.Reassignment;
 import io.confluent.kafkarest.entities.v3.ListAllReassignmentsResponse;
 import io.confluent.kafkarest.entities.v3.ReassignmentData;
@@ -26,8 +27,11 @@ import io.confluent.kafkarest.entities.v3.Resource;
 import io.confluent.kafkarest.entities.v3.ResourceCollection;
 import io.confluent.kafkarest.resources.AsyncResponses;
 import io.confluent.kafkarest.response.CrnFactory;
+import io.confluent.kafkarest.response.UrlBuilder;
 import io.confluent.kafkarest.response.UrlFactory;
+import java.util.Comparator;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -35,6 +39,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
@@ -60,31 +65,62 @@ public final class ListAllReassignmentsAction {
   @Produces(MediaType.APPLICATION_JSON)
   public void listReassignments(
       @Suspended AsyncResponse asyncResponse,
-      @PathParam("clusterId") String clusterId) {
+      @PathParam("clusterId") String clusterId,
+      @QueryParam(Pagination.PAGE_SIZE) Integer pageSize,
+      @QueryParam(Pagination.PAGE_TOKEN) String pageToken
+  ) {
+    Supplier<UrlBuilder> collectionUrl =
+        () ->
+            urlFactory.newUrlBuilder()
+                .appendPathSegment("v3")
+                .appendPathSegment("clusters")
+                .appendPathSegment(clusterId)
+                .appendPathSegment("topics")
+                .appendPathSegment("-")
+                .appendPathSegment("partitions")
+                .appendPathSegment("-")
+                .appendPathSegment("reassignments");
+    boolean paginated = Pagination.isPaginated(pageSize, pageToken);
+    int size = paginated ? Pagination.getPageSize(pageSize) : 0;
+    int offset = paginated ? Pagination.decodePageOffset(pageToken) : 0;
+
     CompletableFuture<ListAllReassignmentsResponse> response =
         reassignmentManager.get().listReassignments(clusterId)
             .thenApply(
-                reassignments ->
-                    ListAllReassignmentsResponse.create(
+                reassignments -> {
+                  if (!paginated) {
+                    return ListAllReassignmentsResponse.create(
                         ReassignmentDataList.builder()
                             .setMetadata(
                                 ResourceCollection.Metadata.builder()
-                                    .setSelf(
-                                        urlFactory.create(
-                                            "v3",
-                                            "clusters",
-                                            clusterId,
-                                            "topics",
-                                            "-",
-                                            "partitions",
-                                            "-",
-                                            "reassignments"))
+                                    .setSelf(collectionUrl.get().build())
                                     .build())
                             .setData(
                                 reassignments.stream()
                                     .map(this::toReassignmentData)
                                     .collect(Collectors.toList()))
-                            .build()));
+                            .build());
+                  }
+                  // Reassignments can't be listed a page at a time, so they're paged once sorted.
+                  Page<Reassignment> page =
+                      Page.ofOffset(
+                          reassignments.stream()
+                              .sorted(
+                                  Comparator.comparing(Reassignment::getTopicName)
+                                      .thenComparing(Reassignment::getPartitionId))
+                              .collect(Collectors.toList()),
+                          offset,
+                          size);
+                  return ListAllReassignmentsResponse.create(
+                      ReassignmentDataList.builder()
+                          .setMetadata(
+                              Pagination.createMetadata(collectionUrl, size, pageToken, page))
+                          .setData(
+                              page.getItems().stream()
+                                  .map(this::toReassignmentData)
+                                  .collect(Collectors.toList()))
+                          .build());
+                });
 
     AsyncResponses.asyncResume(asyncResponse, response);
   }
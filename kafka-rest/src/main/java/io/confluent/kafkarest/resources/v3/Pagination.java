@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v3;
+
+import io.confluent.kafkarest.entities.Page;
+import io.confluent.kafkarest.entities.v3.ResourceCollection;
+import io.confluent.kafkarest.response.UrlBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.ws.rs.BadRequestException;
+
+/**
+ * Helpers for collections listed a page at a time, with the {@code page_size} and {@code
+ * page_token} query parameters.
+ *
+ * <p>Page tokens are opaque to clients. They encode the key of the next page, as returned by the
+ * controllers in a {@link Page}, and are only meant to be passed back in {@code next} links.</p>
+ */
+final class Pagination {
+
+  static final String PAGE_SIZE = "page_size";
+  static final String PAGE_TOKEN = "page_token";
+
+  // Used when a page token is passed without a page size.
+  static final int DEFAULT_PAGE_SIZE = 100;
+  // Bounds the size of a single response, and the work done to build it.
+  static final int MAX_PAGE_SIZE = 1000;
+
+  private Pagination() {
+  }
+
+  /**
+   * Returns whether the request asked for a single page, rather than the whole collection.
+   */
+  static boolean isPaginated(@Nullable Integer pageSize, @Nullable String pageToken) {
+    return pageSize != null || pageToken != null;
+  }
+
+  static int getPageSize(@Nullable Integer pageSize) {
+    if (pageSize == null) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    if (pageSize < 1) {
+      throw new BadRequestException("page_size must be positive");
+    }
+    if (pageSize > MAX_PAGE_SIZE) {
+      throw new BadRequestException("page_size must be at most " + MAX_PAGE_SIZE);
+    }
+    return pageSize;
+  }
+
+  /**
+   * Returns the key of the page the token was created for, or null for the first page.
+   */
+  @Nullable
+  static String decodePageToken(@Nullable String pageToken) {
+    if (pageToken == null || pageToken.isEmpty()) {
+      return null;
+    }
+    try {
+      return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Invalid page_token");
+    }
+  }
+
+  /**
+   * Returns the offset of the page the token was created for, or 0 for the first page, for
+   * collections paged by offset.
+   */
+  static int decodePageOffset(@Nullable String pageToken) {
+    String key = decodePageToken(pageToken);
+    if (key == null) {
+      return 0;
+    }
+    try {
+      int offset = Integer.parseInt(key);
+      if (offset >= 0) {
+        return offset;
+      }
+    } catch (NumberFormatException e) {
+      // Handled below.
+    }
+    throw new BadRequestException("Invalid page_token");
+  }
+
+  static String encodePageToken(String key) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the metadata of a page of the collection at {@code collectionUrl}, linking to the
+   * next page if there's one.
+   */
+  static ResourceCollection.Metadata createMetadata(
+      Supplier<UrlBuilder> collectionUrl,
+      int pageSize,
+      @Nullable String pageToken,
+      Page<?> page) {
+    UrlBuilder self = collectionUrl.get().putQueryParameter(PAGE_SIZE, Integer.toString(pageSize));
+    if (pageToken != null && !pageToken.isEmpty()) {
+      self.putQueryParameter(PAGE_TOKEN, pageToken);
+    }
+    return ResourceCollection.Metadata.builder()
+        .setSelf(self.build())
+        .setNext(
+            page.getNextPageKey()
+                .map(
+                    key ->
+                        collectionUrl.get()
+                            .putQueryParameter(PAGE_SIZE, Integer.toString(pageSize))
+                            .putQueryParameter(PAGE_TOKEN, encodePageToken(key))
+                            .build())
+                .orElse(null))
+        .build();
+  }
+}
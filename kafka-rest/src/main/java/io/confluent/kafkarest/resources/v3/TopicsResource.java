@@ -49,6 +49,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
@@ -76,7 +77,16 @@ public final class TopicsResource {
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   public void listTopics(
-      @Suspended AsyncResponse asyncResponse, @PathParam("clusterId") String clusterId) {
+      @Suspended AsyncResponse asyncResponse,
+      @PathParam("clusterId") String clusterId,
+      @QueryParam(Pagination.PAGE_SIZE) Integer pageSize,
+      @QueryParam(Pagination.PAGE_TOKEN) String pageToken
+  ) {
+    if (Pagination.isPaginated(pageSize, pageToken)) {
+      listTopicsPage(asyncResponse, clusterId, Pagination.getPageSize(pageSize), pageToken);
+      return;
+    }
+
     CompletableFuture<ListTopicsResponse> response =
         topicManager.get()
             .listTopics(clusterId)
@@ -99,6 +109,35 @@ public final class TopicsResource {
     AsyncResponses.asyncResume(asyncResponse, response);
   }
 
+  private void listTopicsPage(
+      AsyncResponse asyncResponse, String clusterId, int pageSize, String pageToken) {
+    CompletableFuture<ListTopicsResponse> response =
+        topicManager.get()
+            .listTopics(clusterId, Pagination.decodePageToken(pageToken), pageSize)
+            .thenApply(
+                page ->
+                    ListTopicsResponse.create(
+                        TopicDataList.builder()
+                            .setMetadata(
+                                Pagination.createMetadata(
+                                    () ->
+                                        urlFactory.newUrlBuilder()
+                                            .appendPathSegment("v3")
+                                            .appendPathSegment("clusters")
+                                            .appendPathSegment(clusterId)
+                                            .appendPathSegment("topics"),
+                                    pageSize,
+                                    pageToken,
+                                    page))
+                            .setData(
+                                page.getItems().stream()
+                                    .map(this::toTopicData)
+                                    .collect(Collectors.toList()))
+                            .build()));
+
+    AsyncResponses.asyncResume(asyncResponse, response);
+  }
+
   @GET
   @Path("/{topicName}")
   @Produces(MediaType.APPLICATION_JSON)
@@ -16,6 +16,7 @@
 package io.confluent.kafkarest.v2;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.confluent.kafkarest.ConsumerInstanceId;
 import io.confluent.kafkarest.ConsumerRecordAndSize;
 import io.confluent.kafkarest.KafkaRestConfig;
@@ -42,11 +43,12 @@ public class BinaryKafkaConsumerState
     long approxSize = (record.key() != null ? record.key().length : 0)
         + (record.value() != null ? record.value().length : 0);
 
+    // The deserializer hands out a new array for each record, so they can be wrapped as they are.
     return new ConsumerRecordAndSize<>(
         io.confluent.kafkarest.entities.ConsumerRecord.create(
             record.topic(),
-            record.key() != null ? ByteString.copyFrom(record.key()) : null,
-            record.value() != null ? ByteString.copyFrom(record.value()) : null,
+            record.key() != null ? UnsafeByteOperations.unsafeWrap(record.key()) : null,
+            record.value() != null ? UnsafeByteOperations.unsafeWrap(record.value()) : null,
             record.partition(),
             record.offset()),
         approxSize);
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the bytes of records buffered by all the consumer instances, so that prefetching stops
+ * once they go over {@code consumer.prefetch.total.max.bytes}.
+ */
+final class ConsumerPrefetchBudget {
+
+  private final long maxBytes;
+  private final AtomicLong bytes = new AtomicLong();
+
+  ConsumerPrefetchBudget(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  boolean hasCapacity() {
+    return bytes.get() < maxBytes;
+  }
+
+  void acquire(long size) {
+    bytes.addAndGet(size);
+  }
+
+  void release(long size) {
+    bytes.addAndGet(-size);
+  }
+
+  long getBytes() {
+    return bytes.get();
+  }
+}
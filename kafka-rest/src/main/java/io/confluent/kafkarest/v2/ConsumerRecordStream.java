@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import io.confluent.kafkarest.entities.ConsumerRecord;
+import java.util.List;
+
+/**
+ * Reads successive batches of records from a single consumer instance, for responses that keep
+ * streaming records until the client disconnects.
+ *
+ * <p>Each batch is read on the calling thread, the same way a single read request is read on the
+ * consumer worker pool, so the caller is slowed down by its own writes rather than by buffering.
+ */
+public class ConsumerRecordStream<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
+
+  private final KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> state;
+  private final long timeout;
+  private final long maxBytes;
+
+  private List<ConsumerRecord<ClientKeyT, ClientValueT>> records;
+  private Exception error;
+
+  ConsumerRecordStream(
+      KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> state,
+      long timeout,
+      long maxBytes) {
+    this.state = state;
+    this.timeout = timeout;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Blocks until the next batch of records is ready, as a read request with the stream's timeout
+   * and max bytes would. Returns an empty list if no records arrived before the timeout.
+   */
+  public List<ConsumerRecord<ClientKeyT, ClientValueT>> nextBatch() {
+    records = null;
+    error = null;
+    KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> task =
+        new KafkaConsumerReadTask<>(
+            state,
+            timeout,
+            maxBytes,
+            (batch, e) -> {
+              records = batch;
+              error = e;
+            });
+    do {
+      task.doPartialRead();
+      // Streaming keeps the consumer in use, so it must not expire under the stream.
+      state.updateExpiration();
+    } while (!task.isDone());
+
+    if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    } else if (error != null) {
+      throw new RuntimeException(error);
+    }
+    return records;
+  }
+}
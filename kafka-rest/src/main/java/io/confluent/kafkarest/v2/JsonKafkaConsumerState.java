@@ -15,10 +15,17 @@
 
 package io.confluent.kafkarest.v2;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.confluent.kafkarest.ConsumerInstanceId;
 import io.confluent.kafkarest.ConsumerRecordAndSize;
+import io.confluent.kafkarest.Errors;
 import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.converters.RawJsonValue;
+import io.confluent.rest.entities.ErrorMessage;
+import java.io.IOException;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.errors.SerializationException;
@@ -27,10 +34,23 @@ public class JsonKafkaConsumerState extends KafkaConsumerState<byte[], byte[], O
 
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
+  // Returned in place of the keys and values that aren't valid JSON, in passthrough mode.
+  private static final RawValue INVALID_JSON_MARKER =
+      new RawValue(
+          new RawJsonValue(
+              toJson(
+                  new ErrorMessage(
+                      Errors.JSON_CONVERSION_ERROR_CODE,
+                      Errors.JSON_CONVERSION_MESSAGE + "message is not valid JSON."))));
+
+  private final boolean passthrough;
+
   public JsonKafkaConsumerState(KafkaRestConfig config,
       ConsumerInstanceId instanceId,
       Consumer consumer) {
     super(config, instanceId, consumer);
+    this.passthrough =
+        config.getBoolean(KafkaRestConfig.CONSUMER_JSON_PASSTHROUGH_ENABLE_CONFIG);
   }
 
   @Override
@@ -41,9 +61,9 @@ public class JsonKafkaConsumerState extends KafkaConsumerState<byte[], byte[], O
     Object key = null;
     Object value = null;
 
-    // The extra serialization here is unfortunate. We could use @JsonRawValue
-    // and just use the raw bytes, but that risks returning invalid data to the user
-    // if their data is not actually JSON encoded.
+    // Parsing and encoding again is unfortunate, but returning the raw bytes risks returning
+    // invalid data to the user if their data is not actually JSON encoded. Passthrough mode only
+    // scans the bytes to check they are valid, and then returns them as they are.
 
     if (record.key() != null) {
       approxSize += record.key().length;
@@ -61,10 +81,103 @@ public class JsonKafkaConsumerState extends KafkaConsumerState<byte[], byte[], O
   }
 
   private Object deserialize(byte[] data) {
+    if (passthrough) {
+      return isValidJson(data) ? new RawValue(new RawJsonValue(data)) : INVALID_JSON_MARKER;
+    }
     try {
       return objectMapper.readValue(data, Object.class);
     } catch (Exception e) {
       throw new SerializationException(e);
     }
   }
+
+  /**
+   * Whether the data is a single JSON value, encoded in UTF-8. Tokens are skipped rather than read,
+   * so strings and numbers are never materialized.
+   */
+  static boolean isValidJson(byte[] data) {
+    // The bytes are passed through as they are, so they must be UTF-8 like the rest of the
+    // response. Jackson would also accept UTF-16 and UTF-32, which it auto-detects, and doesn't
+    // check the bytes of strings it skips.
+    if (!isUtf8(data)) {
+      return false;
+    }
+    try (JsonParser parser = objectMapper.getFactory().createParser(data)) {
+      if (parser.nextToken() == null) {
+        return false;
+      }
+      parser.skipChildren();
+      return parser.nextToken() == null;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Whether the data is well-formed UTF-8, without a byte order mark or zero bytes. JSON never has
+   * unescaped zero bytes, while UTF-16 and UTF-32 encode its structural characters with some.
+   */
+  private static boolean isUtf8(byte[] data) {
+    if (data.length >= 3
+        && (data[0] & 0xff) == 0xef && (data[1] & 0xff) == 0xbb && (data[2] & 0xff) == 0xbf) {
+      return false;
+    }
+    int i = 0;
+    while (i < data.length) {
+      int b = data[i] & 0xff;
+      if (b < 0x80) {
+        if (b == 0) {
+          return false;
+        }
+        i++;
+        continue;
+      }
+      // The range of the second byte rules out overlong encodings, surrogates, and code points
+      // past U+10FFFF.
+      int continuations;
+      int secondMin = 0x80;
+      int secondMax = 0xbf;
+      if (b >= 0xc2 && b <= 0xdf) {
+        continuations = 1;
+      } else if (b >= 0xe0 && b <= 0xef) {
+        continuations = 2;
+        if (b == 0xe0) {
+          secondMin = 0xa0;
+        } else if (b == 0xed) {
+          secondMax = 0x9f;
+        }
+      } else if (b >= 0xf0 && b <= 0xf4) {
+        continuations = 3;
+        if (b == 0xf0) {
+          secondMin = 0x90;
+        } else if (b == 0xf4) {
+          secondMax = 0x8f;
+        }
+      } else {
+        return false;
+      }
+      if (i + continuations >= data.length) {
+        return false;
+      }
+      int second = data[i + 1] & 0xff;
+      if (second < secondMin || second > secondMax) {
+        return false;
+      }
+      for (int j = 2; j <= continuations; j++) {
+        if ((data[i + j] & 0xc0) != 0x80) {
+          return false;
+        }
+      }
+      i += continuations + 1;
+    }
+    return true;
+  }
+
+  private static byte[] toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
 }
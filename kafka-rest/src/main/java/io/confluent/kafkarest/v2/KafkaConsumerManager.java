@@ -19,6 +19,7 @@ import static io.confluent.kafkarest.KafkaRestConfig.CONSUMER_MAX_THREADS_CONFIG
 import static io.confluent.kafkarest.KafkaRestConfig.MAX_POLL_RECORDS_CONFIG;
 import static io.confluent.kafkarest.KafkaRestConfig.MAX_POLL_RECORDS_VALUE;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.kafkarest.ConsumerInstanceId;
 import io.confluent.kafkarest.ConsumerReadCallback;
 import io.confluent.kafkarest.Errors;
@@ -44,28 +45,34 @@ import io.confluent.rest.exceptions.RestNotFoundException;
 import io.confluent.rest.exceptions.RestServerErrorException;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Vector;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.ws.rs.core.Response;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -81,15 +88,24 @@ import org.slf4j.LoggerFactory;
  *
  * <p>For read and commitOffsets tasks, it uses a {@link ThreadPoolExecutor}
  *  which spins up threads for handling read tasks.
- * Since read tasks do not complete on the first run but rather call the AK consumer's poll() method
- * continuously, we re-schedule them via a {@link DelayQueue}.
+ * Each run of a read task waits for records in the AK consumer's poll() method for at most
+ * {@code consumer.poll.timeout.ms}, so records are returned as soon as they arrive. Read tasks not
+ * complete yet are re-queued via a {@link DelayQueue}, so waiting reads don't keep a thread for
+ * their whole timeout. So are read tasks rejected by a saturated executor, with a short delay.
  * A {@link ReadTaskSchedulerThread} runs in a separate thread
  *  and re-submits the tasks to the executor.
+ *
+ * <p>If {@code consumer.prefetch.max.bytes} is set, a background thread also keeps a buffer of
+ * records filled for each consumer instance between read requests, within the limits of
+ * {@code consumer.prefetch.total.max.bytes} for all instances together.
  */
 public class KafkaConsumerManager {
 
   private static final Logger log = LoggerFactory.getLogger(KafkaConsumerManager.class);
 
+  // How often consumer instances get to top up their prefetch buffers, if enabled.
+  private static final long PREFETCH_INTERVAL_MS = 50;
+
   private final KafkaRestConfig config;
   private final Time time;
   private final String bootstrapServers;
@@ -97,15 +113,31 @@ public class KafkaConsumerManager {
   // KafkaConsumerState is generic, but we store them untyped here. This allows many operations to
   // work without having to know the types for the consumer, only requiring type information
   // during read operations.
-  private final Map<ConsumerInstanceId, KafkaConsumerState> consumers =
-      new HashMap<ConsumerInstanceId, KafkaConsumerState>();
+  private final ConcurrentMap<ConsumerInstanceId, KafkaConsumerState> consumers =
+      new ConcurrentHashMap<>();
+  // IDs of the consumer instances being created, so the same ID can't be created twice.
+  private final Set<ConsumerInstanceId> pendingConsumers = ConcurrentHashMap.newKeySet();
+  // Consumer instances by the time they were due to expire when last checked. Each instance has
+  // one entry, checked again once it's due, so expiring doesn't need to look at every instance.
+  final PriorityBlockingQueue<ExpirationEntry> expirations =
+      new PriorityBlockingQueue<>(
+          11, Comparator.comparingLong((ExpirationEntry entry) -> entry.expiration));
   // All kind of operations, like reading records, committing offsets and closing a consumer
   // are executed separately in dedicated threads via a cached thread pool.
-  private final ExecutorService executor;
+  final ExecutorService executor;
   private KafkaConsumerFactory consumerFactory;
   final DelayQueue<RunnableReadTask> delayedReadTasks = new DelayQueue<>();
   private final ExpirationThread expirationThread;
   private ReadTaskSchedulerThread readTaskSchedulerThread;
+  private final long prefetchMaxBytes;
+  // Both null if prefetching is disabled.
+  @Nullable
+  private final ConsumerPrefetchBudget prefetchBudget;
+  @Nullable
+  private final ScheduledExecutorService prefetchExecutor;
+  // Groups whose consumer instances share the consumers in the pool.
+  private final Set<String> multiplexedGroups;
+  private final SharedConsumerPool sharedConsumerPool;
 
   @GuardedBy("this")
   private ConsumerInstanceId adminConsumerInstanceId = null;
@@ -115,11 +147,59 @@ public class KafkaConsumerManager {
     this.time = config.getTime();
     this.bootstrapServers = RestConfigUtils.bootstrapBrokers(config);
 
-    // Cached thread pool
-    int maxThreadCount = config.getInt(CONSUMER_MAX_THREADS_CONFIG) < 0 ? Integer.MAX_VALUE
-            : config.getInt(CONSUMER_MAX_THREADS_CONFIG);
+    this.executor = createExecutor(config);
+    this.consumerFactory = null;
+    this.expirationThread = new ExpirationThread();
+    this.readTaskSchedulerThread = new ReadTaskSchedulerThread();
+    this.expirationThread.start();
+    this.readTaskSchedulerThread.start();
 
-    this.executor = new KafkaConsumerThreadPoolExecutor(0, maxThreadCount,
+    this.prefetchMaxBytes = config.getLong(KafkaRestConfig.CONSUMER_PREFETCH_MAX_BYTES_CONFIG);
+    if (prefetchMaxBytes > 0) {
+      this.prefetchBudget =
+          new ConsumerPrefetchBudget(
+              config.getLong(KafkaRestConfig.CONSUMER_PREFETCH_TOTAL_MAX_BYTES_CONFIG));
+      this.prefetchExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder()
+                  .setNameFormat("kafka-rest-consumer-prefetch-%d")
+                  .setDaemon(true)
+                  .build());
+      this.prefetchExecutor.scheduleWithFixedDelay(
+          this::prefetch, PREFETCH_INTERVAL_MS, PREFETCH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    } else {
+      this.prefetchBudget = null;
+      this.prefetchExecutor = null;
+    }
+
+    this.multiplexedGroups =
+        new HashSet<>(config.getList(KafkaRestConfig.CONSUMER_MULTIPLEX_GROUPS_CONFIG));
+    this.sharedConsumerPool =
+        new SharedConsumerPool(config.getInt(KafkaRestConfig.CONSUMER_MULTIPLEX_POOL_SIZE_CONFIG));
+  }
+
+  KafkaConsumerManager(KafkaRestConfig config, KafkaConsumerFactory consumerFactory) {
+    this(config);
+    this.consumerFactory = consumerFactory;
+  }
+
+  private ExecutorService createExecutor(KafkaRestConfig config) {
+    int maxThreads = config.getInt(CONSUMER_MAX_THREADS_CONFIG);
+    if (config.getBoolean(KafkaRestConfig.CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG)) {
+      // Only reads are limited, commits and closes run right away like the rejected ones below.
+      Optional<ExecutorService> virtualThreadExecutor =
+          VirtualThreadExecutor.create(maxThreads, task -> task instanceof RunnableReadTask);
+      if (virtualThreadExecutor.isPresent()) {
+        return virtualThreadExecutor.get();
+      }
+      log.warn(
+          "{} is set, but virtual threads are not supported by this JDK. Using a thread pool.",
+          KafkaRestConfig.CONSUMER_VIRTUAL_THREADS_ENABLE_CONFIG);
+    }
+
+    // Cached thread pool
+    int maxThreadCount = maxThreads < 0 ? Integer.MAX_VALUE : maxThreads;
+    return new KafkaConsumerThreadPoolExecutor(0, maxThreadCount,
             60L, TimeUnit.SECONDS,
             new SynchronousQueue<Runnable>(),
             new RejectedExecutionHandler() {
@@ -139,16 +219,6 @@ public class KafkaConsumerManager {
             }
           }
     );
-    this.consumerFactory = null;
-    this.expirationThread = new ExpirationThread();
-    this.readTaskSchedulerThread = new ReadTaskSchedulerThread();
-    this.expirationThread.start();
-    this.readTaskSchedulerThread.start();
-  }
-
-  KafkaConsumerManager(KafkaRestConfig config, KafkaConsumerFactory consumerFactory) {
-    this(config);
-    this.consumerFactory = consumerFactory;
   }
 
   /**
@@ -179,18 +249,17 @@ public class KafkaConsumerManager {
     }
 
     ConsumerInstanceId cid = new ConsumerInstanceId(group, name);
-    // Perform this check before
-    synchronized (this) {
-      if (consumers.containsKey(cid)) {
-        throw Errors.consumerAlreadyExistsException();
-      } else {
-        // Placeholder to reserve this ID
-        consumers.put(cid, null);
-      }
+    // Reserve this ID first. Instances are registered before their reservation is released, so
+    // checking the registry after reserving can't miss one.
+    if (!pendingConsumers.add(cid)) {
+      throw Errors.consumerAlreadyExistsException();
+    }
+    if (consumers.containsKey(cid)) {
+      pendingConsumers.remove(cid);
+      throw Errors.consumerAlreadyExistsException();
     }
 
-    // Ensure we clean up the placeholder if there are any issues creating the consumer instance
-    boolean succeeded = false;
+    // Ensure we clean up the reservation, whether or not the consumer instance gets created
     try {
       log.debug("Creating consumer " + name + " in group " + group);
 
@@ -211,6 +280,17 @@ public class KafkaConsumerManager {
       if (instanceConfig.getAutoCommitEnable() != null) {
         props.setProperty("enable.auto.commit", instanceConfig.getAutoCommitEnable());
       }
+      boolean multiplexed = multiplexedGroups.contains(group);
+      if (multiplexed) {
+        // A shared consumer is past the records it keeps for the instances that haven't read them
+        // yet, so committing its positions on its own would skip those records.
+        if (Boolean.parseBoolean(instanceConfig.getAutoCommitEnable())) {
+          throw Errors.invalidConsumerConfigException(
+              "auto.commit.enable is not supported by the consumer instances of group " + group
+                  + ", which share consumers.");
+        }
+        props.setProperty("enable.auto.commit", "false");
+      }
       if (instanceConfig.getAutoOffsetReset() != null) {
         props.setProperty("auto.offset.reset", instanceConfig.getAutoOffsetReset());
       }
@@ -257,27 +337,32 @@ public class KafkaConsumerManager {
 
       Consumer consumer;
       try {
-        if (consumerFactory == null) {
-          consumer = new KafkaConsumer(props);
+        if (multiplexed) {
+          consumer = sharedConsumerPool.acquire(props, () -> newConsumer(props));
         } else {
-          consumer = consumerFactory.createConsumer(props);
+          consumer = newConsumer(props);
         }
       } catch (ConfigException e) {
         throw Errors.invalidConsumerConfigException(e.getMessage());
       }
 
       KafkaConsumerState state = createConsumerState(instanceConfig, cid, consumer);
-      synchronized (this) {
-        consumers.put(cid, state);
+      if (prefetchBudget != null) {
+        state.enablePrefetch(prefetchMaxBytes, prefetchBudget);
       }
-      succeeded = true;
+      consumers.put(cid, state);
+      expirations.add(new ExpirationEntry(state));
       return name;
     } finally {
-      if (!succeeded) {
-        synchronized (this) {
-          consumers.remove(cid);
-        }
-      }
+      pendingConsumers.remove(cid);
+    }
+  }
+
+  private Consumer newConsumer(Properties props) {
+    if (consumerFactory == null) {
+      return new KafkaConsumer(props);
+    } else {
+      return consumerFactory.createConsumer(props);
     }
   }
 
@@ -342,6 +427,35 @@ public class KafkaConsumerManager {
     executor.submit(new RunnableReadTask(new ReadTaskState(task, state, callback)));
   }
 
+  /**
+   * Opens a stream of record batches from the given consumer instance. Unlike {@link
+   * #readRecords}, lookup and format errors are thrown here, before anything has been streamed.
+   */
+  public <KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT>
+      ConsumerRecordStream<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> openRecordStream(
+          String group,
+          String instance,
+          Class<? extends KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT>>
+              consumerStateType,
+          long timeout,
+          long maxBytes) {
+    KafkaConsumerState<?, ?, ?, ?> state = getConsumerInstance(group, instance);
+    if (!consumerStateType.isInstance(state)) {
+      throw Errors.consumerFormatMismatch();
+    }
+    return new ConsumerRecordStream<>(consumerStateType.cast(state), timeout, maxBytes);
+  }
+
+  /**
+   * Tops up the prefetch buffers of all the consumer instances not currently in use. Polling
+   * doesn't block, so one thread serves all of them.
+   */
+  private void prefetch() {
+    for (KafkaConsumerState state : consumers.values()) {
+      state.prefetch();
+    }
+  }
+
   private class ReadFutureTask<V> extends FutureTask<V> {
 
     private final RunnableReadTask readTask;
@@ -376,7 +490,6 @@ public class KafkaConsumerManager {
     private final KafkaRestConfig consumerConfig;
     private final long started;
     private final long requestExpiration;
-    private final int backoffMs;
     // Expiration if this task is waiting, considering both the expiration of the whole task and
     // a single backoff, if one is in progress
     private long waitExpirationMs;
@@ -387,7 +500,6 @@ public class KafkaConsumerManager {
       this.consumerConfig = taskState.consumerState.getConfig();
       this.requestExpiration = this.started
               + consumerConfig.getInt(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG);
-      this.backoffMs = consumerConfig.getInt(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG);
       this.waitExpirationMs = 0;
     }
 
@@ -424,7 +536,9 @@ public class KafkaConsumerManager {
         taskState.task.doPartialRead();
         taskState.consumerState.updateExpiration();
         if (!taskState.task.isDone()) {
-          delayFor(this.backoffMs);
+          // The partial read already waited in poll() for records to arrive, so there is no point
+          // in backing off. Re-queued rather than looping, to free the thread for other tasks.
+          delayFor(0);
         } else {
           log.trace("Finished executing consumer read task ({})", taskState.task);
         }
@@ -566,6 +680,7 @@ public class KafkaConsumerManager {
   public void deleteConsumer(String group, String instance) {
     log.debug("Destroying consumer " + instance + " in group " + group);
     final KafkaConsumerState state = getConsumerInstance(group, instance, true);
+    expirations.removeIf(entry -> entry.state == state);
     state.close();
   }
 
@@ -649,35 +764,50 @@ public class KafkaConsumerManager {
   public void shutdown() {
     log.debug("Shutting down consumers");
     executor.shutdown();
-    // Expiration thread needs to be able to acquire a lock on the KafkaConsumerManager to make sure
-    // the shutdown will be able to complete.
+    if (prefetchExecutor != null) {
+      prefetchExecutor.shutdownNow();
+    }
+    // Stop expiring consumers before closing them all here.
     log.trace("Shutting down consumer expiration thread");
     expirationThread.shutdown();
     readTaskSchedulerThread.shutdown();
-    synchronized (this) {
-      for (Map.Entry<ConsumerInstanceId, KafkaConsumerState> entry : consumers.entrySet()) {
-        entry.getValue().close();
+    for (ConsumerInstanceId id : consumers.keySet()) {
+      KafkaConsumerState state = consumers.remove(id);
+      if (state != null) {
+        state.close();
       }
-      consumers.clear();
-      executor.shutdown();
     }
+    expirations.clear();
+    sharedConsumerPool.close();
   }
 
   /**
    * Gets the specified consumer instance or throws a not found exception. Also removes the
    * consumer's expiration timeout so it is not cleaned up mid-operation.
    */
-  private synchronized KafkaConsumerState<?, ?, ?, ?> getConsumerInstance(
+  private KafkaConsumerState<?, ?, ?, ?> getConsumerInstance(
       String group,
       String instance,
       boolean toRemove
   ) {
     ConsumerInstanceId id = new ConsumerInstanceId(group, instance);
-    final KafkaConsumerState state = toRemove ? consumers.remove(id) : consumers.get(id);
+    final KafkaConsumerState state;
+    if (toRemove) {
+      state = consumers.remove(id);
+    } else {
+      // Refreshed atomically with the lookup, so the expiration thread can't remove the instance
+      // in between, see ExpirationThread.
+      state =
+          consumers.computeIfPresent(
+              id,
+              (key, current) -> {
+                current.updateExpiration();
+                return current;
+              });
+    }
     if (state == null) {
       throw Errors.consumerInstanceNotFoundException();
     }
-    state.updateExpiration();
     return state;
   }
 
@@ -746,6 +876,16 @@ public class KafkaConsumerManager {
     }
   }
 
+  static final class ExpirationEntry {
+    final KafkaConsumerState state;
+    final long expiration;
+
+    ExpirationEntry(KafkaConsumerState state) {
+      this.state = state;
+      this.expiration = state.expiration;
+    }
+  }
+
   private class ExpirationThread extends Thread {
 
     AtomicBoolean isRunning = new AtomicBoolean(true);
@@ -760,22 +900,39 @@ public class KafkaConsumerManager {
     public void run() {
       try {
         while (isRunning.get()) {
-          synchronized (KafkaConsumerManager.this) {
-            long now = time.milliseconds();
-            Iterator itr = consumers.values().iterator();
-            while (itr.hasNext()) {
-              final KafkaConsumerState state = (KafkaConsumerState) itr.next();
-              if (state != null && state.expired(now)) {
-                log.debug("Removing the expired consumer {}", state.getId());
-                itr.remove();
-                executor.submit(new Runnable() {
-                  @Override
-                  public void run() {
-                    state.close();
-                  }
-                });
+          long now = time.milliseconds();
+          ExpirationEntry entry;
+          while ((entry = expirations.peek()) != null && entry.expiration <= now) {
+            expirations.poll();
+            final KafkaConsumerState state = entry.state;
+            // Checked and removed atomically with lookups, which refresh the expiration, so an
+            // instance that was just looked up isn't closed under the request using it.
+            AtomicBoolean expired = new AtomicBoolean();
+            KafkaConsumerState current =
+                consumers.computeIfPresent(
+                    state.getId(),
+                    (id, present) -> {
+                      if (present == state && present.expired(now)) {
+                        expired.set(true);
+                        return null;
+                      }
+                      return present;
+                    });
+            if (!expired.get()) {
+              if (current == state) {
+                // Used since the entry was added, check again when it's next due.
+                expirations.add(new ExpirationEntry(state));
               }
+              // Otherwise deleted, or closed by an earlier entry.
+              continue;
             }
+            log.debug("Removing the expired consumer {}", state.getId());
+            executor.submit(new Runnable() {
+              @Override
+              public void run() {
+                state.close();
+              }
+            });
           }
 
           Thread.sleep(1000);
@@ -41,6 +41,8 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
 
   private KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> parent;
   private final long requestTimeoutMs;
+  // the maximum time to block in a single poll, so other operations on the consumer get to run
+  private final long pollTimeoutMs;
   // the minimum bytes the task should accumulate
   // before returning a response (or hitting the timeout)
   // responseMinBytes might be bigger than maxResponseBytes
@@ -73,6 +75,8 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
         parent.getConfig().getInt(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG);
     this.requestTimeoutMs =
             timeout <= 0 ? defaultRequestTimeout : Math.min(timeout, defaultRequestTimeout);
+    this.pollTimeoutMs =
+        parent.getConfig().getInt(KafkaRestConfig.CONSUMER_POLL_TIMEOUT_MS_CONFIG);
 
     int responseMinBytes = parent.getConfig().getInt(
             KafkaRestConfig.PROXY_FETCH_MIN_BYTES_CONFIG);
@@ -86,7 +90,9 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
   }
 
   /**
-   * Performs one iteration of reading from a consumer iterator.
+   * Performs one iteration of reading from a consumer iterator. If no records are available, this
+   * blocks in the consumer's poll for up to {@code consumer.poll.timeout.ms}, returning as soon as
+   * records arrive.
    */
   public void doPartialRead() {
     try {
@@ -137,7 +143,9 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
    *  the maximum response bytes will be reached, or no more records can be read from polling.
    */
   private void addRecords() {
-    while (!exceededMinResponseBytes && !exceededMaxResponseBytes && parent.hasNext()) {
+    while (!exceededMinResponseBytes
+        && !exceededMaxResponseBytes
+        && parent.hasNext(nextPollTimeoutMs())) {
       maybeAddRecord();
     }
     while (!exceededMaxResponseBytes && parent.hasNextCached()) {
@@ -146,6 +154,15 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
     }
   }
 
+  /**
+   * Returns how long the next poll may block: at most {@code pollTimeoutMs}, and never past the
+   * request timeout.
+   */
+  private long nextPollTimeoutMs() {
+    long remaining = started + requestTimeoutMs - parent.getConfig().getTime().milliseconds();
+    return Math.max(0, Math.min(pollTimeoutMs, remaining));
+  }
+
   /**
    * Tries to add the latest record from the iterator
    * to the read records if it doesn't go over the maximum response bytes.
@@ -153,8 +170,13 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
    * have exceeded the min response bytes
    */
   private void maybeAddRecord() {
+    // Converted only once, even if it doesn't fit and is left for the next read request.
     ConsumerRecordAndSize<ClientKeyT, ClientValueT> recordAndSize =
-            parent.createConsumerRecord(parent.peek());
+        parent.pollIfFits(maxResponseBytes - bytesConsumed);
+    if (recordAndSize == null) {
+      // The cached records were dropped since hasNext(), e.g. by a seek.
+      return;
+    }
     long roughMsgSize = recordAndSize.getSize();
     if (bytesConsumed + roughMsgSize >= maxResponseBytes) {
       this.exceededMaxResponseBytes = true;
@@ -162,7 +184,6 @@ class KafkaConsumerReadTask<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
     }
 
     messages.add(recordAndSize.getRecord());
-    parent.next(); // increment iterator
     bytesConsumed += roughMsgSize;
     if (!exceededMinResponseBytes && bytesConsumed > responseMinBytes) {
       this.exceededMinResponseBytes = true;
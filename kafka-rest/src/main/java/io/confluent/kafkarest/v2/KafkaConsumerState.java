@@ -30,18 +30,24 @@ import io.confluent.kafkarest.entities.v2.ConsumerSeekToRequest;
 import io.confluent.kafkarest.entities.v2.ConsumerSubscriptionRecord;
 import io.confluent.kafkarest.entities.TopicPartitionOffset;
 import io.confluent.kafkarest.entities.v2.TopicPartitionOffsetMetadata;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 import javax.ws.rs.InternalServerErrorException;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
@@ -50,6 +56,8 @@ import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
 import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Tracks all the state for a consumer. This class is abstract in order to support multiple
@@ -59,11 +67,26 @@ import org.apache.kafka.common.TopicPartition;
  */
 public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, ClientValueT> {
 
+  private static final Logger log = LoggerFactory.getLogger(KafkaConsumerState.class);
+
   private KafkaRestConfig config;
   private ConsumerInstanceId instanceId;
   private Consumer<KafkaKeyT, KafkaValueT> consumer;
 
-  private Queue<ConsumerRecord<KafkaKeyT, KafkaValueT>> consumerRecords = new ArrayDeque<>();
+  // Records polled but not yet read. Appended to while holding the lock, read by the read task.
+  private final Queue<ConsumerRecord<KafkaKeyT, KafkaValueT>> consumerRecords =
+      new ConcurrentLinkedQueue<>();
+  private final AtomicLong bufferedBytes = new AtomicLong();
+  // The head of consumerRecords and its conversion for the client, if a read request converted it
+  // but left it for the next one, e.g. because it didn't fit in the response. Guarded by the lock.
+  @Nullable
+  private ConsumerRecord<KafkaKeyT, KafkaValueT> convertedRecord;
+  @Nullable
+  private ConsumerRecordAndSize<ClientKeyT, ClientValueT> convertedRecordAndSize;
+  // Non-null if records are prefetched in the background, see prefetch().
+  @Nullable
+  private volatile ConsumerPrefetchBudget prefetchBudget;
+  private volatile long prefetchMaxBytes;
 
   volatile long expiration;
   private ReentrantLock lock;
@@ -78,13 +101,23 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     this.consumer = consumer;
     this.expiration = config.getTime().milliseconds()
                       + config.getInt(KafkaRestConfig.CONSUMER_INSTANCE_TIMEOUT_MS_CONFIG);
-    this.lock = new ReentrantLock();
+    // Fair, so that a read request polling in a loop doesn't starve the other operations.
+    this.lock = new ReentrantLock(/* fair= */ true);
   }
 
   public ConsumerInstanceId getId() {
     return instanceId;
   }
 
+  /**
+   * Enables {@link #prefetch()}, buffering up to {@code maxBytes} for this instance and accounting
+   * for them in the shared {@code budget}.
+   */
+  void enablePrefetch(long maxBytes, ConsumerPrefetchBudget budget) {
+    this.prefetchMaxBytes = maxBytes;
+    this.prefetchBudget = budget;
+  }
+
   /**
    * Converts a MessageAndMetadata using the Kafka decoder types into a ConsumerRecord using the
    * client's requested types. While doing so, computes the approximate size of the message in
@@ -105,7 +138,14 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     lock.lock();
     try {
       // If no offsets are given, then commit all the records read so far
-      if (offsetCommitRequest == null) {
+      if (offsetCommitRequest == null && !consumerRecords.isEmpty()) {
+        // The consumer's position is past the buffered records, which haven't been read yet.
+        if (async == null) {
+          consumer.commitSync(readOffsets());
+        } else {
+          consumer.commitAsync(readOffsets(), /* callback= */ null);
+        }
+      } else if (offsetCommitRequest == null) {
         if (async == null) {
           consumer.commitSync();
         } else {
@@ -152,6 +192,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
           topicPartitions.add(new TopicPartition(t.getTopic(), t.getPartition()));
         }
         consumer.seekToBeginning(topicPartitions);
+        dropBufferedRecords(topicPartitions::contains);
       }
     } finally {
       lock.unlock();
@@ -171,6 +212,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
           topicPartitions.add(new TopicPartition(t.getTopic(), t.getPartition()));
         }
         consumer.seekToEnd(topicPartitions);
+        dropBufferedRecords(topicPartitions::contains);
       }
     } finally {
       lock.unlock();
@@ -187,6 +229,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
         for (TopicPartitionOffsetMetadata t : seekToOffsetRequest.getOffsets()) {
           TopicPartition topicPartition = new TopicPartition(t.getTopic(), t.getPartition());
           consumer.seek(topicPartition, t.getOffset());
+          dropBufferedRecords(topicPartition::equals);
         }
 
       }
@@ -209,6 +252,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
           topicPartitions.add(new TopicPartition(t.getTopic(), t.getPartition()));
         }
         consumer.assign(topicPartitions);
+        dropBufferedRecords(partition -> !topicPartitions.contains(partition));
       }
     } finally {
       lock.unlock();
@@ -227,6 +271,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
       }
       // Marks this state entry as no longer valid because the consumer group is being destroyed.
       consumer = null;
+      dropBufferedRecords(partition -> true);
     } finally {
       lock.unlock();
     }
@@ -266,6 +311,7 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
       if (consumer != null) {
         consumer.unsubscribe();
       }
+      dropBufferedRecords(partition -> true);
     } finally {
       lock.unlock();
     }
@@ -433,42 +479,185 @@ public abstract class KafkaConsumerState<KafkaKeyT, KafkaValueT, ClientKeyT, Cli
     return consumerRecords.peek();
   }
 
-  boolean hasNext() {
+  /**
+   * Returns the next record converted for the client. The conversion is kept until the record is
+   * consumed with {@link #next()}, so that each record is only converted once, even if it's peeked
+   * at by several read requests.
+   */
+  ConsumerRecordAndSize<ClientKeyT, ClientValueT> peekConverted() {
     lock.lock();
     try {
-      if (hasNextCached()) {
-        return true;
+      ConsumerRecord<KafkaKeyT, KafkaValueT> record = consumerRecords.peek();
+      if (record != convertedRecord) {
+        convertedRecordAndSize = record != null ? createConsumerRecord(record) : null;
+        convertedRecord = record;
       }
-      // If none are available, try checking for any records already fetched by the consumer.
-      getOrCreateConsumerRecords();
+      return convertedRecordAndSize;
+    } finally {
+      lock.unlock();
+    }
+  }
 
-      return hasNextCached();
+  /**
+   * Returns the next record converted for the client, and consumes it if its size is less than
+   * {@code maxBytes}. Otherwise the record is left for the next read request. Returns null if no
+   * records are cached.
+   *
+   * <p>The record is peeked at and consumed under the lock, so a concurrent seek, assign or
+   * prefetch can't drop it in between and have a different record consumed instead.</p>
+   */
+  @Nullable
+  ConsumerRecordAndSize<ClientKeyT, ClientValueT> pollIfFits(long maxBytes) {
+    lock.lock();
+    try {
+      ConsumerRecordAndSize<ClientKeyT, ClientValueT> recordAndSize = peekConverted();
+      if (recordAndSize != null && recordAndSize.getSize() < maxBytes) {
+        next();
+      }
+      return recordAndSize;
     } finally {
       lock.unlock();
     }
   }
 
+  /**
+   * Returns whether there are records to read, polling the consumer for up to {@code timeoutMs} if
+   * none are cached. The poll returns as soon as records are available.
+   *
+   * <p>Neither waiting for the lock nor polling counts against the limit of concurrent consumer
+   * requests. The permit is given up before the lock is taken, and only taken back once the lock is
+   * released, so that the thread polling never waits for a permit held by a read request waiting
+   * for the lock. Must not be invoked with the lock held.</p>
+   */
+  boolean hasNext(long timeoutMs) {
+    return VirtualThreadExecutor.releasingPermit(() -> {
+      lock.lock();
+      try {
+        if (hasNextCached()) {
+          return true;
+        }
+        // If none are available, wait for the consumer to fetch some.
+        getOrCreateConsumerRecords(timeoutMs);
+
+        return hasNextCached();
+      } finally {
+        lock.unlock();
+      }
+    });
+  }
+
   boolean hasNextCached() {
     return !consumerRecords.isEmpty();
   }
 
   ConsumerRecord<KafkaKeyT, KafkaValueT> next() {
-    return consumerRecords.poll();
+    lock.lock();
+    try {
+      ConsumerRecord<KafkaKeyT, KafkaValueT> record = consumerRecords.poll();
+      convertedRecord = null;
+      convertedRecordAndSize = null;
+      if (record != null) {
+        releaseBuffered(sizeOf(record));
+      }
+      return record;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Polls the consumer without blocking and buffers the records for the next read request, unless
+   * prefetching isn't enabled, the buffers are full, or the consumer is in use.
+   */
+  void prefetch() {
+    ConsumerPrefetchBudget budget = prefetchBudget;
+    if (budget == null || !lock.tryLock()) {
+      return;
+    }
+    try {
+      if (consumer == null
+          || bufferedBytes.get() >= prefetchMaxBytes
+          || !budget.hasCapacity()
+          || (consumer.subscription().isEmpty() && consumer.assignment().isEmpty())) {
+        return;
+      }
+      getOrCreateConsumerRecords(/* timeoutMs= */ 0);
+    } catch (RuntimeException e) {
+      // The next read request will run into it again, and report it.
+      log.debug("Failed to prefetch records for consumer {}.", instanceId, e);
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
-   * Initiate poll(0) request to retrieve consumer records that are available immediately, or return
-   * the existing
-   * consumer records if the records have not been fully consumed by client yet. Must be
-   * invoked with the lock held, i.e. after startRead().
+   * Polls the consumer for up to {@code timeoutMs} to retrieve consumer records, returning as soon
+   * as any are available. Must be invoked with the lock held.
    */
-  private void getOrCreateConsumerRecords() {
-    consumerRecords = new ArrayDeque<>();
-    ConsumerRecords<KafkaKeyT, KafkaValueT> polledRecords = consumer.poll(0);
+  private void getOrCreateConsumerRecords(long timeoutMs) {
+    ConsumerRecords<KafkaKeyT, KafkaValueT> polledRecords =
+        consumer.poll(Duration.ofMillis(timeoutMs));
     //drain the iterator and buffer to list
+    long size = 0;
     for (ConsumerRecord<KafkaKeyT, KafkaValueT> consumerRecord : polledRecords) {
       consumerRecords.add(consumerRecord);
+      size += sizeOf(consumerRecord);
     }
+    bufferedBytes.addAndGet(size);
+    ConsumerPrefetchBudget budget = prefetchBudget;
+    if (budget != null) {
+      budget.acquire(size);
+    }
+    // Partitions may have been revoked by a rebalance since their records were buffered.
+    Set<TopicPartition> assignment = consumer.assignment();
+    dropBufferedRecords(partition -> !assignment.contains(partition));
+  }
+
+  /**
+   * Returns, for every assigned partition, the offset of the next record to be read: either the
+   * first buffered record or the consumer's position. Must be invoked with the lock held.
+   */
+  private Map<TopicPartition, OffsetAndMetadata> readOffsets() {
+    Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    // Records of a partition are buffered in order, so the first one has the lowest offset.
+    for (ConsumerRecord<KafkaKeyT, KafkaValueT> record : consumerRecords) {
+      offsets.putIfAbsent(
+          new TopicPartition(record.topic(), record.partition()),
+          new OffsetAndMetadata(record.offset()));
+    }
+    for (TopicPartition partition : consumer.assignment()) {
+      if (!offsets.containsKey(partition)) {
+        offsets.put(partition, new OffsetAndMetadata(consumer.position(partition)));
+      }
+    }
+    return offsets;
+  }
+
+  /**
+   * Drops the buffered records of the matching partitions, e.g. because their position changed.
+   * Must be invoked with the lock held.
+   */
+  private void dropBufferedRecords(Predicate<TopicPartition> partitions) {
+    Iterator<ConsumerRecord<KafkaKeyT, KafkaValueT>> records = consumerRecords.iterator();
+    while (records.hasNext()) {
+      ConsumerRecord<KafkaKeyT, KafkaValueT> record = records.next();
+      if (partitions.test(new TopicPartition(record.topic(), record.partition()))) {
+        records.remove();
+        releaseBuffered(sizeOf(record));
+      }
+    }
+  }
+
+  private void releaseBuffered(long size) {
+    bufferedBytes.addAndGet(-size);
+    ConsumerPrefetchBudget budget = prefetchBudget;
+    if (budget != null) {
+      budget.release(size);
+    }
+  }
+
+  private static long sizeOf(ConsumerRecord<?, ?> record) {
+    return Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
   }
 
   private class NoOpOnRebalance implements ConsumerRebalanceListener {
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * The consumer of a single consumer instance whose records are fetched by a {@link
+ * SharedConsumer}. It only supports manual partition assignment, and sees the partitions assigned
+ * to it and their records only.
+ *
+ * <p>Group subscription, pausing and waking up would affect all the instances sharing the
+ * consumer, so they are not supported.
+ */
+final class MultiplexedConsumer<K, V> implements Consumer<K, V> {
+
+  private final SharedConsumer<K, V> shared;
+  private final Runnable onClose;
+
+  MultiplexedConsumer(SharedConsumer<K, V> shared, Runnable onClose) {
+    this.shared = shared;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public Set<TopicPartition> assignment() {
+    return shared.assignment(this);
+  }
+
+  @Override
+  public Set<String> subscription() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void subscribe(Collection<String> topics) {
+    throw subscriptionNotSupported();
+  }
+
+  @Override
+  public void subscribe(Collection<String> topics, ConsumerRebalanceListener callback) {
+    throw subscriptionNotSupported();
+  }
+
+  @Override
+  public void assign(Collection<TopicPartition> partitions) {
+    shared.assign(this, partitions);
+  }
+
+  @Override
+  public void subscribe(Pattern pattern, ConsumerRebalanceListener callback) {
+    throw subscriptionNotSupported();
+  }
+
+  @Override
+  public void subscribe(Pattern pattern) {
+    throw subscriptionNotSupported();
+  }
+
+  @Override
+  public void unsubscribe() {
+    shared.assign(this, Collections.emptySet());
+  }
+
+  @Override
+  @Deprecated
+  public ConsumerRecords<K, V> poll(long timeout) {
+    return poll(Duration.ofMillis(timeout));
+  }
+
+  @Override
+  public ConsumerRecords<K, V> poll(Duration timeout) {
+    return shared.poll(this, timeout);
+  }
+
+  @Override
+  public void commitSync() {
+    shared.commitSync(shared.positions(this));
+  }
+
+  @Override
+  public void commitSync(Duration timeout) {
+    commitSync();
+  }
+
+  @Override
+  public void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+    shared.commitSync(offsets);
+  }
+
+  @Override
+  public void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets, Duration timeout) {
+    commitSync(offsets);
+  }
+
+  @Override
+  public void commitAsync() {
+    commitAsync(/* callback= */ null);
+  }
+
+  @Override
+  public void commitAsync(OffsetCommitCallback callback) {
+    shared.commitAsync(shared.positions(this), callback);
+  }
+
+  @Override
+  public void commitAsync(
+      Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+    shared.commitAsync(offsets, callback);
+  }
+
+  @Override
+  public void seek(TopicPartition partition, long offset) {
+    shared.seek(this, partition, offset);
+  }
+
+  @Override
+  public void seek(TopicPartition partition, OffsetAndMetadata offsetAndMetadata) {
+    seek(partition, offsetAndMetadata.offset());
+  }
+
+  @Override
+  public void seekToBeginning(Collection<TopicPartition> partitions) {
+    shared.seekToBeginning(this, partitions);
+  }
+
+  @Override
+  public void seekToEnd(Collection<TopicPartition> partitions) {
+    shared.seekToEnd(this, partitions);
+  }
+
+  @Override
+  public long position(TopicPartition partition) {
+    return shared.position(this, partition);
+  }
+
+  @Override
+  public long position(TopicPartition partition, Duration timeout) {
+    return position(partition);
+  }
+
+  @Override
+  @Deprecated
+  public OffsetAndMetadata committed(TopicPartition partition) {
+    return shared.apply(consumer -> consumer.committed(partition));
+  }
+
+  @Override
+  @Deprecated
+  public OffsetAndMetadata committed(TopicPartition partition, Duration timeout) {
+    return shared.apply(consumer -> consumer.committed(partition, timeout));
+  }
+
+  @Override
+  public Map<TopicPartition, OffsetAndMetadata> committed(Set<TopicPartition> partitions) {
+    return shared.apply(consumer -> consumer.committed(partitions));
+  }
+
+  @Override
+  public Map<TopicPartition, OffsetAndMetadata> committed(
+      Set<TopicPartition> partitions, Duration timeout) {
+    return shared.apply(consumer -> consumer.committed(partitions, timeout));
+  }
+
+  @Override
+  public Map<MetricName, ? extends Metric> metrics() {
+    return shared.apply(Consumer::metrics);
+  }
+
+  @Override
+  public List<PartitionInfo> partitionsFor(String topic) {
+    return shared.apply(consumer -> consumer.partitionsFor(topic));
+  }
+
+  @Override
+  public List<PartitionInfo> partitionsFor(String topic, Duration timeout) {
+    return shared.apply(consumer -> consumer.partitionsFor(topic, timeout));
+  }
+
+  @Override
+  public Map<String, List<PartitionInfo>> listTopics() {
+    return shared.apply(Consumer::listTopics);
+  }
+
+  @Override
+  public Map<String, List<PartitionInfo>> listTopics(Duration timeout) {
+    return shared.apply(consumer -> consumer.listTopics(timeout));
+  }
+
+  @Override
+  public Set<TopicPartition> paused() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void pause(Collection<TopicPartition> partitions) {
+    throw new UnsupportedOperationException(
+        "Pausing is not supported by consumer instances sharing a consumer.");
+  }
+
+  @Override
+  public void resume(Collection<TopicPartition> partitions) {
+    throw new UnsupportedOperationException(
+        "Resuming is not supported by consumer instances sharing a consumer.");
+  }
+
+  @Override
+  public Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes(
+      Map<TopicPartition, Long> timestampsToSearch) {
+    return shared.apply(consumer -> consumer.offsetsForTimes(timestampsToSearch));
+  }
+
+  @Override
+  public Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes(
+      Map<TopicPartition, Long> timestampsToSearch, Duration timeout) {
+    return shared.apply(consumer -> consumer.offsetsForTimes(timestampsToSearch, timeout));
+  }
+
+  @Override
+  public Map<TopicPartition, Long> beginningOffsets(Collection<TopicPartition> partitions) {
+    return shared.apply(consumer -> consumer.beginningOffsets(partitions));
+  }
+
+  @Override
+  public Map<TopicPartition, Long> beginningOffsets(
+      Collection<TopicPartition> partitions, Duration timeout) {
+    return shared.apply(consumer -> consumer.beginningOffsets(partitions, timeout));
+  }
+
+  @Override
+  public Map<TopicPartition, Long> endOffsets(Collection<TopicPartition> partitions) {
+    return shared.apply(consumer -> consumer.endOffsets(partitions));
+  }
+
+  @Override
+  public Map<TopicPartition, Long> endOffsets(
+      Collection<TopicPartition> partitions, Duration timeout) {
+    return shared.apply(consumer -> consumer.endOffsets(partitions, timeout));
+  }
+
+  @Override
+  public ConsumerGroupMetadata groupMetadata() {
+    return shared.apply(Consumer::groupMetadata);
+  }
+
+  @Override
+  public void enforceRebalance() {
+    throw subscriptionNotSupported();
+  }
+
+  @Override
+  public void close() {
+    if (shared.close(this)) {
+      onClose.run();
+    }
+  }
+
+  @Override
+  @Deprecated
+  public void close(long timeout, TimeUnit unit) {
+    close();
+  }
+
+  @Override
+  public void close(Duration timeout) {
+    close();
+  }
+
+  @Override
+  public void wakeup() {
+    throw new UnsupportedOperationException(
+        "Waking up is not supported by consumer instances sharing a consumer.");
+  }
+
+  private static IllegalStateException subscriptionNotSupported() {
+    // Mapped to a conflict, same as subscribing a consumer instance that has assigned partitions.
+    return new IllegalStateException(
+        "Consumer instances sharing a consumer only support manual partition assignment.");
+  }
+}
@@ -43,8 +43,9 @@ public final class SchemaKafkaConsumerState
   @Override
   public ConsumerRecordAndSize<JsonNode, JsonNode> createConsumerRecord(
       ConsumerRecord<Object, Object> record) {
-    SchemaConverter.JsonNodeAndSize keyNode = schemaConverter.toJson(record.key());
-    SchemaConverter.JsonNodeAndSize valueNode = schemaConverter.toJson(record.value());
+    // The JSON is only ever written out, so it doesn't need to be parsed into a tree.
+    SchemaConverter.JsonNodeAndSize keyNode = schemaConverter.toRawJson(record.key());
+    SchemaConverter.JsonNodeAndSize valueNode = schemaConverter.toRawJson(record.value());
     return new ConsumerRecordAndSize<>(
         io.confluent.kafkarest.entities.ConsumerRecord.create(
             record.topic(),
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.concurrent.GuardedBy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+
+/**
+ * A consumer shared by several consumer instances that only use manual partition assignment, each
+ * through its own {@link MultiplexedConsumer}. A partition can be assigned to one of them at a
+ * time, and the records polled by any of them are handed to the one the partition is assigned to.
+ *
+ * <p>Records polled for another instance are kept for it, and its partitions are paused until it
+ * reads them, so an instance that doesn't read doesn't make the others buffer more than a poll's
+ * worth of records for it.
+ *
+ * <p>A single instance polls the consumer at a time, without holding the monitor, and the others
+ * wait for it to hand them their records. The consumer isn't thread safe, so the other operations
+ * wait for the poll to end, which is why long polls are split into short ones.
+ */
+final class SharedConsumer<K, V> {
+
+  // The longest a poll may keep the other operations on the consumer, e.g. seeks and commits,
+  // waiting. Longer polls are made of several polls.
+  private static final Duration MAX_POLL_TIMEOUT = Duration.ofMillis(100);
+
+  private final Consumer<K, V> consumer;
+
+  @GuardedBy("this")
+  private final Map<TopicPartition, MultiplexedConsumer<K, V>> owners = new HashMap<>();
+  @GuardedBy("this")
+  private final Map<MultiplexedConsumer<K, V>, Map<TopicPartition, List<ConsumerRecord<K, V>>>>
+      buffers = new HashMap<>();
+
+  // Whether an instance is polling the consumer, outside of the monitor.
+  @GuardedBy("this")
+  private boolean polling = false;
+  // The operations waiting for the poll to end. No poll starts while any are waiting.
+  @GuardedBy("this")
+  private int waitingOperations = 0;
+  // Partitions whose records were read during a poll, to resume before the next one.
+  @GuardedBy("this")
+  private final Set<TopicPartition> partitionsToResume = new HashSet<>();
+
+  SharedConsumer(Consumer<K, V> consumer) {
+    this.consumer = consumer;
+  }
+
+  /**
+   * Runs an operation on the shared consumer that doesn't involve the views, e.g. looking up
+   * offsets.
+   */
+  synchronized <T> T apply(Function<Consumer<K, V>, T> operation) {
+    awaitPoll();
+    return operation.apply(consumer);
+  }
+
+  synchronized MultiplexedConsumer<K, V> newView(Runnable onClose) {
+    MultiplexedConsumer<K, V> view = new MultiplexedConsumer<>(this, onClose);
+    buffers.put(view, new HashMap<>());
+    return view;
+  }
+
+  synchronized int getViewCount() {
+    return buffers.size();
+  }
+
+  synchronized void assign(MultiplexedConsumer<K, V> view, Collection<TopicPartition> partitions) {
+    awaitPoll();
+    for (TopicPartition partition : partitions) {
+      MultiplexedConsumer<K, V> owner = owners.get(partition);
+      if (owner != null && owner != view) {
+        throw new IllegalStateException(
+            String.format(
+                "Partition %s is already assigned to another consumer instance sharing the same "
+                    + "consumer.",
+                partition));
+      }
+    }
+    Set<TopicPartition> dropped = new HashSet<>(getBuffer(view).keySet());
+    dropped.removeAll(partitions);
+    // Resumed while still assigned, for whichever instance they get assigned to next.
+    dropBuffered(view, dropped);
+    owners.values().removeIf(view::equals);
+    for (TopicPartition partition : partitions) {
+      owners.put(partition, view);
+    }
+    consumer.assign(new HashSet<>(owners.keySet()));
+  }
+
+  synchronized Set<TopicPartition> assignment(MultiplexedConsumer<K, V> view) {
+    Set<TopicPartition> assignment = new HashSet<>();
+    for (Map.Entry<TopicPartition, MultiplexedConsumer<K, V>> owner : owners.entrySet()) {
+      if (owner.getValue() == view) {
+        assignment.add(owner.getKey());
+      }
+    }
+    return assignment;
+  }
+
+  /**
+   * Returns the records kept for the view, if any. Otherwise waits up to {@code timeout} for
+   * records, either polling for them, and keeping the records of the other views for them, or
+   * waiting for the view already polling to hand them over.
+   */
+  ConsumerRecords<K, V> poll(MultiplexedConsumer<K, V> view, Duration timeout) {
+    long deadlineNanos = System.nanoTime() + timeout.toNanos();
+    boolean polled = false;
+    while (true) {
+      Duration pollTimeout;
+      synchronized (this) {
+        Map<TopicPartition, List<ConsumerRecord<K, V>>> buffer = getBuffer(view);
+        if (!buffer.isEmpty()) {
+          return takeRecords(buffer);
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        boolean busy = polling || waitingOperations > 0;
+        if (remainingNanos <= 0 && (busy || polled)) {
+          return ConsumerRecords.empty();
+        }
+        if (busy) {
+          waitNanos(remainingNanos);
+          continue;
+        }
+        polling = true;
+        partitionsToResume.retainAll(owners.keySet());
+        consumer.resume(partitionsToResume);
+        partitionsToResume.clear();
+        pollTimeout =
+            Duration.ofNanos(Math.max(0, Math.min(remainingNanos, MAX_POLL_TIMEOUT.toNanos())));
+      }
+
+      ConsumerRecords<K, V> records = ConsumerRecords.empty();
+      try {
+        records = consumer.poll(pollTimeout);
+      } finally {
+        synchronized (this) {
+          polling = false;
+          keepRecords(view, records);
+          notifyAll();
+        }
+      }
+      polled = true;
+    }
+  }
+
+  synchronized void seek(MultiplexedConsumer<K, V> view, TopicPartition partition, long offset) {
+    awaitPoll();
+    checkAssigned(view, Collections.singleton(partition));
+    consumer.seek(partition, offset);
+    dropBuffered(view, Collections.singleton(partition));
+  }
+
+  synchronized void seekToBeginning(
+      MultiplexedConsumer<K, V> view, Collection<TopicPartition> partitions) {
+    awaitPoll();
+    checkAssigned(view, partitions);
+    consumer.seekToBeginning(partitions);
+    dropBuffered(view, partitions);
+  }
+
+  synchronized void seekToEnd(
+      MultiplexedConsumer<K, V> view, Collection<TopicPartition> partitions) {
+    awaitPoll();
+    checkAssigned(view, partitions);
+    consumer.seekToEnd(partitions);
+    dropBuffered(view, partitions);
+  }
+
+  /**
+   * The offset of the next record the view will return for the partition, which is behind the
+   * shared consumer's position if records are kept for it.
+   */
+  synchronized long position(MultiplexedConsumer<K, V> view, TopicPartition partition) {
+    awaitPoll();
+    checkAssigned(view, Collections.singleton(partition));
+    List<ConsumerRecord<K, V>> buffered = getBuffer(view).get(partition);
+    if (buffered != null && !buffered.isEmpty()) {
+      return buffered.get(0).offset();
+    }
+    return consumer.position(partition);
+  }
+
+  /**
+   * The positions of the partitions assigned to the view, which is what committing without
+   * explicit offsets commits. Committing the shared consumer's positions would commit those of
+   * the other views too.
+   */
+  synchronized Map<TopicPartition, OffsetAndMetadata> positions(MultiplexedConsumer<K, V> view) {
+    Map<TopicPartition, OffsetAndMetadata> positions = new HashMap<>();
+    for (TopicPartition partition : assignment(view)) {
+      positions.put(partition, new OffsetAndMetadata(position(view, partition)));
+    }
+    return positions;
+  }
+
+  synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+    awaitPoll();
+    consumer.commitSync(offsets);
+  }
+
+  synchronized void commitAsync(
+      Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+    awaitPoll();
+    consumer.commitAsync(offsets, callback);
+  }
+
+  /**
+   * Unassigns the view's partitions and forgets about it. Returns false if it was already closed.
+   */
+  synchronized boolean close(MultiplexedConsumer<K, V> view) {
+    awaitPoll();
+    if (buffers.remove(view) == null) {
+      return false;
+    }
+    owners.values().removeIf(view::equals);
+    consumer.assign(new HashSet<>(owners.keySet()));
+    return true;
+  }
+
+  /**
+   * Closes the shared consumer, once no view is left.
+   */
+  synchronized void closeConsumer() {
+    awaitPoll();
+    consumer.close();
+  }
+
+  /**
+   * Waits for the view polling the consumer, if any, to be done with it. Must be invoked with the
+   * monitor held, before using the consumer.
+   */
+  @GuardedBy("this")
+  private void awaitPoll() {
+    if (!polling) {
+      return;
+    }
+    waitingOperations++;
+    try {
+      while (polling) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // Same as KafkaConsumer does when interrupted.
+      throw new InterruptException(e);
+    } finally {
+      waitingOperations--;
+      // The views waiting to poll check again once the monitor is released.
+      notifyAll();
+    }
+  }
+
+  @GuardedBy("this")
+  private void waitNanos(long nanos) {
+    try {
+      TimeUnit.NANOSECONDS.timedWait(this, nanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptException(e);
+    }
+  }
+
+  @GuardedBy("this")
+  private Map<TopicPartition, List<ConsumerRecord<K, V>>> getBuffer(
+      MultiplexedConsumer<K, V> view) {
+    Map<TopicPartition, List<ConsumerRecord<K, V>>> buffer = buffers.get(view);
+    if (buffer == null) {
+      // Same as KafkaConsumer does once closed.
+      throw new IllegalStateException("This consumer has already been closed.");
+    }
+    return buffer;
+  }
+
+  /**
+   * Hands the records polled by {@code poller} to the views their partitions are assigned to,
+   * pausing the partitions of the other views until they read them.
+   */
+  @GuardedBy("this")
+  private void keepRecords(MultiplexedConsumer<K, V> poller, ConsumerRecords<K, V> records) {
+    for (TopicPartition partition : records.partitions()) {
+      MultiplexedConsumer<K, V> owner = owners.get(partition);
+      if (owner == null) {
+        continue;
+      }
+      buffers.get(owner)
+          .computeIfAbsent(partition, unused -> new ArrayList<>())
+          .addAll(records.records(partition));
+      if (owner != poller) {
+        consumer.pause(Collections.singleton(partition));
+      }
+    }
+  }
+
+  @GuardedBy("this")
+  private ConsumerRecords<K, V> takeRecords(
+      Map<TopicPartition, List<ConsumerRecord<K, V>>> buffer) {
+    ConsumerRecords<K, V> records = new ConsumerRecords<>(new HashMap<>(buffer));
+    resume(buffer.keySet());
+    buffer.clear();
+    return records;
+  }
+
+  /**
+   * Drops the records kept for the view of the given partitions, e.g. because their position
+   * changed, and resumes them, since they were paused for those records.
+   */
+  @GuardedBy("this")
+  private void dropBuffered(
+      MultiplexedConsumer<K, V> view, Collection<TopicPartition> partitions) {
+    Map<TopicPartition, List<ConsumerRecord<K, V>>> buffer = getBuffer(view);
+    Set<TopicPartition> dropped = new HashSet<>(buffer.keySet());
+    dropped.retainAll(partitions);
+    buffer.keySet().removeAll(dropped);
+    resume(dropped);
+  }
+
+  @GuardedBy("this")
+  private void resume(Collection<TopicPartition> partitions) {
+    if (partitions.isEmpty()) {
+      return;
+    }
+    if (polling) {
+      // The consumer is in use, so they are resumed before the next poll.
+      partitionsToResume.addAll(partitions);
+    } else {
+      consumer.resume(partitions);
+    }
+  }
+
+  private void checkAssigned(
+      MultiplexedConsumer<K, V> view, Collection<TopicPartition> partitions) {
+    for (TopicPartition partition : partitions) {
+      if (owners.get(partition) != view) {
+        // Same as KafkaConsumer does for a partition not assigned to it.
+        throw new IllegalStateException("No current assignment for partition " + partition);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import org.apache.kafka.clients.consumer.Consumer;
+
+/**
+ * The consumers shared by consumer instances created with the same consumer configs, at most
+ * {@code poolSize} of them per configs. Instances are spread over the shared consumers, and a
+ * shared consumer is closed once the last instance using it is closed.
+ */
+final class SharedConsumerPool {
+
+  private final int poolSize;
+
+  @GuardedBy("this")
+  private final Map<Properties, List<SharedConsumer<?, ?>>> pool = new HashMap<>();
+
+  SharedConsumerPool(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * Returns a consumer for a new consumer instance, sharing one of the consumers created with
+   * {@code props}, or a new one created by {@code factory} if there's room for it.
+   */
+  @SuppressWarnings("unchecked")
+  synchronized <K, V> Consumer<K, V> acquire(
+      Properties props, Supplier<Consumer<K, V>> factory) {
+    List<SharedConsumer<?, ?>> shared = pool.computeIfAbsent(props, key -> new ArrayList<>());
+    SharedConsumer<K, V> consumer;
+    if (shared.size() < poolSize) {
+      consumer = new SharedConsumer<>(factory.get());
+      shared.add(consumer);
+    } else {
+      consumer =
+          (SharedConsumer<K, V>)
+              shared.stream().min(Comparator.comparingInt(SharedConsumer::getViewCount)).get();
+    }
+    SharedConsumer<K, V> acquired = consumer;
+    return consumer.newView(() -> release(props, acquired));
+  }
+
+  private synchronized void release(Properties props, SharedConsumer<?, ?> consumer) {
+    if (consumer.getViewCount() > 0) {
+      return;
+    }
+    List<SharedConsumer<?, ?>> shared = pool.get(props);
+    if (shared == null || !shared.remove(consumer)) {
+      return;
+    }
+    if (shared.isEmpty()) {
+      pool.remove(props);
+    }
+    consumer.closeConsumer();
+  }
+
+  /**
+   * Closes all the shared consumers.
+   */
+  synchronized void close() {
+    for (List<SharedConsumer<?, ?>> shared : pool.values()) {
+      for (SharedConsumer<?, ?> consumer : shared) {
+        consumer.closeConsumer();
+      }
+    }
+    pool.clear();
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs each task on its own virtual thread, with at most a given number of the limited ones
+ * running at once. Limited tasks over the limit park their virtual thread until a running one
+ * finishes, which costs next to nothing, instead of being rejected. Tasks that aren't limited, e.g.
+ * commits and closes, run right away.
+ *
+ * <p>A limited task doesn't count against the limit while it waits in {@link
+ * #releasingPermit(Supplier)}, e.g. a read request waiting for its consumer or in poll for records
+ * to arrive, so that the limit bounds the tasks actually using the CPU.
+ *
+ * <p>Virtual threads are looked up reflectively, so this compiles and runs on JDKs without them,
+ * where {@link #create(int, Predicate)} returns empty.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+  // The permits held by the limited task running on the current thread, if any.
+  private static final ThreadLocal<Semaphore> heldPermits = new ThreadLocal<>();
+
+  private final ExecutorService delegate;
+  // Null if unbounded.
+  private final Semaphore permits;
+  private final Predicate<Runnable> limited;
+
+  private VirtualThreadExecutor(
+      ExecutorService delegate, int maxConcurrency, Predicate<Runnable> limited) {
+    this.delegate = delegate;
+    this.permits = maxConcurrency < 0 ? null : new Semaphore(maxConcurrency, /* fair= */ true);
+    this.limited = limited;
+  }
+
+  /**
+   * Returns an executor running at most {@code maxConcurrency} of the tasks matching {@code
+   * limited} at once, or any number of them if negative. Empty if the JDK doesn't support virtual
+   * threads.
+   */
+  static Optional<ExecutorService> create(int maxConcurrency, Predicate<Runnable> limited) {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return Optional.of(
+          new VirtualThreadExecutor(
+              (ExecutorService) factory.invoke(null), maxConcurrency, limited));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.debug("Virtual threads are not available", e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Runs {@code blocking} without counting the current task against the limit of its executor, if
+   * it is a limited task, waiting for its turn again afterwards.
+   *
+   * <p>Must not be invoked while holding a lock other limited tasks may wait for: they'd keep
+   * their permits while waiting, and this would wait for one of them to get its turn back.</p>
+   */
+  static <T> T releasingPermit(Supplier<T> blocking) {
+    Semaphore held = heldPermits.get();
+    if (held == null) {
+      return blocking.get();
+    }
+    heldPermits.remove();
+    held.release();
+    try {
+      return blocking.get();
+    } finally {
+      held.acquireUninterruptibly();
+      heldPermits.set(held);
+    }
+  }
+
+  @Override
+  protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+    return limited.test(runnable)
+        ? new LimitedFutureTask<>(runnable, value)
+        : super.newTaskFor(runnable, value);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    boolean limitedCommand = command instanceof LimitedFutureTask || limited.test(command);
+    try {
+      delegate.execute(limitedCommand ? () -> runWithPermit(command) : command);
+    } catch (RejectedExecutionException e) {
+      // Same as the thread pool, which drops the tasks submitted after shutdown.
+      log.debug("The runnable {} was rejected execution, the executor is shutting down", command);
+    }
+  }
+
+  private void runWithPermit(Runnable command) {
+    if (permits == null) {
+      command.run();
+      return;
+    }
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      // Interrupted by shutdownNow, don't run the task.
+      Thread.currentThread().interrupt();
+      return;
+    }
+    heldPermits.set(permits);
+    try {
+      command.run();
+    } finally {
+      heldPermits.remove();
+      permits.release();
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  private static final class LimitedFutureTask<T> extends FutureTask<T> {
+
+    LimitedFutureTask(Runnable runnable, T value) {
+      super(runnable, value);
+    }
+  }
+}
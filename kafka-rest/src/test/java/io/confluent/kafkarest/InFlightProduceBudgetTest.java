@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.ProduceRecord;
+import java.util.Arrays;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Test;
+
+public class InFlightProduceBudgetTest {
+
+  private final Metrics metrics = new Metrics();
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void tryAcquire_overBytes_rejectsUntilReleased() {
+    InFlightProduceBudget budget =
+        new InFlightProduceBudget(
+            EmbeddedFormat.BINARY, /* maxBytes= */ 100, /* maxRecords= */ 0, metrics);
+
+    assertTrue(budget.tryAcquire(1, 60));
+    assertFalse(budget.tryAcquire(1, 60));
+    assertEquals(60, budget.getInFlightBytes());
+
+    budget.release(1, 60);
+    assertTrue(budget.tryAcquire(1, 60));
+  }
+
+  @Test
+  public void tryAcquire_overRecords_rejects() {
+    InFlightProduceBudget budget =
+        new InFlightProduceBudget(
+            EmbeddedFormat.JSON, /* maxBytes= */ 0, /* maxRecords= */ 10, metrics);
+
+    assertTrue(budget.tryAcquire(8, 1000));
+    assertFalse(budget.tryAcquire(3, 0));
+    assertTrue(budget.tryAcquire(2, 1000));
+    assertEquals(10, budget.getInFlightRecords());
+  }
+
+  @Test
+  public void tryAcquire_nothingInFlight_acceptsOversizedRequest() {
+    InFlightProduceBudget budget =
+        new InFlightProduceBudget(
+            EmbeddedFormat.AVRO, /* maxBytes= */ 100, /* maxRecords= */ 1, metrics);
+
+    assertTrue(budget.tryAcquire(5, 1000));
+    assertFalse(budget.tryAcquire(1, 1));
+  }
+
+  @Test
+  public void estimateRecordsSize_countsKeysAndValues() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+
+    assertEquals(
+        7,
+        InFlightProduceBudget.estimateRecordsSize(
+            Arrays.asList(
+                ProduceRecord.create(new byte[3], new byte[4], null),
+                ProduceRecord.<byte[], byte[]>create(null, null, null))));
+    assertEquals(
+        // "name" + "bob" + "age" + 8
+        18,
+        InFlightProduceBudget.estimateRecordsSize(
+            Arrays.asList(
+                ProduceRecord.create(
+                    null, mapper.readTree("{\"name\": \"bob\", \"age\": 7}"), null))));
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.metrics.Metrics;
+import org.easymock.EasyMockRule;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AdminRequestCoalescerTest {
+
+  private static final List<String> DESCRIBE_TOPIC_1 = Arrays.asList("describeTopics", "topic-1");
+  private static final List<String> DESCRIBE_TOPIC_2 = Arrays.asList("describeTopics", "topic-2");
+
+  @Rule
+  public final EasyMockRule mocks = new EasyMockRule(this);
+
+  @Mock
+  private Admin adminClient1;
+
+  @Mock
+  private Admin adminClient2;
+
+  private int callCount;
+
+  private Metrics metrics;
+  private AdminRequestCoalescer coalescer;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    coalescer = new AdminRequestCoalescer(metrics);
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void coalesce_identicalRequestsInFlight_shareCall() throws Exception {
+    CompletableFuture<String> call = new CompletableFuture<>();
+
+    CompletableFuture<String> first =
+        coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    CompletableFuture<String> second =
+        coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    call.complete("topic-1");
+
+    assertEquals("topic-1", first.get());
+    assertEquals("topic-1", second.get());
+    assertEquals(1, callCount);
+    assertEquals(2.0, getMetric("requests-total"), 0.0);
+    assertEquals(1.0, getMetric("deduplicated-total"), 0.0);
+    assertEquals(0.5, getMetric("dedupe-ratio"), 0.0);
+  }
+
+  @Test
+  public void coalesce_differentRequestsOrClients_callEach() {
+    CompletableFuture<String> call = new CompletableFuture<>();
+
+    coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_2, () -> count(call));
+    coalescer.coalesce(adminClient2, DESCRIBE_TOPIC_1, () -> count(call));
+
+    assertEquals(3, callCount);
+    assertEquals(0.0, getMetric("dedupe-ratio"), 0.0);
+  }
+
+  @Test
+  public void coalesce_afterCompletion_callsAgain() throws Exception {
+    CompletableFuture<String> first = CompletableFuture.completedFuture("first");
+    CompletableFuture<String> second = CompletableFuture.completedFuture("second");
+
+    coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(first)).get();
+    String result = coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(second)).get();
+
+    assertEquals("second", result);
+    assertEquals(2, callCount);
+  }
+
+  @Test
+  public void coalesce_failedCall_failsAllCallers() throws Exception {
+    CompletableFuture<String> call = new CompletableFuture<>();
+
+    CompletableFuture<String> first =
+        coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    CompletableFuture<String> second =
+        coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    call.completeExceptionally(new TimeoutException());
+
+    for (CompletableFuture<String> result : Arrays.asList(first, second)) {
+      try {
+        result.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof TimeoutException);
+      }
+    }
+  }
+
+  @Test
+  public void coalesce_callerCompletesResult_doesNotCompleteOtherCallers() {
+    CompletableFuture<String> call = new CompletableFuture<>();
+
+    CompletableFuture<String> first =
+        coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    CompletableFuture<String> second =
+        coalescer.coalesce(adminClient1, DESCRIBE_TOPIC_1, () -> count(call));
+    first.cancel(/* mayInterruptIfRunning= */ false);
+
+    assertFalse(second.isDone());
+  }
+
+  private <T> CompletableFuture<T> count(CompletableFuture<T> call) {
+    callCount++;
+    return call;
+  }
+
+  private double getMetric(String name) {
+    return ((Number) metrics.metrics().entrySet().stream()
+        .filter(metric -> metric.getKey().name().equals(name))
+        .findAny()
+        .get()
+        .getValue()
+        .metricValue())
+        .doubleValue();
+  }
+}
@@ -48,6 +48,7 @@ import org.apache.kafka.clients.admin.DescribeConfigsOptions;
 import org.apache.kafka.clients.admin.DescribeConfigsResult;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -140,7 +141,9 @@ public class BrokerConfigManagerImplTest {
 
   @Before
   public void setUp() {
-    brokerConfigManager = new BrokerConfigManagerImpl(adminClient, clusterManager);
+    brokerConfigManager =
+        new BrokerConfigManagerImpl(
+            adminClient, clusterManager, new AdminRequestCoalescer(new Metrics()));
   }
 
   @Test
@@ -49,6 +49,7 @@ import org.apache.kafka.clients.admin.DescribeConfigsOptions;
 import org.apache.kafka.clients.admin.DescribeConfigsResult;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -143,7 +144,9 @@ public class ClusterConfigManagerImplTest {
 
   @Before
   public void setUp() {
-    clusterConfigManager = new ClusterConfigManagerImpl(adminClient, clusterManager);
+    clusterConfigManager =
+        new ClusterConfigManagerImpl(
+            adminClient, clusterManager, new AdminRequestCoalescer(new Metrics()));
   }
 
   @Test
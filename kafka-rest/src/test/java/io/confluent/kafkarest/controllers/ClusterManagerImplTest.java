@@ -25,9 +25,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 
+import io.confluent.kafkarest.SystemTime;
 import io.confluent.kafkarest.entities.Broker;
 import io.confluent.kafkarest.entities.Cluster;
 import io.confluent.kafkarest.exceptions.UnsupportedProtocolException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +40,7 @@ import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
 import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -68,7 +71,14 @@ public class ClusterManagerImplTest {
 
   @Before
   public void setUp() {
-    clusterManager = new ClusterManagerImpl(adminClient);
+    clusterManager =
+        new ClusterManagerImpl(
+            adminClient,
+            new ClusterMetadataCache(
+                /* ttl= */ Duration.ZERO,
+                new SystemTime(),
+                new Metrics(),
+                ClusterManagerImpl::describeCluster));
   }
 
   @Test
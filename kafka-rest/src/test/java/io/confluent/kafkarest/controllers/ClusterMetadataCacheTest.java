@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.controllers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.confluent.kafkarest.entities.Cluster;
+import io.confluent.kafkarest.mock.MockTime;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.metrics.Metrics;
+import org.easymock.EasyMockRule;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ClusterMetadataCacheTest {
+
+  private static final Cluster CLUSTER_1 =
+      Cluster.create("cluster-1", /* controller= */ null, Collections.emptyList());
+  private static final Cluster CLUSTER_2 =
+      Cluster.create("cluster-2", /* controller= */ null, Collections.emptyList());
+
+  @Rule
+  public final EasyMockRule mocks = new EasyMockRule(this);
+
+  @Mock
+  private Admin adminClient;
+
+  private final Queue<CompletableFuture<Cluster>> describeResults = new ArrayDeque<>();
+  private int describeCount;
+
+  private MockTime time;
+  private Metrics metrics;
+  private ClusterMetadataCache cache;
+
+  @Before
+  public void setUp() {
+    time = new MockTime();
+    metrics = new Metrics();
+    // Long enough not to refresh in the background during a test. Tests refresh explicitly.
+    cache =
+        new ClusterMetadataCache(
+            Duration.ofHours(1),
+            time,
+            metrics,
+            admin -> {
+              describeCount++;
+              return describeResults.remove();
+            });
+  }
+
+  @After
+  public void tearDown() {
+    cache.preDestroy();
+    metrics.close();
+  }
+
+  @Test
+  public void getCluster_describesOnceUntilRefreshed() throws Exception {
+    describeResults.add(CompletableFuture.completedFuture(CLUSTER_1));
+    describeResults.add(CompletableFuture.completedFuture(CLUSTER_2));
+
+    assertEquals(CLUSTER_1, cache.getCluster(adminClient).get());
+    assertEquals(CLUSTER_1, cache.getCluster(adminClient).get());
+    assertEquals(1, describeCount);
+
+    time.sleep(1000);
+    assertEquals(1000L, getAgeMs());
+
+    cache.refresh();
+
+    assertEquals(CLUSTER_2, cache.getCluster(adminClient).get());
+    assertEquals(2, describeCount);
+    assertEquals(0L, getAgeMs());
+  }
+
+  @Test
+  public void getCluster_pendingDescribe_sharedByRequests() throws Exception {
+    CompletableFuture<Cluster> describe = new CompletableFuture<>();
+    describeResults.add(describe);
+
+    CompletableFuture<Cluster> first = cache.getCluster(adminClient);
+    CompletableFuture<Cluster> second = cache.getCluster(adminClient);
+    describe.complete(CLUSTER_1);
+
+    assertEquals(CLUSTER_1, first.get());
+    assertEquals(CLUSTER_1, second.get());
+    assertEquals(1, describeCount);
+  }
+
+  @Test
+  public void refresh_failure_nextRequestDescribesAgain() throws Exception {
+    describeResults.add(CompletableFuture.completedFuture(CLUSTER_1));
+    describeResults.add(timedOut());
+    describeResults.add(timedOut());
+
+    cache.getCluster(adminClient).get();
+    cache.refresh();
+
+    try {
+      cache.getCluster(adminClient).get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+    assertEquals(3, describeCount);
+  }
+
+  private static CompletableFuture<Cluster> timedOut() {
+    CompletableFuture<Cluster> future = new CompletableFuture<>();
+    future.completeExceptionally(new TimeoutException());
+    return future;
+  }
+
+  private long getAgeMs() {
+    return (Long) metrics.metrics().entrySet().stream()
+        .filter(metric -> metric.getKey().name().equals("age-ms"))
+        .findAny()
+        .get()
+        .getValue()
+        .metricValue();
+  }
+}
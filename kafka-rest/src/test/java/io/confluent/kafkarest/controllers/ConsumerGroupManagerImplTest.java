@@ -48,6 +48,7 @@ import org.apache.kafka.clients.admin.ListConsumerGroupsResult;
 import org.apache.kafka.clients.admin.MemberAssignment;
 import org.apache.kafka.clients.admin.MemberDescription;
 import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -323,7 +324,9 @@ public class ConsumerGroupManagerImplTest {
             }
         };
 
-    consumerGroupManager = new ConsumerGroupManagerImpl(adminClient, clusterManager);
+    consumerGroupManager =
+        new ConsumerGroupManagerImpl(
+            adminClient, clusterManager, new AdminRequestCoalescer(new Metrics()));
   }
 
   @Test
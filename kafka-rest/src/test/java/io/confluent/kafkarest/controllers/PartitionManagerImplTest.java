@@ -37,6 +37,7 @@ import org.apache.kafka.clients.admin.ListOffsetsResult;
 import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -184,7 +185,9 @@ public class PartitionManagerImplTest {
 
   @Before
   public void setUp() {
-    partitionManager = new PartitionManagerImpl(adminClient, topicManager);
+    partitionManager =
+        new PartitionManagerImpl(
+            adminClient, topicManager, new AdminRequestCoalescer(new Metrics()));
   }
 
   @Test
@@ -16,6 +16,7 @@
 package io.confluent.kafkarest.controllers;
 
 import static io.confluent.kafkarest.common.CompletableFutures.failedFuture;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.concurrent.CompletableFuture.completedFuture;
@@ -30,6 +31,7 @@ import static org.junit.Assert.fail;
 import io.confluent.kafkarest.entities.Broker;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.PartitionReplica;
+import io.confluent.kafkarest.entities.Topic;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -119,6 +121,14 @@ public class ReplicaManagerImplTest {
           PARTITION_ID_2,
           Arrays.asList(REPLICA_2_1, REPLICA_2_2));
 
+  private static final Topic TOPIC =
+      Topic.create(
+          CLUSTER_ID,
+          TOPIC_NAME,
+          Arrays.asList(PARTITION_1, PARTITION_2),
+          /* replicationFactor= */ (short) 3,
+          /* isInternal= */ false);
+
   @Rule
   public final EasyMockRule mocks = new EasyMockRule(this);
 
@@ -134,11 +144,15 @@ public class ReplicaManagerImplTest {
   @Mock
   private PartitionManager partitionManager;
 
+  @Mock
+  private TopicManager topicManager;
+
   private ReplicaManagerImpl replicaManager;
 
   @Before
   public void setUp() {
-    replicaManager = new ReplicaManagerImpl(adminClient, brokerManager, partitionManager);
+    replicaManager =
+        new ReplicaManagerImpl(adminClient, brokerManager, partitionManager, topicManager);
   }
 
   @Test
@@ -251,11 +265,9 @@ public class ReplicaManagerImplTest {
                 BROKER_ID_1,
                 KafkaFuture.completedFuture(
                     singletonMap(TOPIC_NAME, new LogDirInfo(null, partitions)))));
-    expect(partitionManager.getPartition(CLUSTER_ID, TOPIC_NAME, PARTITION_ID_1))
-        .andReturn(completedFuture(Optional.of(PARTITION_1)));
-    expect(partitionManager.getPartition(CLUSTER_ID, TOPIC_NAME, PARTITION_ID_2))
-        .andReturn(completedFuture(Optional.of(PARTITION_2)));
-    replay(adminClient, describeLogDirsResult, brokerManager, partitionManager);
+    expect(topicManager.getTopics(CLUSTER_ID, singleton(TOPIC_NAME)))
+        .andReturn(completedFuture(singletonList(TOPIC)));
+    replay(adminClient, describeLogDirsResult, brokerManager, topicManager);
 
     List<PartitionReplica> replicas =
         replicaManager.searchReplicasByBrokerId(CLUSTER_ID, BROKER_ID_1).get();
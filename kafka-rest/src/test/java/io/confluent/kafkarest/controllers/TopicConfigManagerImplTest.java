@@ -49,6 +49,7 @@ import org.apache.kafka.clients.admin.DescribeConfigsResult;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.config.ConfigResource;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -141,7 +142,9 @@ public class TopicConfigManagerImplTest {
 
   @Before
   public void setUp() {
-    topicConfigManager = new TopicConfigManagerImpl(adminClient, clusterManager);
+    topicConfigManager =
+        new TopicConfigManagerImpl(
+            adminClient, clusterManager, new AdminRequestCoalescer(new Metrics()));
   }
 
   @Test
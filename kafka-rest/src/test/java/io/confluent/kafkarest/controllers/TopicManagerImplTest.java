@@ -29,6 +29,7 @@ import static org.junit.Assert.fail;
 
 import io.confluent.kafkarest.entities.Broker;
 import io.confluent.kafkarest.entities.Cluster;
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.PartitionReplica;
 import io.confluent.kafkarest.entities.Topic;
@@ -54,6 +55,7 @@ import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.errors.TimeoutException;
 import org.apache.kafka.common.errors.TopicExistsException;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.metrics.Metrics;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -403,7 +405,9 @@ public class TopicManagerImplTest {
 
   @Before
   public void setUp() {
-    topicManager = new TopicManagerImpl(adminClient, clusterManager);
+    topicManager =
+        new TopicManagerImpl(
+            adminClient, clusterManager, new AdminRequestCoalescer(new Metrics()));
   }
 
   @Test
@@ -424,6 +428,28 @@ public class TopicManagerImplTest {
     assertEquals(Arrays.asList(TOPIC_1, TOPIC_2, TOPIC_3), topics);
   }
 
+  @Test
+  public void listTopics_page_describesOnlyTopicsInPage() throws Exception {
+    expect(clusterManager.getCluster(CLUSTER_ID)).andReturn(completedFuture(Optional.of(CLUSTER)));
+    expect(adminClient.listTopics()).andReturn(listTopicsResult);
+    expect(listTopicsResult.names())
+        .andReturn(
+            KafkaFuture.completedFuture(
+                new HashSet<>(Arrays.asList("topic-3", "topic-1", "topic-2"))));
+    expect(adminClient.describeTopics(Arrays.asList("topic-2", "topic-3")))
+        .andReturn(describeTopicResult);
+    expect(describeTopicResult.all())
+        .andReturn(
+            KafkaFuture.completedFuture(
+                createTopicDescriptionMap(TOPIC_DESCRIPTION_3, TOPIC_DESCRIPTION_2)));
+    replay(clusterManager, adminClient, listTopicsResult, describeTopicResult);
+
+    Page<Topic> page = topicManager.listTopics(CLUSTER_ID, "topic-1", /* pageSize= */ 2).get();
+
+    assertEquals(Arrays.asList(TOPIC_2, TOPIC_3), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
   @Test
   public void listTopics_timeoutException_throwsTimeoutException() throws Exception {
     expect(clusterManager.getCluster(CLUSTER_ID)).andReturn(completedFuture(Optional.of(CLUSTER)));
@@ -457,6 +483,24 @@ public class TopicManagerImplTest {
     assertEquals(Arrays.asList(TOPIC_1, TOPIC_2, TOPIC_3), topics);
   }
 
+  @Test
+  public void listLocalTopicNames_returnsNamesWithoutDescribingTopics() throws Exception {
+    expect(adminClient.listTopics()).andReturn(listTopicsResult);
+    expect(listTopicsResult.names())
+        .andReturn(
+            KafkaFuture.completedFuture(
+                new HashSet<>(
+                    Arrays.asList(TOPIC_1.getName(), TOPIC_2.getName(), TOPIC_3.getName()))));
+    replay(clusterManager, adminClient, listTopicsResult);
+
+    List<String> topicNames = topicManager.listLocalTopicNames().get();
+
+    assertEquals(
+        new HashSet<>(Arrays.asList(TOPIC_1.getName(), TOPIC_2.getName(), TOPIC_3.getName())),
+        new HashSet<>(topicNames));
+    verify(clusterManager, adminClient, listTopicsResult);
+  }
+
   @Test
   public void listTopic_nonExistingCluster_throwsNotFoundException() throws Exception {
     expect(clusterManager.getCluster(CLUSTER_ID)).andReturn(completedFuture(Optional.empty()));
@@ -509,6 +553,25 @@ public class TopicManagerImplTest {
     assertFalse(topic.isPresent());
   }
 
+  @Test
+  public void getTopics_existingTopics_returnsTopicsInOneDescribe() throws Exception {
+    expect(clusterManager.getCluster(CLUSTER_ID)).andReturn(completedFuture(Optional.of(CLUSTER)));
+    expect(adminClient.describeTopics(anyObject())).andReturn(describeTopicResult);
+    expect(describeTopicResult.all())
+        .andReturn(
+            KafkaFuture.completedFuture(
+                createTopicDescriptionMap(TOPIC_DESCRIPTION_1, TOPIC_DESCRIPTION_2)));
+    replay(clusterManager, adminClient, describeTopicResult);
+
+    List<Topic> topics =
+        topicManager.getTopics(
+            CLUSTER_ID, new HashSet<>(Arrays.asList(TOPIC_1.getName(), TOPIC_2.getName())))
+            .get();
+
+    assertEquals(new HashSet<>(Arrays.asList(TOPIC_1, TOPIC_2)), new HashSet<>(topics));
+    verify(adminClient);
+  }
+
   @Test
   public void getLocalTopic_existingTopic_returnsTopic() throws Exception {
     expect(clusterManager.getLocalCluster()).andReturn(completedFuture(CLUSTER));
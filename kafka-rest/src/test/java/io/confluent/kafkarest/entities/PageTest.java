@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.entities;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PageTest {
+
+  @Test
+  public void ofNames_firstPage_returnsSortedNamesAndNextKey() {
+    Page<String> page = Page.ofNames(asList("c", "a", "b"), /* after= */ null, /* pageSize= */ 2);
+
+    assertEquals(asList("a", "b"), page.getItems());
+    assertEquals(Optional.of("b"), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofNames_afterKey_returnsNamesAfterKey() {
+    Page<String> page = Page.ofNames(asList("c", "a", "b"), /* after= */ "b", /* pageSize= */ 2);
+
+    assertEquals(asList("c"), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofNames_afterDeletedName_returnsNamesAfterIt() {
+    Page<String> page = Page.ofNames(asList("a", "c"), /* after= */ "b", /* pageSize= */ 2);
+
+    assertEquals(asList("c"), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofNames_pageSizeOfAllNames_hasNoNextKey() {
+    Page<String> page = Page.ofNames(asList("a", "b"), /* after= */ null, /* pageSize= */ 2);
+
+    assertEquals(asList("a", "b"), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofNames_maxPageSize_doesNotOverflow() {
+    Page<String> page =
+        Page.ofNames(asList("a", "b"), /* after= */ "a", /* pageSize= */ Integer.MAX_VALUE);
+
+    assertEquals(asList("b"), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofOffset_firstPage_returnsItemsAndNextOffset() {
+    Page<String> page = Page.ofOffset(asList("a", "b", "c"), /* offset= */ 0, /* pageSize= */ 2);
+
+    assertEquals(asList("a", "b"), page.getItems());
+    assertEquals(Optional.of("2"), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofOffset_lastPage_hasNoNextKey() {
+    Page<String> page = Page.ofOffset(asList("a", "b", "c"), /* offset= */ 2, /* pageSize= */ 2);
+
+    assertEquals(asList("c"), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
+  @Test
+  public void ofOffset_offsetPastEnd_returnsEmptyPage() {
+    Page<String> page = Page.ofOffset(asList("a", "b"), /* offset= */ 5, /* pageSize= */ 2);
+
+    assertEquals(emptyList(), page.getItems());
+    assertEquals(Optional.empty(), page.getNextPageKey());
+  }
+
+  @Test
+  public void withItems_keepsNextKey() {
+    Page<Integer> page =
+        Page.ofOffset(asList("a", "b", "c"), /* offset= */ 0, /* pageSize= */ 1)
+            .withItems(asList(1));
+
+    assertEquals(asList(1), page.getItems());
+    assertEquals(Optional.of("1"), page.getNextPageKey());
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.entities.v2;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.protobuf.ByteString;
+import io.confluent.kafkarest.entities.ConsumerRecord;
+import io.confluent.kafkarest.entities.EntityUtils;
+import java.util.Random;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+public class BinaryConsumerRecordTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Test
+  public void serialize_nullKeyAndValue_writesNulls() throws Exception {
+    assertSerializedAsBefore(/* key= */ null, /* value= */ null);
+  }
+
+  @Test
+  public void serialize_emptyKeyAndValue_writesEmptyStrings() throws Exception {
+    assertSerializedAsBefore(new byte[0], new byte[0]);
+  }
+
+  @Test
+  public void serialize_keyAndValue_writesBase64() throws Exception {
+    assertSerializedAsBefore(new byte[] {0, 1, 2}, new byte[] {-1, -2, -3, -4});
+  }
+
+  @Test
+  public void serialize_largeValue_writesBase64WithoutLineBreaks() throws Exception {
+    byte[] value = new byte[100000];
+    new Random(0).nextBytes(value);
+    assertSerializedAsBefore(/* key= */ null, value);
+  }
+
+  @Test
+  public void deserialize_serializedRecord_roundTrips() throws Exception {
+    ConsumerRecord<ByteString, ByteString> record =
+        ConsumerRecord.create(
+            "topic1", ByteString.copyFromUtf8("key"), ByteString.copyFromUtf8("value"), 1, 2L);
+
+    BinaryConsumerRecord deserialized =
+        OBJECT_MAPPER.readValue(
+            OBJECT_MAPPER.writeValueAsBytes(BinaryConsumerRecord.fromConsumerRecord(record)),
+            BinaryConsumerRecord.class);
+
+    assertEquals(BinaryConsumerRecord.fromConsumerRecord(record), deserialized);
+    assertEquals(record, deserialized.toConsumerRecord());
+  }
+
+  @Test
+  public void deserialize_nullKeyAndValue_roundTrips() throws Exception {
+    ConsumerRecord<ByteString, ByteString> record =
+        ConsumerRecord.create("topic1", null, null, 1, 2L);
+
+    BinaryConsumerRecord deserialized =
+        OBJECT_MAPPER.readValue(
+            OBJECT_MAPPER.writeValueAsBytes(BinaryConsumerRecord.fromConsumerRecord(record)),
+            BinaryConsumerRecord.class);
+
+    assertEquals(record, deserialized.toConsumerRecord());
+  }
+
+  /**
+   * Checks the record is written exactly as it was when its key and value were base64 encoded to
+   * strings with {@link EntityUtils#encodeBase64Binary(byte[])} before being serialized.
+   */
+  private static void assertSerializedAsBefore(@Nullable byte[] key, @Nullable byte[] value)
+      throws Exception {
+    BinaryConsumerRecord record =
+        BinaryConsumerRecord.fromConsumerRecord(
+            ConsumerRecord.create(
+                "topic1",
+                key != null ? ByteString.copyFrom(key) : null,
+                value != null ? ByteString.copyFrom(value) : null,
+                1,
+                2L));
+
+    ObjectNode expected = OBJECT_MAPPER.createObjectNode();
+    expected.put("topic", "topic1");
+    expected.put("key", key != null ? EntityUtils.encodeBase64Binary(key) : null);
+    expected.put("value", value != null ? EntityUtils.encodeBase64Binary(value) : null);
+    expected.put("partition", 1);
+    // Small enough to be read back as an int.
+    expected.put("offset", 2);
+    JsonNode actual = OBJECT_MAPPER.readTree(OBJECT_MAPPER.writeValueAsString(record));
+
+    assertEquals(expected, actual);
+  }
+}
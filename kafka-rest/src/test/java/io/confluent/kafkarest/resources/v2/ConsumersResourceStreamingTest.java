@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import io.confluent.kafkarest.DefaultKafkaRestContext;
+import io.confluent.kafkarest.Errors;
+import io.confluent.kafkarest.KafkaRestApplication;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.Versions;
+import io.confluent.kafkarest.entities.ConsumerRecord;
+import io.confluent.kafkarest.entities.v2.BinaryConsumerRecord;
+import io.confluent.kafkarest.v2.BinaryKafkaConsumerState;
+import io.confluent.kafkarest.v2.ConsumerRecordStream;
+import io.confluent.kafkarest.v2.JsonKafkaConsumerState;
+import io.confluent.kafkarest.v2.KafkaConsumerManager;
+import io.confluent.rest.EmbeddedServerTestHarness;
+import io.confluent.rest.RestConfigException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConsumersResourceStreamingTest
+    extends EmbeddedServerTestHarness<KafkaRestConfig, KafkaRestApplication> {
+
+  private static final String GROUP_NAME = "group1";
+  private static final String INSTANCE_NAME = "instance1";
+  private static final String RECORDS_PATH =
+      "/consumers/" + GROUP_NAME + "/instances/" + INSTANCE_NAME + "/records";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final KafkaConsumerManager consumerManager;
+  private final ConsumerRecordStream<byte[], byte[], ByteString, ByteString> binaryStream;
+  private final ConsumerRecordStream<byte[], byte[], Object, Object> jsonStream;
+
+  @SuppressWarnings("unchecked")
+  public ConsumersResourceStreamingTest() throws RestConfigException {
+    consumerManager = EasyMock.createMock(KafkaConsumerManager.class);
+    binaryStream = EasyMock.createMock(ConsumerRecordStream.class);
+    jsonStream = EasyMock.createMock(ConsumerRecordStream.class);
+    // Streams end after their first batch.
+    Properties props = new Properties();
+    props.setProperty(KafkaRestConfig.CONSUMER_STREAM_MAX_MS_CONFIG, "0");
+    DefaultKafkaRestContext ctx =
+        new DefaultKafkaRestContext(
+            new KafkaRestConfig(props), /* producerPool= */ null, consumerManager);
+    addResource(new ConsumersResource(ctx));
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    EasyMock.reset(consumerManager, binaryStream, jsonStream);
+  }
+
+  @Test
+  public void streamRecordBinary_records_writesOneRecordPerLine() throws Exception {
+    ConsumerRecord<ByteString, ByteString> record1 =
+        ConsumerRecord.create(
+            "topic1", ByteString.copyFromUtf8("key1"), ByteString.copyFromUtf8("value1"), 0, 10);
+    ConsumerRecord<ByteString, ByteString> record2 =
+        ConsumerRecord.create("topic1", null, ByteString.copyFromUtf8("value2"), 1, 20);
+    expectOpenBinaryStream();
+    EasyMock.expect(binaryStream.nextBatch()).andReturn(Arrays.asList(record1, record2));
+    EasyMock.replay(consumerManager, binaryStream);
+
+    Response response = request(RECORDS_PATH, Versions.KAFKA_V2_NDJSON_BINARY).get();
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    assertTrue(
+        MediaType.valueOf(Versions.KAFKA_V2_NDJSON_BINARY).isCompatible(response.getMediaType()));
+    String[] lines = response.readEntity(String.class).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(
+        BinaryConsumerRecord.fromConsumerRecord(record1),
+        OBJECT_MAPPER.readValue(lines[0], BinaryConsumerRecord.class));
+    assertEquals(
+        BinaryConsumerRecord.fromConsumerRecord(record2),
+        OBJECT_MAPPER.readValue(lines[1], BinaryConsumerRecord.class));
+    EasyMock.verify(consumerManager, binaryStream);
+  }
+
+  @Test
+  public void streamRecordJson_records_writesJsonRecords() throws Exception {
+    EasyMock.expect(
+        consumerManager.openRecordStream(
+            EasyMock.eq(GROUP_NAME),
+            EasyMock.eq(INSTANCE_NAME),
+            EasyMock.eq(JsonKafkaConsumerState.class),
+            EasyMock.anyLong(),
+            EasyMock.anyLong()))
+        .andReturn(jsonStream);
+    EasyMock.expect(jsonStream.nextBatch())
+        .andReturn(
+            Collections.singletonList(
+                ConsumerRecord.create(
+                    "topic1", null, Collections.singletonMap("foo", "bar"), 0, 10)));
+    EasyMock.replay(consumerManager, jsonStream);
+
+    Response response = request(RECORDS_PATH, Versions.KAFKA_V2_NDJSON_JSON).get();
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    assertTrue(
+        MediaType.valueOf(Versions.KAFKA_V2_NDJSON_JSON).isCompatible(response.getMediaType()));
+    JsonNode record = OBJECT_MAPPER.readTree(response.readEntity(String.class));
+    assertEquals("bar", record.get("value").get("foo").asText());
+    assertEquals(10, record.get("offset").asLong());
+    EasyMock.verify(consumerManager, jsonStream);
+  }
+
+  @Test
+  public void streamRecordBinary_emptyBatch_writesBlankLine() {
+    expectOpenBinaryStream();
+    EasyMock.expect(binaryStream.nextBatch()).andReturn(Collections.emptyList());
+    EasyMock.replay(consumerManager, binaryStream);
+
+    Response response = request(RECORDS_PATH, Versions.KAFKA_V2_NDJSON_BINARY).get();
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    assertEquals("\n", response.readEntity(String.class));
+    EasyMock.verify(consumerManager, binaryStream);
+  }
+
+  @Test
+  public void streamRecordBinary_readError_writesErrorLine() throws Exception {
+    expectOpenBinaryStream();
+    EasyMock.expect(binaryStream.nextBatch())
+        .andThrow(Errors.consumerInstanceNotFoundException());
+    EasyMock.replay(consumerManager, binaryStream);
+
+    Response response = request(RECORDS_PATH, Versions.KAFKA_V2_NDJSON_BINARY).get();
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    JsonNode error = OBJECT_MAPPER.readTree(response.readEntity(String.class));
+    assertEquals(Errors.CONSUMER_INSTANCE_NOT_FOUND_ERROR_CODE, error.get("error_code").asInt());
+    EasyMock.verify(consumerManager, binaryStream);
+  }
+
+  @Test
+  public void streamRecordBinary_unknownInstance_returnsNotFound() {
+    EasyMock.expect(
+        consumerManager.openRecordStream(
+            EasyMock.eq(GROUP_NAME),
+            EasyMock.eq(INSTANCE_NAME),
+            EasyMock.eq(BinaryKafkaConsumerState.class),
+            EasyMock.anyLong(),
+            EasyMock.anyLong()))
+        .andThrow(Errors.consumerInstanceNotFoundException());
+    EasyMock.replay(consumerManager, binaryStream);
+
+    Response response = request(RECORDS_PATH, Versions.KAFKA_V2_NDJSON_BINARY).get();
+
+    assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+    EasyMock.verify(consumerManager, binaryStream);
+  }
+
+  @Test
+  public void streamRecordBinary_clientDisconnected_stopsReading() throws Exception {
+    // Streams don't end on their own with the default config, only when the client goes away.
+    ConsumersResource resource =
+        new ConsumersResource(
+            new DefaultKafkaRestContext(
+                new KafkaRestConfig(), /* producerPool= */ null, consumerManager));
+    expectOpenBinaryStream();
+    EasyMock.expect(binaryStream.nextBatch())
+        .andReturn(
+            Collections.singletonList(
+                ConsumerRecord.create("topic1", null, ByteString.copyFromUtf8("value"), 0, 0)));
+    EasyMock.replay(consumerManager, binaryStream);
+
+    StreamingOutput output =
+        (StreamingOutput)
+            resource.streamRecordBinary(
+                GROUP_NAME, INSTANCE_NAME, /* timeout= */ -1, /* maxBytes= */ -1).getEntity();
+    try {
+      output.write(new DisconnectedOutputStream());
+      fail();
+    } catch (IOException expected) {
+    }
+
+    EasyMock.verify(consumerManager, binaryStream);
+  }
+
+  private void expectOpenBinaryStream() {
+    EasyMock.expect(
+        consumerManager.openRecordStream(
+            EasyMock.eq(GROUP_NAME),
+            EasyMock.eq(INSTANCE_NAME),
+            EasyMock.eq(BinaryKafkaConsumerState.class),
+            EasyMock.anyLong(),
+            EasyMock.anyLong()))
+        .andReturn(binaryStream);
+  }
+
+  private static final class DisconnectedOutputStream extends OutputStream {
+
+    @Override
+    public void write(int b) throws IOException {
+      throw new IOException("Broken pipe");
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.confluent.kafkarest.DefaultKafkaRestContext;
+import io.confluent.kafkarest.KafkaRestApplication;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.ProducerPool;
+import io.confluent.kafkarest.Versions;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.ProduceRequest;
+import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest;
+import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest.BinaryTopicProduceRecord;
+import io.confluent.rest.EmbeddedServerTestHarness;
+import io.confluent.rest.RestConfigException;
+import java.util.Arrays;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProduceToTopicActionAsyncTest
+    extends EmbeddedServerTestHarness<KafkaRestConfig, KafkaRestApplication> {
+
+  private static final String TOPIC_NAME = "topic1";
+
+  private final ProducerPool producerPool;
+
+  public ProduceToTopicActionAsyncTest() throws RestConfigException {
+    producerPool = EasyMock.createMock(ProducerPool.class);
+    DefaultKafkaRestContext ctx =
+        new DefaultKafkaRestContext(config, producerPool, /* kafkaConsumerManager= */ null);
+    addResource(new ProduceToTopicAction(ctx));
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    EasyMock.reset(producerPool);
+  }
+
+  @Test
+  public void produceBinary_preferRespondAsync_returnsAcceptedWithoutWaiting() {
+    Capture<ProduceRequest<byte[], byte[]>> request = Capture.newInstance();
+    producerPool.produceAsync(
+        EasyMock.eq(TOPIC_NAME),
+        EasyMock.isNull(),
+        EasyMock.eq(EmbeddedFormat.BINARY),
+        EasyMock.capture(request));
+    EasyMock.replay(producerPool);
+
+    Response response =
+        request("/topics/" + TOPIC_NAME, Versions.KAFKA_V2_JSON)
+            .header("Prefer", "respond-async")
+            .post(
+                Entity.entity(
+                    BinaryTopicProduceRequest.create(
+                        Arrays.asList(
+                            new BinaryTopicProduceRecord(null, "dmFsdWU=", null),
+                            new BinaryTopicProduceRecord(null, "dmFsdWUy", null))),
+                    Versions.KAFKA_V2_JSON_BINARY));
+
+    assertEquals(Response.Status.ACCEPTED.getStatusCode(), response.getStatus());
+    assertEquals("respond-async", response.getHeaderString("Preference-Applied"));
+    assertEquals(2, request.getValue().getRecords().size());
+    EasyMock.verify(producerPool);
+  }
+
+  @Test
+  public void isRespondAsync_queryParamTakesPrecedenceOverHeader() {
+    assertTrue(AbstractProduceAction.isRespondAsync(true, null));
+    assertFalse(AbstractProduceAction.isRespondAsync(false, "respond-async"));
+    assertTrue(AbstractProduceAction.isRespondAsync(null, "wait=10, Respond-Async"));
+    assertFalse(AbstractProduceAction.isRespondAsync(null, "return=minimal"));
+    assertFalse(AbstractProduceAction.isRespondAsync(null, null));
+  }
+}
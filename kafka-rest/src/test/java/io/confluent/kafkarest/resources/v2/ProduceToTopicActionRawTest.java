@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v2;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.confluent.kafkarest.DefaultKafkaRestContext;
+import io.confluent.kafkarest.KafkaRestApplication;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.ProducerPool;
+import io.confluent.kafkarest.RecordMetadataOrException;
+import io.confluent.kafkarest.Versions;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.ProduceRecord;
+import io.confluent.kafkarest.entities.ProduceRequest;
+import io.confluent.kafkarest.entities.v2.PartitionOffset;
+import io.confluent.kafkarest.entities.v2.ProduceResponse;
+import io.confluent.rest.EmbeddedServerTestHarness;
+import io.confluent.rest.RestConfigException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProduceToTopicActionRawTest
+    extends EmbeddedServerTestHarness<KafkaRestConfig, KafkaRestApplication> {
+
+  private static final String TOPIC_NAME = "topic1";
+  private static final byte[] VALUE = "raw value".getBytes(StandardCharsets.UTF_8);
+
+  private final ProducerPool producerPool;
+
+  private Capture<ProduceRequest<byte[], byte[]>> request;
+
+  public ProduceToTopicActionRawTest() throws RestConfigException {
+    producerPool = EasyMock.createMock(ProducerPool.class);
+    DefaultKafkaRestContext ctx =
+        new DefaultKafkaRestContext(config, producerPool, /* kafkaConsumerManager= */ null);
+    addResource(new ProduceToTopicAction(ctx));
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    EasyMock.reset(producerPool);
+    request = Capture.newInstance();
+  }
+
+  @Test
+  public void produceRaw_keyAndPartitionHeaders_producesBodyAsValue() {
+    expectProduce(/* partition= */ 2);
+
+    Response response =
+        request("/topics/" + TOPIC_NAME, Versions.KAFKA_V2_JSON)
+            .header("Kafka-Key", "a2V5")
+            .header("Kafka-Partition", "2")
+            .post(Entity.entity(VALUE, Versions.KAFKA_V2_OCTET_STREAM_RAW));
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    ProduceRecord<byte[], byte[]> record = request.getValue().getRecords().get(0);
+    assertArrayEquals("key".getBytes(StandardCharsets.UTF_8), record.getKey());
+    assertArrayEquals(VALUE, record.getValue());
+    assertEquals(Integer.valueOf(2), record.getPartition());
+    assertEquals(
+        new ProduceResponse(
+            Collections.singletonList(new PartitionOffset(2, 0L, null, null)), null, null),
+        response.readEntity(ProduceResponse.class));
+    EasyMock.verify(producerPool);
+  }
+
+  @Test
+  public void produceRaw_noKeyOrPartition_producesBodyAsValue() {
+    expectProduce(/* partition= */ null);
+
+    Response response =
+        request("/topics/" + TOPIC_NAME, Versions.KAFKA_V2_JSON)
+            .post(Entity.entity(VALUE, Versions.KAFKA_V2_OCTET_STREAM_RAW));
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    ProduceRecord<byte[], byte[]> record = request.getValue().getRecords().get(0);
+    assertNull(record.getKey());
+    assertArrayEquals(VALUE, record.getValue());
+    EasyMock.verify(producerPool);
+  }
+
+  @Test
+  public void produce_genericRequestType_isNotProduced() {
+    EasyMock.replay(producerPool);
+
+    Response response =
+        request("/topics/" + TOPIC_NAME, Versions.KAFKA_V2_JSON)
+            .post(Entity.entity(VALUE, Versions.GENERIC_REQUEST));
+
+    assertEquals(
+        Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode(), response.getStatus());
+    EasyMock.verify(producerPool);
+  }
+
+  private void expectProduce(Integer partition) {
+    Capture<ProducerPool.ProduceRequestCallback> callback = Capture.newInstance();
+    producerPool.produce(
+        EasyMock.eq(TOPIC_NAME),
+        EasyMock.eq(partition),
+        EasyMock.eq(EmbeddedFormat.BINARY),
+        EasyMock.capture(request),
+        EasyMock.capture(callback));
+    EasyMock.expectLastCall().andAnswer(() -> {
+      callback.getValue().onCompletion(
+          null,
+          null,
+          Collections.singletonList(
+              new RecordMetadataOrException(
+                  new RecordMetadata(
+                      new TopicPartition(TOPIC_NAME, partition != null ? partition : 0),
+                      0L, 0L, 0L, 0L, 1, 1),
+                  null)));
+      return null;
+    });
+    EasyMock.replay(producerPool);
+  }
+}
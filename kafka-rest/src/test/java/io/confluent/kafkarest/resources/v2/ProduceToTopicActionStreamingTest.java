@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v2;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafkarest.DefaultKafkaRestContext;
+import io.confluent.kafkarest.Errors;
+import io.confluent.kafkarest.KafkaRestApplication;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.ProducerPool;
+import io.confluent.kafkarest.RecordMetadataOrException;
+import io.confluent.kafkarest.Versions;
+import io.confluent.kafkarest.entities.EmbeddedFormat;
+import io.confluent.kafkarest.entities.v2.BinaryTopicProduceRequest.BinaryTopicProduceRecord;
+import io.confluent.kafkarest.entities.v2.PartitionOffset;
+import io.confluent.rest.EmbeddedServerTestHarness;
+import io.confluent.rest.RestConfigException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProduceToTopicActionStreamingTest
+    extends EmbeddedServerTestHarness<KafkaRestConfig, KafkaRestApplication> {
+
+  private static final String TOPIC_NAME = "topic1";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final ProducerPool producerPool;
+  private final ProduceToTopicAction action;
+
+  public ProduceToTopicActionStreamingTest() throws RestConfigException {
+    producerPool = EasyMock.createMock(ProducerPool.class);
+    DefaultKafkaRestContext ctx =
+        new DefaultKafkaRestContext(config, producerPool, /* kafkaConsumerManager= */ null);
+    action = new ProduceToTopicAction(ctx);
+    addResource(action);
+  }
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    EasyMock.reset(producerPool);
+  }
+
+  @Test
+  public void produceBinaryStream_outOfOrderAcks_returnsOffsetsInRecordOrder() throws Exception {
+    Capture<ProducerPool.ProduceRequestCallback> callbacks = Capture.newInstance(CaptureType.ALL);
+    producerPool.produce(
+        EasyMock.eq(TOPIC_NAME),
+        EasyMock.eq((Integer) null),
+        EasyMock.eq(EmbeddedFormat.BINARY),
+        EasyMock.anyObject(),
+        EasyMock.capture(callbacks));
+    // Hold back the first ack until the second record has been acked.
+    EasyMock.expectLastCall()
+        .andVoid()
+        .andAnswer(() -> {
+          callbacks.getValues().get(1).onCompletion(null, null, result(1L));
+          callbacks.getValues().get(0).onCompletion(null, null, result(0L));
+          return null;
+        });
+    EasyMock.replay(producerPool);
+
+    Response response =
+        request("/topics/" + TOPIC_NAME, Versions.KAFKA_V2_NDJSON)
+            .post(
+                Entity.entity(
+                    "{\"value\":\"dmFsdWU=\"}\n{\"key\":\"a2V5\",\"value\":\"dmFsdWUy\"}\n",
+                    Versions.KAFKA_V2_NDJSON_BINARY));
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    List<PartitionOffset> offsets = readOffsets(response);
+    assertEquals(2, offsets.size());
+    assertEquals(new PartitionOffset(0, 0L, null, null), offsets.get(0));
+    assertEquals(new PartitionOffset(0, 1L, null, null), offsets.get(1));
+    EasyMock.verify(producerPool);
+  }
+
+  @Test
+  public void produceBinaryStream_malformedRecord_endsStreamWithError() throws Exception {
+    Capture<ProducerPool.ProduceRequestCallback> callback = Capture.newInstance();
+    producerPool.produce(
+        EasyMock.eq(TOPIC_NAME),
+        EasyMock.eq((Integer) null),
+        EasyMock.eq(EmbeddedFormat.BINARY),
+        EasyMock.anyObject(),
+        EasyMock.capture(callback));
+    EasyMock.expectLastCall().andAnswer(() -> {
+      callback.getValue().onCompletion(null, null, result(0L));
+      return null;
+    });
+    EasyMock.replay(producerPool);
+
+    Response response =
+        request("/topics/" + TOPIC_NAME, Versions.KAFKA_V2_NDJSON)
+            .post(
+                Entity.entity(
+                    "{\"value\":\"dmFsdWU=\"}\n{\"value\":\"not base64!\"}\n{\"value\":null}\n",
+                    Versions.KAFKA_V2_NDJSON_BINARY));
+
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    List<PartitionOffset> offsets = readOffsets(response);
+    assertEquals(2, offsets.size());
+    assertEquals(new PartitionOffset(0, 0L, null, null), offsets.get(0));
+    assertEquals(
+        Errors.INVALID_PRODUCE_RECORD_ERROR_CODE, (int) offsets.get(1).getErrorCode());
+    EasyMock.verify(producerPool);
+  }
+
+  @Test
+  public void produceBinaryStream_recordConversionFails_endsStreamWithError() throws Exception {
+    Capture<ProducerPool.ProduceRequestCallback> callback = Capture.newInstance();
+    producerPool.produce(
+        EasyMock.eq(TOPIC_NAME),
+        EasyMock.eq((Integer) null),
+        EasyMock.eq(EmbeddedFormat.BINARY),
+        EasyMock.anyObject(),
+        EasyMock.capture(callback));
+    EasyMock.expectLastCall().andAnswer(() -> {
+      callback.getValue().onCompletion(null, null, result(0L));
+      return null;
+    });
+    EasyMock.replay(producerPool);
+
+    // The second record is valid JSON, but fails to be converted to a record to produce.
+    AtomicInteger converted = new AtomicInteger();
+    Response response =
+        action.produceStream(
+            TOPIC_NAME,
+            /* partition= */ null,
+            EmbeddedFormat.BINARY,
+            new ByteArrayInputStream(
+                "{\"value\":\"dmFsdWU=\"}\n{\"value\":\"dmFsdWUy\"}\n{\"value\":null}\n"
+                    .getBytes(StandardCharsets.UTF_8)),
+            BinaryTopicProduceRecord.class,
+            record -> {
+              if (converted.incrementAndGet() == 2) {
+                throw new IllegalArgumentException("Cannot convert record");
+              }
+              return record.toProduceRecord();
+            });
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingOutput) response.getEntity()).write(output);
+
+    String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(
+        new PartitionOffset(0, 0L, null, null),
+        OBJECT_MAPPER.readValue(lines[0], PartitionOffset.class));
+    assertEquals(
+        Errors.INVALID_PRODUCE_RECORD_ERROR_CODE,
+        (int) OBJECT_MAPPER.readValue(lines[1], PartitionOffset.class).getErrorCode());
+    EasyMock.verify(producerPool);
+  }
+
+  private static List<RecordMetadataOrException> result(long offset) {
+    return Collections.singletonList(
+        new RecordMetadataOrException(
+            new RecordMetadata(new TopicPartition(TOPIC_NAME, 0), 0L, offset, 0L, 0L, 1, 1),
+            null));
+  }
+
+  private static List<PartitionOffset> readOffsets(Response response) throws Exception {
+    List<PartitionOffset> offsets = new ArrayList<>();
+    for (String line : response.readEntity(String.class).split("\n")) {
+      offsets.add(OBJECT_MAPPER.readValue(line, PartitionOffset.class));
+    }
+    return offsets;
+  }
+}
@@ -368,8 +368,10 @@ public class TopicsResourceTest
 
   @Test
   public void testList() {
-    expect(topicManager.listLocalTopics())
-        .andReturn(completedFuture(Arrays.asList(TOPIC_1, TOPIC_2, TOPIC_3)));
+    expect(topicManager.listLocalTopicNames())
+        .andReturn(
+            completedFuture(
+                Arrays.asList(TOPIC_1.getName(), TOPIC_2.getName(), TOPIC_3.getName())));
     replay(topicManager);
 
     Response response = request("/topics", Versions.KAFKA_V2_JSON).get();
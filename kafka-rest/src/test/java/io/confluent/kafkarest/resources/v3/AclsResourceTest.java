@@ -33,6 +33,7 @@ import io.confluent.kafkarest.entities.v3.SearchAclsResponse;
 import io.confluent.kafkarest.response.FakeAsyncResponse;
 import io.confluent.kafkarest.response.FakeUrlFactory;
 import java.util.Arrays;
+import java.util.Optional;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
 import org.junit.Before;
@@ -106,7 +107,9 @@ public class AclsResourceTest {
         /* principal= */ "",
         /* host= */ "",
         Acl.Operation.ANY,
-        Acl.Permission.ALLOW);
+        Acl.Permission.ALLOW,
+        /* pageSize= */ null,
+        /* pageToken= */ null);
 
     SearchAclsResponse expected =
         SearchAclsResponse.create(
@@ -174,6 +177,73 @@ public class AclsResourceTest {
     assertEquals(expected, response.getValue());
   }
 
+  @Test
+  public void searchAcls_withPageSize_returnsSortedPageWithNextLink() {
+    expect(
+        aclManager.searchAcls(
+            CLUSTER_ID,
+            Acl.ResourceType.TOPIC,
+            /* resourceName= */ "topic-1",
+            Acl.PatternType.MATCH,
+            /* principal= */ null,
+            /* host= */ null,
+            Acl.Operation.ANY,
+            Acl.Permission.ALLOW))
+        .andReturn(completedFuture(Arrays.asList(ACL_2, ACL_1)))
+        .times(2);
+    replay(aclManager);
+    String searchUrl =
+        "/v3/clusters/cluster-1/acls"
+            + "?resource_type=TOPIC"
+            + "&resource_name=topic-1"
+            + "&pattern_type=MATCH"
+            + "&principal="
+            + "&host="
+            + "&operation=ANY"
+            + "&permission=ALLOW";
+
+    FakeAsyncResponse firstResponse = new FakeAsyncResponse();
+    aclsResource.searchAcls(
+        firstResponse,
+        CLUSTER_ID,
+        Acl.ResourceType.TOPIC,
+        /* resourceName= */ "topic-1",
+        Acl.PatternType.MATCH,
+        /* principal= */ "",
+        /* host= */ "",
+        Acl.Operation.ANY,
+        Acl.Permission.ALLOW,
+        /* pageSize= */ 1,
+        /* pageToken= */ null);
+    AclDataList firstPage = ((SearchAclsResponse) firstResponse.getValue()).getValue();
+
+    assertEquals(searchUrl + "&page_size=1", firstPage.getMetadata().getSelf());
+    assertEquals(
+        Optional.of(searchUrl + "&page_size=1&page_token=MQ"), firstPage.getMetadata().getNext());
+    assertEquals(1, firstPage.getData().size());
+    assertEquals("User:alice", firstPage.getData().get(0).getPrincipal());
+
+    FakeAsyncResponse secondResponse = new FakeAsyncResponse();
+    aclsResource.searchAcls(
+        secondResponse,
+        CLUSTER_ID,
+        Acl.ResourceType.TOPIC,
+        /* resourceName= */ "topic-1",
+        Acl.PatternType.MATCH,
+        /* principal= */ "",
+        /* host= */ "",
+        Acl.Operation.ANY,
+        Acl.Permission.ALLOW,
+        /* pageSize= */ 1,
+        /* pageToken= */ "MQ");
+    AclDataList secondPage = ((SearchAclsResponse) secondResponse.getValue()).getValue();
+
+    assertEquals(searchUrl + "&page_size=1&page_token=MQ", secondPage.getMetadata().getSelf());
+    assertEquals(Optional.empty(), secondPage.getMetadata().getNext());
+    assertEquals(1, secondPage.getData().size());
+    assertEquals("User:bob", secondPage.getData().get(0).getPrincipal());
+  }
+
   @Test
   public void createAcl_createsAcl() {
     expect(
@@ -16,6 +16,7 @@
 package io.confluent.kafkarest.resources.v3;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
@@ -26,6 +27,7 @@ import io.confluent.kafkarest.entities.Broker;
 import io.confluent.kafkarest.entities.Consumer;
 import io.confluent.kafkarest.entities.ConsumerGroup;
 import io.confluent.kafkarest.entities.ConsumerGroup.State;
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.v3.ConsumerGroupData;
 import io.confluent.kafkarest.entities.v3.ConsumerGroupDataList;
@@ -270,7 +272,8 @@ public class ConsumerGroupsResourceTest {
     replay(consumerGroupManager);
 
     FakeAsyncResponse response = new FakeAsyncResponse();
-    consumerGroupsResource.listConsumerGroups(response, CLUSTER_ID);
+    consumerGroupsResource.listConsumerGroups(
+        response, CLUSTER_ID, /* pageSize= */ null, /* pageToken= */ null);
 
     ListConsumerGroupsResponse expected =
         ListConsumerGroupsResponse.create(
@@ -316,6 +319,47 @@ public class ConsumerGroupsResourceTest {
     assertEquals(expected, response.getValue());
   }
 
+  @Test
+  public void listConsumerGroups_withPageSize_returnsPageWithNextLink() {
+    expect(
+        consumerGroupManager.listConsumerGroups(
+            CLUSTER_ID, /* after= */ null, /* pageSize= */ 1))
+        .andReturn(
+            completedFuture(
+                Page.create(singletonList(CONSUMER_GROUPS[0]), "consumer-group-1")));
+    expect(
+        consumerGroupManager.listConsumerGroups(
+            CLUSTER_ID, /* after= */ "consumer-group-1", /* pageSize= */ 1))
+        .andReturn(completedFuture(Page.create(singletonList(CONSUMER_GROUPS[1]), null)));
+    replay(consumerGroupManager);
+
+    FakeAsyncResponse firstResponse = new FakeAsyncResponse();
+    consumerGroupsResource.listConsumerGroups(
+        firstResponse, CLUSTER_ID, /* pageSize= */ 1, /* pageToken= */ null);
+    ConsumerGroupDataList firstPage =
+        ((ListConsumerGroupsResponse) firstResponse.getValue()).getValue();
+
+    assertEquals(
+        "/v3/clusters/cluster-1/consumer-groups?page_size=1", firstPage.getMetadata().getSelf());
+    assertEquals(
+        Optional.of(
+            "/v3/clusters/cluster-1/consumer-groups?page_size=1"
+                + "&page_token=Y29uc3VtZXItZ3JvdXAtMQ"),
+        firstPage.getMetadata().getNext());
+    assertEquals(1, firstPage.getData().size());
+    assertEquals("consumer-group-1", firstPage.getData().get(0).getConsumerGroupId());
+
+    FakeAsyncResponse secondResponse = new FakeAsyncResponse();
+    consumerGroupsResource.listConsumerGroups(
+        secondResponse, CLUSTER_ID, /* pageSize= */ 1, "Y29uc3VtZXItZ3JvdXAtMQ");
+    ConsumerGroupDataList secondPage =
+        ((ListConsumerGroupsResponse) secondResponse.getValue()).getValue();
+
+    assertEquals(Optional.empty(), secondPage.getMetadata().getNext());
+    assertEquals(1, secondPage.getData().size());
+    assertEquals("consumer-group-2", secondPage.getData().get(0).getConsumerGroupId());
+  }
+
   @Test
   public void getConsumerGroup_returnsConsumerGroup() {
     expect(
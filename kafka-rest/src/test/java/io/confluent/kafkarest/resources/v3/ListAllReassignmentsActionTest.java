@@ -17,6 +17,7 @@ package io.confluent.kafkarest.resources.v3;
 
 import static io.confluent.kafkarest.common.CompletableFutures.failedFuture;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.junit.Assert.assertEquals;
@@ -33,7 +34,9 @@ import io.confluent.kafkarest.response.FakeAsyncResponse;
 import io.confluent.kafkarest.response.FakeUrlFactory;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import javax.ws.rs.NotFoundException;
 import org.easymock.EasyMockRule;
 import org.easymock.Mock;
@@ -93,7 +96,8 @@ public class ListAllReassignmentsActionTest {
     replay(reassignmentManager);
 
     FakeAsyncResponse response = new FakeAsyncResponse();
-    listAllReassignmentsAction.listReassignments(response, CLUSTER_ID);
+    listAllReassignmentsAction.listReassignments(
+        response, CLUSTER_ID, /* pageSize= */ null, /* pageToken= */ null);
 
     ListAllReassignmentsResponse expected =
         ListAllReassignmentsResponse.create(
@@ -166,6 +170,49 @@ public class ListAllReassignmentsActionTest {
     assertEquals(expected, response.getValue());
   }
 
+  @Test
+  public void listAllReassignments_withPageSize_returnsSortedPageWithNextLink() {
+    expect(reassignmentManager.listReassignments(CLUSTER_ID))
+        .andReturn(
+            CompletableFuture.completedFuture(
+                asList(REASSIGNMENT_3, REASSIGNMENT_1, REASSIGNMENT_2)))
+        .times(2);
+    replay(reassignmentManager);
+
+    FakeAsyncResponse firstResponse = new FakeAsyncResponse();
+    listAllReassignmentsAction.listReassignments(
+        firstResponse, CLUSTER_ID, /* pageSize= */ 2, /* pageToken= */ null);
+    ReassignmentDataList firstPage =
+        ((ListAllReassignmentsResponse) firstResponse.getValue()).getValue();
+
+    assertEquals(
+        "/v3/clusters/cluster-1/topics/-/partitions/-/reassignments?page_size=2",
+        firstPage.getMetadata().getSelf());
+    assertEquals(
+        Optional.of(
+            "/v3/clusters/cluster-1/topics/-/partitions/-/reassignments?page_size=2"
+                + "&page_token=Mg"),
+        firstPage.getMetadata().getNext());
+    assertEquals(
+        asList(PARTITION_ID_1, PARTITION_ID_2),
+        firstPage.getData().stream()
+            .map(ReassignmentData::getPartitionId)
+            .collect(Collectors.toList()));
+
+    FakeAsyncResponse secondResponse = new FakeAsyncResponse();
+    listAllReassignmentsAction.listReassignments(
+        secondResponse, CLUSTER_ID, /* pageSize= */ 2, "Mg");
+    ReassignmentDataList secondPage =
+        ((ListAllReassignmentsResponse) secondResponse.getValue()).getValue();
+
+    assertEquals(Optional.empty(), secondPage.getMetadata().getNext());
+    assertEquals(
+        singletonList(PARTITION_ID_3),
+        secondPage.getData().stream()
+            .map(ReassignmentData::getPartitionId)
+            .collect(Collectors.toList()));
+  }
+
   @Test
   public void listAllReassignments_nonExistingCluster_throwsNotFound() {
     expect(reassignmentManager.listReassignments(CLUSTER_ID))
@@ -173,7 +220,8 @@ public class ListAllReassignmentsActionTest {
     replay(reassignmentManager);
 
     FakeAsyncResponse response = new FakeAsyncResponse();
-    listAllReassignmentsAction.listReassignments(response, CLUSTER_ID);
+    listAllReassignmentsAction.listReassignments(
+        response, CLUSTER_ID, /* pageSize= */ null, /* pageToken= */ null);
 
     assertEquals(NotFoundException.class, response.getException().getClass());
   }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.resources.v3;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.confluent.kafkarest.entities.Page;
+import io.confluent.kafkarest.entities.v3.ResourceCollection;
+import io.confluent.kafkarest.response.FakeUrlFactory;
+import io.confluent.kafkarest.response.UrlBuilder;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.ws.rs.BadRequestException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PaginationTest {
+
+  private static final Supplier<UrlBuilder> COLLECTION_URL =
+      () -> new FakeUrlFactory().newUrlBuilder().appendPathSegment("v3").appendPathSegment("items");
+
+  @Test
+  public void isPaginated_pageSizeOrToken_returnsTrue() {
+    assertFalse(Pagination.isPaginated(/* pageSize= */ null, /* pageToken= */ null));
+    assertTrue(Pagination.isPaginated(/* pageSize= */ 10, /* pageToken= */ null));
+    assertTrue(Pagination.isPaginated(/* pageSize= */ null, /* pageToken= */ "MQ"));
+  }
+
+  @Test
+  public void getPageSize_nullPageSize_returnsDefault() {
+    assertEquals(Pagination.DEFAULT_PAGE_SIZE, Pagination.getPageSize(/* pageSize= */ null));
+  }
+
+  @Test
+  public void getPageSize_maxPageSize_returnsPageSize() {
+    assertEquals(Pagination.MAX_PAGE_SIZE, Pagination.getPageSize(Pagination.MAX_PAGE_SIZE));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void getPageSize_zero_throwsBadRequest() {
+    Pagination.getPageSize(0);
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void getPageSize_negative_throwsBadRequest() {
+    Pagination.getPageSize(-1);
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void getPageSize_overMaxPageSize_throwsBadRequest() {
+    Pagination.getPageSize(Pagination.MAX_PAGE_SIZE + 1);
+  }
+
+  @Test
+  public void decodePageToken_noToken_returnsNull() {
+    assertNull(Pagination.decodePageToken(/* pageToken= */ null));
+    assertNull(Pagination.decodePageToken(""));
+  }
+
+  @Test
+  public void decodePageToken_encodedToken_returnsKey() {
+    assertEquals("topic-1", Pagination.decodePageToken(Pagination.encodePageToken("topic-1")));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void decodePageToken_malformedToken_throwsBadRequest() {
+    Pagination.decodePageToken("not base64!");
+  }
+
+  @Test
+  public void decodePageOffset_noToken_returnsZero() {
+    assertEquals(0, Pagination.decodePageOffset(/* pageToken= */ null));
+  }
+
+  @Test
+  public void decodePageOffset_encodedOffset_returnsOffset() {
+    assertEquals(42, Pagination.decodePageOffset(Pagination.encodePageToken("42")));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void decodePageOffset_negativeOffset_throwsBadRequest() {
+    Pagination.decodePageOffset(Pagination.encodePageToken("-1"));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void decodePageOffset_notANumber_throwsBadRequest() {
+    Pagination.decodePageOffset(Pagination.encodePageToken("topic-1"));
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void decodePageOffset_malformedToken_throwsBadRequest() {
+    Pagination.decodePageOffset("not base64!");
+  }
+
+  @Test
+  public void createMetadata_firstPageWithNextPage_linksToNextPage() {
+    ResourceCollection.Metadata metadata =
+        Pagination.createMetadata(
+            COLLECTION_URL,
+            /* pageSize= */ 1,
+            /* pageToken= */ null,
+            Page.create(singletonList("item-1"), "item-1"));
+
+    assertEquals("/v3/items?page_size=1", metadata.getSelf());
+    assertEquals(
+        Optional.of("/v3/items?page_size=1&page_token=aXRlbS0x"), metadata.getNext());
+  }
+
+  @Test
+  public void createMetadata_lastPage_hasNoNextLink() {
+    ResourceCollection.Metadata metadata =
+        Pagination.createMetadata(
+            COLLECTION_URL,
+            /* pageSize= */ 1,
+            /* pageToken= */ "aXRlbS0x",
+            Page.create(singletonList("item-2"), /* nextPageKey= */ null));
+
+    assertEquals("/v3/items?page_size=1&page_token=aXRlbS0x", metadata.getSelf());
+    assertEquals(Optional.empty(), metadata.getNext());
+  }
+}
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import io.confluent.kafkarest.controllers.TopicManager;
+import io.confluent.kafkarest.entities.Page;
 import io.confluent.kafkarest.entities.Partition;
 import io.confluent.kafkarest.entities.PartitionReplica;
 import io.confluent.kafkarest.entities.Topic;
@@ -341,7 +342,7 @@ public class TopicsResourceTest {
     replay(topicManager);
 
     FakeAsyncResponse response = new FakeAsyncResponse();
-    topicsResource.listTopics(response, CLUSTER_ID);
+    topicsResource.listTopics(response, CLUSTER_ID, /* pageSize= */ null, /* pageToken= */ null);
 
     ListTopicsResponse expected =
         ListTopicsResponse.create(
@@ -420,6 +421,33 @@ public class TopicsResourceTest {
     assertEquals(expected, response.getValue());
   }
 
+  @Test
+  public void listTopics_withPageSize_returnsPageWithNextLink() {
+    expect(topicManager.listTopics(CLUSTER_ID, /* after= */ null, /* pageSize= */ 2))
+        .andReturn(completedFuture(Page.create(Arrays.asList(TOPIC_1, TOPIC_2), "topic-2")));
+    expect(topicManager.listTopics(CLUSTER_ID, /* after= */ "topic-2", /* pageSize= */ 2))
+        .andReturn(completedFuture(Page.create(singletonList(TOPIC_3), null)));
+    replay(topicManager);
+
+    FakeAsyncResponse firstResponse = new FakeAsyncResponse();
+    topicsResource.listTopics(firstResponse, CLUSTER_ID, /* pageSize= */ 2, /* pageToken= */ null);
+    TopicDataList firstPage = ((ListTopicsResponse) firstResponse.getValue()).getValue();
+
+    assertEquals(
+        "/v3/clusters/cluster-1/topics?page_size=2", firstPage.getMetadata().getSelf());
+    assertEquals(
+        Optional.of("/v3/clusters/cluster-1/topics?page_size=2&page_token=dG9waWMtMg"),
+        firstPage.getMetadata().getNext());
+    assertEquals(2, firstPage.getData().size());
+
+    FakeAsyncResponse secondResponse = new FakeAsyncResponse();
+    topicsResource.listTopics(secondResponse, CLUSTER_ID, 2, "dG9waWMtMg");
+    TopicDataList secondPage = ((ListTopicsResponse) secondResponse.getValue()).getValue();
+
+    assertEquals(Optional.empty(), secondPage.getMetadata().getNext());
+    assertEquals(1, secondPage.getData().size());
+  }
+
   @Test
   public void listTopics_timeoutException_returnsTimeoutException() {
     expect(topicManager.listTopics(CLUSTER_ID))
@@ -427,7 +455,7 @@ public class TopicsResourceTest {
     replay(topicManager);
 
     FakeAsyncResponse response = new FakeAsyncResponse();
-    topicsResource.listTopics(response, CLUSTER_ID);
+    topicsResource.listTopics(response, CLUSTER_ID, /* pageSize= */ null, /* pageToken= */ null);
 
     assertEquals(TimeoutException.class, response.getException().getClass());
   }
@@ -439,7 +467,7 @@ public class TopicsResourceTest {
     replay(topicManager);
 
     FakeAsyncResponse response = new FakeAsyncResponse();
-    topicsResource.listTopics(response, CLUSTER_ID);
+    topicsResource.listTopics(response, CLUSTER_ID, /* pageSize= */ null, /* pageToken= */ null);
 
     assertEquals(NotFoundException.class, response.getException().getClass());
   }
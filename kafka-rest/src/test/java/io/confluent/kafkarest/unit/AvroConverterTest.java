@@ -16,6 +16,7 @@
 package io.confluent.kafkarest.unit;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.TextNode;
 
@@ -252,6 +253,42 @@ public class AvroConverterTest {
     }
   }
 
+  @Test
+  public void testRecursiveRecordToAvro() {
+    Schema listSchema = new Schema.Parser().parse(
+        "{\"type\": \"record\",\n"
+        + " \"name\": \"Node\",\n"
+        + " \"fields\": [\n"
+        + "     {\"name\": \"value\", \"type\": \"int\"},\n"
+        + "     {\"name\": \"next\", \"type\": [\"null\", \"Node\"]}\n"
+        + "]}");
+
+    Object result = new AvroConverter().toObject(
+        TestUtils.jsonTree(
+            "{\"value\": 1, \"next\": {\"Node\": {\"value\": 2, \"next\": null}}}"),
+        listSchema);
+    GenericRecord first = (GenericRecord) result;
+    assertEquals(1, first.get("value"));
+    GenericRecord second = (GenericRecord) first.get("next");
+    assertEquals(2, second.get("value"));
+    assertEquals(null, second.get("next"));
+
+    expectConversionException(TestUtils.jsonTree("{\"value\": 1}"), listSchema);
+    expectConversionException(
+        TestUtils.jsonTree("{\"value\": 1, \"next\": {\"Other\": {}}}"), listSchema);
+  }
+
+  @Test
+  public void testRepeatedConversionReusesSchema() {
+    AvroConverter converter = new AvroConverter();
+    for (int i = 0; i < 3; i++) {
+      GenericRecord result = (GenericRecord) converter.toObject(
+          TestUtils.jsonTree("{\"union\": {\"int\": " + i + "}}"), unionSchema);
+      assertEquals(i, result.get("union"));
+    }
+    expectConversionException(TestUtils.jsonTree("{\"union\": {\"long\": 1}}"), unionSchema);
+  }
+
   @Test
   public void testEnumToAvro() {
     Object result = new AvroConverter().toObject(TestUtils.jsonTree("\"SPADES\""), enumSchema);
@@ -337,6 +374,28 @@ public class AvroConverterTest {
     assertEquals("string", result.getJson().get("string").textValue());
   }
 
+  @Test
+  public void testRecordToRawJson() throws Exception {
+    GenericRecord data = new GenericRecordBuilder(recordSchema)
+        .set("null", null)
+        .set("boolean", true)
+        .set("int", 12)
+        .set("long", 5000000000L)
+        .set("float", 23.4f)
+        .set("double", 800.25)
+        .set("bytes", ByteBuffer.wrap("bytes".getBytes()))
+        .set("string", "string")
+        .build();
+
+    AvroConverter.JsonNodeAndSize tree = new AvroConverter().toJson(data);
+    AvroConverter.JsonNodeAndSize raw = new AvroConverter().toRawJson(data);
+    assertEquals(tree.getSize(), raw.getSize());
+    // Written as it was encoded, which reads back as the same tree.
+    byte[] written = new ObjectMapper().writeValueAsBytes(raw.getJson());
+    assertEquals(raw.getSize(), written.length);
+    assertEquals(tree.getJson(), new ObjectMapper().readTree(written));
+  }
+
   @Test
   public void testArrayToJson() {
     GenericData.Array<String>
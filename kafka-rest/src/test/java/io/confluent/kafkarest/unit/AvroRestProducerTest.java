@@ -15,6 +15,8 @@
 
 package io.confluent.kafkarest.unit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -26,17 +28,25 @@ import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import io.confluent.kafkarest.Errors;
 import io.confluent.kafkarest.ProduceTask;
 import io.confluent.kafkarest.ProducerPool;
+import io.confluent.kafkarest.SchemaCache;
 import io.confluent.kafkarest.SchemaRestProducer;
 import io.confluent.kafkarest.converters.AvroConverter;
 import io.confluent.kafkarest.entities.ProduceRecord;
 import io.confluent.kafkarest.entities.ProduceRequest;
 import io.confluent.rest.exceptions.RestConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import javax.validation.ConstraintViolationException;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
@@ -115,12 +125,11 @@ public class AvroRestProducerTest {
             + "\"fields\": [{\"name\": \"name\", \"type\": \"string\"}]"
             + "}";
     final ParsedSchema valueSchema = new AvroSchema(valueSchemaStr);
-    // This is the key part of the test, we should only call register once with the same schema, and then see the lookup
-    // by ID the rest of the times
+    // This is the key part of the test, we should only call register once with the same schema,
+    // and then resolve it from the cache the rest of the times
     EasyMock.expect(
-        valueSerializer.register(EasyMock.isA(String.class), EasyMock.isA(ParsedSchema.class)))
+        valueSerializer.register(EasyMock.eq("test-value"), EasyMock.eq(valueSchema)))
         .andReturn(schemaId);
-    EasyMock.expect(valueSerializer.getSchemaById(schemaId)).andReturn(valueSchema).times(9999);
     EasyMock.replay(valueSerializer);
     Future f = EasyMock.createMock(Future.class);
     EasyMock.expect(
@@ -142,6 +151,143 @@ public class AvroRestProducerTest {
           /* partition= */ null,
           schemaHolder.getRecords());
     }
+    EasyMock.verify(valueSerializer);
+  }
+
+  @Test
+  public void testSameSchemaOnDifferentTopics_registersPerSubject() throws Exception {
+    final String valueSchemaStr = "\"int\"";
+    EasyMock.expect(
+        valueSerializer.register(EasyMock.eq("topic1-value"), EasyMock.isA(ParsedSchema.class)))
+        .andReturn(1);
+    EasyMock.expect(
+        valueSerializer.register(EasyMock.eq("topic2-value"), EasyMock.isA(ParsedSchema.class)))
+        .andReturn(2);
+    EasyMock.replay(valueSerializer);
+    EasyMock.expect(
+        producer.send(EasyMock.isA(ProducerRecord.class), EasyMock.isA(Callback.class)))
+        .andStubReturn(EasyMock.createMock(Future.class));
+    EasyMock.replay(producer);
+    schemaHolder =
+        ProduceRequest.create(
+            Collections.singletonList(ProduceRecord.create(null, mapper.readTree("1"), null)),
+            /* keySchema= */ null,
+            /* keySchemaId= */ null,
+            valueSchemaStr,
+            /* valueSchemaId= */ null);
+    for (int i = 0; i < 10; ++i) {
+      for (String topic : Arrays.asList("topic1", "topic2")) {
+        restProducer.produce(
+            new ProduceTask(schemaHolder, 1, produceCallback),
+            topic,
+            /* partition= */ null,
+            schemaHolder.getRecords());
+      }
+    }
+    EasyMock.verify(valueSerializer);
+  }
+
+  @Test
+  public void testRepeatedSchemaId_looksUpSchemaOnce() throws Exception {
+    final int schemaId = 1;
+    EasyMock.expect(valueSerializer.getSchemaById(schemaId)).andReturn(new AvroSchema("\"int\""));
+    EasyMock.replay(valueSerializer);
+    EasyMock.expect(
+        producer.send(EasyMock.isA(ProducerRecord.class), EasyMock.isA(Callback.class)))
+        .andStubReturn(EasyMock.createMock(Future.class));
+    EasyMock.replay(producer);
+    schemaHolder =
+        ProduceRequest.create(
+            Collections.singletonList(ProduceRecord.create(null, mapper.readTree("1"), null)),
+            /* keySchema= */ null,
+            /* keySchemaId= */ null,
+            /* valueSchema= */ null,
+            schemaId);
+    for (int i = 0; i < 10; ++i) {
+      restProducer.produce(
+          new ProduceTask(schemaHolder, 1, produceCallback),
+          /* topic= */ "test",
+          /* partition= */ null,
+          schemaHolder.getRecords());
+    }
+    EasyMock.verify(valueSerializer);
+  }
+
+  @Test
+  public void testParallelConversion_sendsAllRecordsInOrder() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      restProducer = parallelRestProducer(executor);
+      EasyMock.expect(valueSerializer.getSchemaById(1)).andReturn(new AvroSchema("\"int\""));
+      EasyMock.replay(valueSerializer);
+      Capture<ProducerRecord<Object, Object>> sent = Capture.newInstance(CaptureType.ALL);
+      EasyMock.expect(producer.send(EasyMock.capture(sent), EasyMock.isA(Callback.class)))
+          .andReturn(EasyMock.createMock(Future.class))
+          .times(100);
+      EasyMock.replay(producer);
+
+      List<ProduceRecord<JsonNode, JsonNode>> records = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        records.add(ProduceRecord.create(null, mapper.readTree(Integer.toString(i)), null));
+      }
+      schemaHolder = ProduceRequest.create(records, null, null, null, /* valueSchemaId= */ 1);
+      restProducer.produce(
+          new ProduceTask(schemaHolder, records.size(), produceCallback),
+          /* topic= */ "test",
+          /* partition= */ null,
+          records);
+
+      EasyMock.verify(producer);
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i, sent.getValues().get(i).value());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelConversion_invalidRecord_sendsNothing() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      restProducer = parallelRestProducer(executor);
+      EasyMock.expect(valueSerializer.getSchemaById(1)).andReturn(new AvroSchema("\"int\""));
+      EasyMock.replay(valueSerializer);
+      EasyMock.replay(producer);
+
+      List<ProduceRecord<JsonNode, JsonNode>> records = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        records.add(
+            ProduceRecord.create(null, mapper.readTree(i == 77 ? "\"oops\"" : "1"), null));
+      }
+      schemaHolder = ProduceRequest.create(records, null, null, null, /* valueSchemaId= */ 1);
+      try {
+        restProducer.produce(
+            new ProduceTask(schemaHolder, records.size(), produceCallback),
+            /* topic= */ "test",
+            /* partition= */ null,
+            records);
+        fail("Expected the conversion to fail.");
+      } catch (RestConstraintViolationException e) {
+        assertTrue(e.getMessage().startsWith(Errors.JSON_CONVERSION_MESSAGE));
+      }
+      // No sends expected.
+      EasyMock.verify(producer);
+    } finally {
+      executor.shutdown();
+    }
+  }
 
+  private SchemaRestProducer parallelRestProducer(ExecutorService executor) {
+    return new SchemaRestProducer(
+        producer,
+        keySerializer,
+        valueSerializer,
+        new AvroSchemaProvider(),
+        new AvroConverter(),
+        new SchemaCache(100),
+        executor,
+        /* conversionParallelism= */ 2,
+        /* parallelConversionThreshold= */ 10);
   }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.confluent.kafkarest.ProduceTask;
+import io.confluent.kafkarest.RecordMetadataOrException;
+import io.confluent.kafkarest.entities.ProduceRecord;
+import io.confluent.kafkarest.entities.ProduceRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+public class ProduceTaskTest {
+
+  private static final TopicPartition TOPIC_PARTITION = new TopicPartition("topic", 0);
+
+  private static final ProduceRequest<byte[], byte[]> PRODUCE_REQUEST =
+      ProduceRequest.create(
+          Collections.singletonList(
+              ProduceRecord.<byte[], byte[]>create(null, new byte[0], null)),
+          /* keySchema= */ null,
+          /* keySchemaId= */ null,
+          /* valueSchema= */ null,
+          /* valueSchemaId= */ null);
+
+  private final AtomicInteger numCallbacks = new AtomicInteger();
+  private final AtomicReference<List<RecordMetadataOrException>> results =
+      new AtomicReference<>();
+
+  @Test
+  public void outOfOrderAcks_resultsKeepSendOrder() {
+    ProduceTask task =
+        new ProduceTask(
+            PRODUCE_REQUEST,
+            /* numRecords= */ 3,
+            (keySchemaId, valueSchemaId, results) -> {
+              numCallbacks.incrementAndGet();
+              this.results.set(results);
+            });
+    Callback first = task.createCallback();
+    Callback second = task.createCallback();
+    Callback third = task.createCallback();
+
+    KafkaException error = new KafkaException("error");
+    third.onCompletion(recordMetadata(2L), null);
+    first.onCompletion(null, error);
+    assertEquals(0, numCallbacks.get());
+    second.onCompletion(recordMetadata(1L), null);
+
+    assertEquals(1, numCallbacks.get());
+    assertEquals(3, results.get().size());
+    assertNull(results.get().get(0).getRecordMetadata());
+    assertSame(error, results.get().get(0).getException());
+    assertEquals(1L, results.get().get(1).getRecordMetadata().offset());
+    assertEquals(2L, results.get().get(2).getRecordMetadata().offset());
+  }
+
+  @Test
+  public void concurrentAcks_callbackRunsOnce() throws Exception {
+    int numRecords = 500;
+    ProduceTask task =
+        new ProduceTask(
+            PRODUCE_REQUEST,
+            numRecords,
+            (keySchemaId, valueSchemaId, results) -> {
+              numCallbacks.incrementAndGet();
+              this.results.set(results);
+            });
+    List<Callback> callbacks = new ArrayList<>();
+    for (int i = 0; i < numRecords; i++) {
+      callbacks.add(task.createCallback());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < numRecords; i++) {
+      Callback callback = callbacks.get(i);
+      long offset = i;
+      executor.execute(() -> callback.onCompletion(recordMetadata(offset), null));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(1, numCallbacks.get());
+    for (int i = 0; i < numRecords; i++) {
+      assertEquals(i, results.get().get(i).getRecordMetadata().offset());
+    }
+  }
+
+  @Test
+  public void completionExecutor_runsCallback() {
+    List<Runnable> submitted = new ArrayList<>();
+    ProduceTask task =
+        new ProduceTask(
+            PRODUCE_REQUEST,
+            /* numRecords= */ 1,
+            (keySchemaId, valueSchemaId, results) -> numCallbacks.incrementAndGet(),
+            submitted::add);
+    task.setSchemaIds(1, 2);
+
+    task.createCallback().onCompletion(recordMetadata(0L), null);
+    assertEquals(0, numCallbacks.get());
+    assertEquals(1, submitted.size());
+
+    submitted.get(0).run();
+    assertEquals(1, numCallbacks.get());
+  }
+
+  @Test
+  public void onAcknowledged_runsBeforeCompletionExecutor() {
+    AtomicInteger numAcknowledged = new AtomicInteger();
+    List<Runnable> submitted = new ArrayList<>();
+    ProduceTask task =
+        new ProduceTask(
+            PRODUCE_REQUEST,
+            /* numRecords= */ 2,
+            numAcknowledged::incrementAndGet,
+            (keySchemaId, valueSchemaId, results) -> numCallbacks.incrementAndGet(),
+            submitted::add);
+    Callback first = task.createCallback();
+    Callback second = task.createCallback();
+
+    first.onCompletion(recordMetadata(0L), null);
+    assertEquals(0, numAcknowledged.get());
+    second.onCompletion(recordMetadata(1L), null);
+    assertEquals(1, numAcknowledged.get());
+    assertEquals(0, numCallbacks.get());
+
+    submitted.get(0).run();
+    assertEquals(1, numAcknowledged.get());
+    assertEquals(1, numCallbacks.get());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void tooManyRecords_throwsIllegalState() {
+    ProduceTask task =
+        new ProduceTask(
+            PRODUCE_REQUEST,
+            /* numRecords= */ 1,
+            (keySchemaId, valueSchemaId, results) -> numCallbacks.incrementAndGet());
+    task.createCallback();
+    task.createCallback();
+  }
+
+  private static RecordMetadata recordMetadata(long offset) {
+    return new RecordMetadata(TOPIC_PARTITION, offset, 0L, 0L, 0L, 1, 1);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafkarest.ConsumerInstanceId;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.SystemTime;
+import io.confluent.kafkarest.entities.v2.JsonConsumerRecord;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.junit.Test;
+
+public class JsonKafkaConsumerStateTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Test
+  public void passthrough_validJson_writtenVerbatim() throws Exception {
+    JsonKafkaConsumerState state = createState(/* passthrough= */ true);
+
+    String json = toResponseJson(state, "{\"a\": [1, 2.50, \"x\"]}");
+
+    assertEquals(
+        "{\"topic\":\"topic\",\"key\":null,\"value\":{\"a\": [1, 2.50, \"x\"]},"
+            + "\"partition\":0,\"offset\":0}",
+        json);
+  }
+
+  @Test
+  public void passthrough_invalidJson_replacedByErrorMarker() throws Exception {
+    JsonKafkaConsumerState state = createState(/* passthrough= */ true);
+
+    String json = toResponseJson(state, "{\"a\": ");
+
+    assertEquals(
+        42203, OBJECT_MAPPER.readTree(json).get("value").get("error_code").intValue());
+  }
+
+  @Test
+  public void noPassthrough_reencodesJson() throws Exception {
+    JsonKafkaConsumerState state = createState(/* passthrough= */ false);
+
+    String json = toResponseJson(state, "{\"a\": [1, 2.50, \"x\"]}");
+
+    assertEquals(
+        "{\"topic\":\"topic\",\"key\":null,\"value\":{\"a\":[1,2.5,\"x\"]},"
+            + "\"partition\":0,\"offset\":0}",
+        json);
+  }
+
+  @Test
+  public void isValidJson() {
+    assertTrue(JsonKafkaConsumerState.isValidJson("\"x\"".getBytes(StandardCharsets.UTF_8)));
+    assertTrue(JsonKafkaConsumerState.isValidJson("[{}, null]".getBytes(StandardCharsets.UTF_8)));
+    assertFalse(JsonKafkaConsumerState.isValidJson("".getBytes(StandardCharsets.UTF_8)));
+    assertFalse(JsonKafkaConsumerState.isValidJson("{} {}".getBytes(StandardCharsets.UTF_8)));
+    assertFalse(JsonKafkaConsumerState.isValidJson("[1,".getBytes(StandardCharsets.UTF_8)));
+    assertFalse(JsonKafkaConsumerState.isValidJson("\"x\"".getBytes(StandardCharsets.UTF_16)));
+    assertFalse(JsonKafkaConsumerState.isValidJson("\"x\"".getBytes(StandardCharsets.UTF_16LE)));
+    assertFalse(JsonKafkaConsumerState.isValidJson(new byte[] {'"', (byte) 0xc3, '"'}));
+    assertTrue(
+        JsonKafkaConsumerState.isValidJson(
+            "\"\u00e9\u4e2d\ud83d\ude00\"".getBytes(StandardCharsets.UTF_8)));
+    assertFalse(JsonKafkaConsumerState.isValidJson("\"x\"".getBytes(Charset.forName("UTF-32"))));
+    assertFalse(JsonKafkaConsumerState.isValidJson(new byte[] {'"', 0, '"'}));
+    // Surrogates, overlong encodings and byte order marks.
+    assertFalse(
+        JsonKafkaConsumerState.isValidJson(
+            new byte[] {'"', (byte) 0xed, (byte) 0xa0, (byte) 0x80, '"'}));
+    assertFalse(
+        JsonKafkaConsumerState.isValidJson(new byte[] {'"', (byte) 0xc0, (byte) 0xa2, '"'}));
+    assertFalse(
+        JsonKafkaConsumerState.isValidJson(
+            new byte[] {(byte) 0xef, (byte) 0xbb, (byte) 0xbf, '"', 'x', '"'}));
+  }
+
+  private static JsonKafkaConsumerState createState(boolean passthrough) {
+    Properties props = new Properties();
+    props.setProperty(KafkaRestConfig.BOOTSTRAP_SERVERS_CONFIG, "PLAINTEXT://hostname:9092");
+    props.setProperty(
+        KafkaRestConfig.CONSUMER_JSON_PASSTHROUGH_ENABLE_CONFIG, String.valueOf(passthrough));
+    return new JsonKafkaConsumerState(
+        new KafkaRestConfig(props, new SystemTime()),
+        new ConsumerInstanceId("group", "instance"),
+        new MockConsumer<>(OffsetResetStrategy.EARLIEST, "group"));
+  }
+
+  private static String toResponseJson(JsonKafkaConsumerState state, String value)
+      throws Exception {
+    // Written as bytes, like responses are, rather than through a character writer.
+    byte[] json =
+        OBJECT_MAPPER.writeValueAsBytes(
+            JsonConsumerRecord.fromConsumerRecord(
+                state.createConsumerRecord(
+                    new ConsumerRecord<>(
+                        "topic", 0, 0, null, value.getBytes(StandardCharsets.UTF_8)))
+                    .getRecord()));
+    return new String(json, StandardCharsets.UTF_8);
+  }
+}
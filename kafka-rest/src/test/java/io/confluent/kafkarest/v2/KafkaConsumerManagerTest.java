@@ -32,16 +32,23 @@ import io.confluent.kafkarest.entities.EmbeddedFormat;
 import io.confluent.kafkarest.entities.TopicPartitionOffset;
 import io.confluent.kafkarest.entities.v2.ConsumerOffsetCommitRequest;
 import io.confluent.kafkarest.entities.v2.ConsumerSubscriptionRecord;
+import io.confluent.rest.exceptions.RestConstraintViolationException;
+import io.confluent.rest.exceptions.RestException;
+import io.confluent.rest.exceptions.RestNotFoundException;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
@@ -174,6 +181,39 @@ public class KafkaConsumerManagerTest {
         EasyMock.verify(consumerFactory);
     }
 
+    @Test
+    public void createConsumer_multiplexedGroup_disablesAutoCommit() {
+        Properties props = setUpProperties();
+        props.setProperty(KafkaRestConfig.CONSUMER_MULTIPLEX_GROUPS_CONFIG, groupName);
+        props.setProperty("consumer.enable.auto.commit", "true");
+        setUpConsumer(props);
+        expectCreate(consumer);
+
+        consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+
+        assertEquals("false", capturedConsumerConfig.getValue().get("enable.auto.commit"));
+    }
+
+    @Test(expected = RestConstraintViolationException.class)
+    public void createConsumer_multiplexedGroupWithAutoCommit_throws() {
+        Properties props = setUpProperties();
+        props.setProperty(KafkaRestConfig.CONSUMER_MULTIPLEX_GROUPS_CONFIG, groupName);
+        setUpConsumer(props);
+        expectCreate(consumer);
+
+        consumerManager.createConsumer(
+            groupName,
+            ConsumerInstanceConfig.create(
+                /* id= */ null,
+                /* name= */ null,
+                EmbeddedFormat.BINARY,
+                /* autoOffsetReset= */ null,
+                /* autoCommitEnable= */ "true",
+                /* responseMinBytes= */ null,
+                /* requestWaitMs= */ null));
+    }
+
     /**
      * Response should return no sooner than KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG
      */
@@ -382,54 +422,63 @@ public class KafkaConsumerManagerTest {
     }
 
     @Test
-    public void testBackoffMsControlsPollCalls() throws Exception {
+    public void testWaitingReadTaskReleasesThreadBetweenPolls() throws Exception {
         bootstrapConsumer(consumer);
-        consumerManager.readRecords(groupName, consumer.cid(), BinaryKafkaConsumerState.class, -1, Long.MAX_VALUE,
-                new ConsumerReadCallback<ByteString, ByteString>() {
-                    @Override
-                    public void onCompletion(
-                        List<ConsumerRecord<ByteString, ByteString>> records, Exception e) {
-                        actualException = e;
-                        actualRecords = records;
-                        sawCallback = true;
-                    }
-                });
+        long started = System.currentTimeMillis();
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicLong completedAt = new AtomicLong();
+        consumerManager.readRecords(
+            groupName, consumer.cid(), BinaryKafkaConsumerState.class, -1, Long.MAX_VALUE,
+            new ConsumerReadCallback<ByteString, ByteString>() {
+              @Override
+              public void onCompletion(
+                  List<ConsumerRecord<ByteString, ByteString>> records, Exception e) {
+                actualException = e;
+                actualRecords = records;
+                completedAt.set(System.currentTimeMillis());
+                completed.countDown();
+              }
+            });
 
-        // backoff is 250
-        Thread.sleep(100);
-        // backoff should be in place right now. the read task should be delayed and re-ran until the max.bytes or timeout is hit
-        assertEquals(1, consumerManager.delayedReadTasks.size());
-        Thread.sleep(100);
-        assertEquals(1, consumerManager.delayedReadTasks.size());
+        Thread.sleep(300);
+        // Still waiting for more records, but each poll ran as its own task on the single worker
+        // thread, which was handed back to the pool in between.
+        assertEquals("Callback failed early", 1, completed.getCount());
+        assertTrue(((ThreadPoolExecutor) consumerManager.executor).getCompletedTaskCount() > 1);
+
+        assertTrue("Callback failed to fire", completed.await(5, TimeUnit.SECONDS));
+        assertTrue(
+            "Callback fired before the request timeout",
+            completedAt.get() - started
+                >= Integer.parseInt(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_DEFAULT));
+        assertNull("No exception in callback", actualException);
+        assertEquals(3, actualRecords.size());
     }
 
     @Test
-    public void testBackoffMsUpdatesReadTaskExpiry() throws Exception {
-        Properties props = setUpProperties();
-        props.put(KafkaRestConfig.CONSUMER_ITERATOR_BACKOFF_MS_CONFIG, "1000");
-        config = new KafkaRestConfig(props, new SystemTime());
-        consumerManager = new KafkaConsumerManager(config, consumerFactory);
-        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST, groupName);
-        bootstrapConsumer(consumer);
-        consumerManager.readRecords(groupName, consumer.cid(), BinaryKafkaConsumerState.class, -1, Long.MAX_VALUE,
-                new ConsumerReadCallback<ByteString, ByteString>() {
-                    @Override
-                    public void onCompletion(
-                        List<ConsumerRecord<ByteString, ByteString>> records, Exception e) {
-                        actualException = e;
-                        actualRecords = records;
-                        sawCallback = true;
-                    }
-                });
+    public void testRecordsArrivingMidWaitAreReturnedPromptly() throws Exception {
+        Properties props = setUpProperties(new Properties());
+        props.setProperty(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_CONFIG, "5000");
+        props.setProperty(KafkaRestConfig.PROXY_FETCH_MIN_BYTES_CONFIG, "1");
+        setUpConsumer(props);
 
-        Thread.sleep(100);
-        KafkaConsumerManager.RunnableReadTask readTask = consumerManager.delayedReadTasks.peek();
-        if (readTask == null) {
-            fail("Could not get read task in time. It should not be null");
-        }
-        long delay = readTask.getDelay(TimeUnit.MILLISECONDS);
-        assertTrue(delay < 1000);
-        assertTrue(delay > 700);
+        expectCreate(consumer);
+        String cid = consumerManager.createConsumer(
+                groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+        consumerManager.subscribe(groupName, cid, new ConsumerSubscriptionRecord(Collections.singletonList(topicName), null));
+        consumer.rebalance(Collections.singletonList(new TopicPartition(topicName, 0)));
+        consumer.updateBeginningOffsets(singletonMap(new TopicPartition(topicName, 0), 0L));
+
+        readFromDefault(cid);
+        Thread.sleep(300);
+        assertFalse("Callback failed early", sawCallback);
+
+        final List<ConsumerRecord<ByteString, ByteString>> referenceRecords = schedulePoll();
+        // Well before the request timeout.
+        Thread.sleep(300);
+        assertTrue("Callback failed to fire", sawCallback);
+        assertNull("No exception in callback", actualException);
+        assertEquals("Records returned not as expected", referenceRecords, actualRecords);
     }
 
     @Test
@@ -467,6 +516,128 @@ public class KafkaConsumerManagerTest {
         assertTrue(state.expiration > initialExpiration);
     }
 
+    @Test
+    public void testExpiredConsumerIsRemovedAndUsedConsumerIsKept() throws Exception {
+        Properties props = setUpProperties(new Properties());
+        props.setProperty(KafkaRestConfig.CONSUMER_INSTANCE_TIMEOUT_MS_CONFIG, "1500");
+        setUpConsumer(props);
+        MockConsumer<byte[], byte[]> idleConsumer =
+            new MockConsumer<>(OffsetResetStrategy.EARLIEST, groupName);
+        EasyMock.expect(consumerFactory.createConsumer(EasyMock.anyObject()))
+            .andReturn(consumer).andReturn(idleConsumer);
+        EasyMock.replay(consumerFactory);
+        String usedCid = consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+        String idleCid = consumerManager.createConsumer(
+            groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+
+        // Past the first expiration check of both, with only one of them in use.
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(500);
+            consumerManager.getConsumerInstance(groupName, usedCid);
+        }
+
+        assertNotNull(consumerManager.getConsumerInstance(groupName, usedCid));
+        try {
+            consumerManager.getConsumerInstance(groupName, idleCid);
+            fail("Expected the idle consumer to expire");
+        } catch (RestNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDeletedConsumerHasNoExpirationEntry() throws Exception {
+        bootstrapConsumer(consumer);
+        assertEquals(1, consumerManager.expirations.size());
+
+        consumerManager.deleteConsumer(groupName, consumer.cid());
+
+        assertTrue(consumerManager.expirations.isEmpty());
+    }
+
+    @Test(expected = RestException.class)
+    public void testCreateConsumerWithExistingNameFails() {
+        expectCreate(consumer);
+        ConsumerInstanceConfig config =
+            ConsumerInstanceConfig.create(
+                /* id= */ null,
+                /* name= */ "name",
+                EmbeddedFormat.BINARY,
+                /* autoOffsetReset= */ null,
+                /* autoCommitEnable= */ null,
+                /* responseMinBytes= */ null,
+                /* requestWaitMs= */ null);
+        consumerManager.createConsumer(groupName, config);
+        consumerManager.createConsumer(groupName, config);
+    }
+
+    @Test
+    public void testPrefetchBuffersRecordsBetweenReads() throws Exception {
+        Properties props = setUpProperties(new Properties());
+        props.setProperty(KafkaRestConfig.CONSUMER_PREFETCH_MAX_BYTES_CONFIG, "1024");
+        setUpConsumer(props);
+        List<ConsumerRecord<ByteString, ByteString>> referenceRecords = bootstrapConsumer(consumer);
+        KafkaConsumerState<?, ?, ?, ?> state =
+            consumerManager.getConsumerInstance(groupName, consumer.cid());
+
+        // No read request, the records are fetched in the background.
+        Thread.sleep(300);
+        assertTrue(state.hasNextCached());
+
+        readFromDefault(consumer.cid());
+        awaitRead();
+        assertTrue("Callback failed to fire", sawCallback);
+        assertNull("No exception in callback", actualException);
+        assertEquals("Records returned not as expected", referenceRecords, actualRecords);
+    }
+
+    @Test
+    public void testPrefetchStopsWhenBufferIsFull() throws Exception {
+        Properties props = setUpProperties(new Properties());
+        props.setProperty(KafkaRestConfig.CONSUMER_PREFETCH_MAX_BYTES_CONFIG, "1");
+        setUpConsumer(props);
+        expectCreate(consumer);
+        String cid = consumerManager.createConsumer(
+                groupName, ConsumerInstanceConfig.create(EmbeddedFormat.BINARY));
+        consumerManager.subscribe(groupName, cid, new ConsumerSubscriptionRecord(Collections.singletonList(topicName), null));
+        consumer.rebalance(Collections.singletonList(new TopicPartition(topicName, 0)));
+        consumer.updateBeginningOffsets(singletonMap(new TopicPartition(topicName, 0), 0L));
+        for (int poll = 0; poll < 2; poll++) {
+            final int offset = poll;
+            consumer.schedulePollTask(() -> consumer.addRecord(
+                new org.apache.kafka.clients.consumer.ConsumerRecord<>(
+                    topicName, 0, offset, 0L, TimestampType.CREATE_TIME, 0L, 2, 2,
+                    "k".getBytes(), "v".getBytes())));
+        }
+        KafkaConsumerState<?, ?, ?, ?> state = consumerManager.getConsumerInstance(groupName, cid);
+
+        Thread.sleep(300);
+        // Only the first poll went through, the buffer was full after that.
+        assertNotNull(state.next());
+        assertNull(state.next());
+    }
+
+    @Test
+    public void testRecordStreamReturnsBatchesOnCallingThread() throws Exception {
+        List<ConsumerRecord<ByteString, ByteString>> referenceRecords = bootstrapConsumer(consumer);
+
+        ConsumerRecordStream<byte[], byte[], ByteString, ByteString> stream =
+            consumerManager.openRecordStream(
+                groupName, consumer.cid(), BinaryKafkaConsumerState.class, 100, Long.MAX_VALUE);
+        assertEquals("Records returned not as expected", referenceRecords, stream.nextBatch());
+        // Nothing left, the next batch times out empty instead of ending the stream.
+        assertTrue(stream.nextBatch().isEmpty());
+    }
+
+    @Test(expected = RestException.class)
+    public void testRecordStreamFormatMismatchFailsBeforeReading() throws Exception {
+        bootstrapConsumer(consumer);
+
+        consumerManager.openRecordStream(
+            groupName, consumer.cid(), JsonKafkaConsumerState.class, 100, Long.MAX_VALUE);
+    }
+
     private void awaitRead() throws InterruptedException {
         Thread.sleep((long) (Integer.parseInt(KafkaRestConfig.CONSUMER_REQUEST_TIMEOUT_MS_DEFAULT) * 1.10));
     }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.protobuf.ByteString;
+import io.confluent.kafkarest.ConsumerInstanceId;
+import io.confluent.kafkarest.ConsumerRecordAndSize;
+import io.confluent.kafkarest.KafkaRestConfig;
+import io.confluent.kafkarest.SystemTime;
+import io.confluent.kafkarest.entities.v2.ConsumerSeekToOffsetRequest;
+import io.confluent.kafkarest.entities.v2.TopicPartitionOffsetMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaConsumerStateTest {
+
+  private static final TopicPartition PARTITION = new TopicPartition("topic", 0);
+
+  private MockConsumer<byte[], byte[]> consumer;
+  private CountingConsumerState state;
+
+  @Before
+  public void setUp() {
+    Properties props = new Properties();
+    props.setProperty(KafkaRestConfig.BOOTSTRAP_SERVERS_CONFIG, "PLAINTEXT://hostname:9092");
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST, "group");
+    consumer.assign(singletonList(PARTITION));
+    consumer.updateBeginningOffsets(singletonMap(PARTITION, 0L));
+    state =
+        new CountingConsumerState(
+            new KafkaRestConfig(props, new SystemTime()),
+            new ConsumerInstanceId("group", "instance"),
+            consumer);
+  }
+
+  @Test
+  public void peekConverted_sameRecord_convertsOnce() {
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 0, "k1".getBytes(), "v1".getBytes()));
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 1, "k2".getBytes(), "v2".getBytes()));
+    assertTrue(state.hasNext(/* timeoutMs= */ 0));
+
+    ConsumerRecordAndSize<ByteString, ByteString> first = state.peekConverted();
+    assertSame(first, state.peekConverted());
+    assertEquals(1, state.conversions);
+
+    state.next();
+    assertEquals(1L, state.peekConverted().getRecord().getOffset());
+    assertEquals(2, state.conversions);
+  }
+
+  @Test
+  public void pollIfFits_concurrentSeek_waitsForRecordToBeRead() throws Exception {
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 0, "k1".getBytes(), "v1".getBytes()));
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 1, "k2".getBytes(), "v2".getBytes()));
+    assertTrue(state.hasNext(/* timeoutMs= */ 0));
+
+    Thread seek =
+        new Thread(
+            () ->
+                state.seekToOffset(
+                    new ConsumerSeekToOffsetRequest(
+                        singletonList(
+                            new TopicPartitionOffsetMetadata(
+                                "topic", 0, /* offset= */ 5L, /* metadata= */ null)))));
+    AtomicBoolean seekedDuringRead = new AtomicBoolean();
+    state.onConversion =
+        () -> {
+          seek.start();
+          try {
+            seek.join(/* millis= */ 100);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          seekedDuringRead.set(!seek.isAlive());
+        };
+
+    ConsumerRecordAndSize<ByteString, ByteString> read = state.pollIfFits(Long.MAX_VALUE);
+    seek.join();
+
+    assertFalse(seekedDuringRead.get());
+    assertEquals(0L, read.getRecord().getOffset());
+    // The seek dropped the record following the one read, rather than the one read.
+    assertFalse(state.hasNextCached());
+  }
+
+  @Test
+  public void hasNext_moreReadsThanPermits_doesNotDeadlock() throws Exception {
+    Optional<ExecutorService> created =
+        VirtualThreadExecutor.create(/* maxConcurrency= */ 1, task -> true);
+    // Only on JDKs with virtual threads.
+    assumeTrue(created.isPresent());
+    ExecutorService executor = created.get();
+
+    // The first read holds the lock while it polls, until the others are waiting for the lock.
+    CountDownLatch polling = new CountDownLatch(1);
+    consumer.schedulePollTask(
+        () -> {
+          polling.countDown();
+          try {
+            Thread.sleep(200);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    List<Future<Boolean>> reads = new ArrayList<>();
+    reads.add(executor.submit(() -> state.hasNext(/* timeoutMs= */ 0)));
+    assertTrue(polling.await(10, TimeUnit.SECONDS));
+    for (int i = 0; i < 3; i++) {
+      reads.add(executor.submit(() -> state.hasNext(/* timeoutMs= */ 0)));
+    }
+
+    for (Future<Boolean> read : reads) {
+      assertFalse(read.get(10, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+  }
+
+  private static final class CountingConsumerState extends BinaryKafkaConsumerState {
+
+    private int conversions = 0;
+    // Run, once, when the next record is converted.
+    private Runnable onConversion;
+
+    private CountingConsumerState(
+        KafkaRestConfig config,
+        ConsumerInstanceId instanceId,
+        MockConsumer<byte[], byte[]> consumer) {
+      super(config, instanceId, consumer);
+    }
+
+    @Override
+    public ConsumerRecordAndSize<ByteString, ByteString> createConsumerRecord(
+        ConsumerRecord<byte[], byte[]> record) {
+      conversions++;
+      Runnable hook = onConversion;
+      onConversion = null;
+      if (hook != null) {
+        hook.run();
+      }
+      return super.createConsumerRecord(record);
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedConsumerTest {
+
+  private static final TopicPartition PARTITION_0 = new TopicPartition("topic", 0);
+  private static final TopicPartition PARTITION_1 = new TopicPartition("topic", 1);
+
+  private MockConsumer<byte[], byte[]> consumer;
+  private SharedConsumer<byte[], byte[]> shared;
+
+  @Before
+  public void setUp() {
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST, "group");
+    Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+    beginningOffsets.put(PARTITION_0, 0L);
+    beginningOffsets.put(PARTITION_1, 0L);
+    consumer.updateBeginningOffsets(beginningOffsets);
+    shared = new SharedConsumer<>(consumer);
+  }
+
+  @Test
+  public void poll_returnsOnlyRecordsOfAssignedPartitions() {
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(() -> { });
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+    view1.assign(singletonList(PARTITION_1));
+    // Partitions get their initial position on the first poll.
+    view0.poll(Duration.ZERO);
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 0, null, new byte[]{0}));
+    consumer.addRecord(new ConsumerRecord<>("topic", 1, 0, null, new byte[]{1}));
+
+    ConsumerRecords<byte[], byte[]> records0 = view0.poll(Duration.ZERO);
+    // The records of the other instance are kept for it, and its partition paused until then.
+    assertTrue(consumer.paused().contains(PARTITION_1));
+    assertEquals(0, view1.position(PARTITION_1));
+    ConsumerRecords<byte[], byte[]> records1 = view1.poll(Duration.ZERO);
+
+    assertEquals(1, records0.count());
+    assertEquals(singleton(PARTITION_0), records0.partitions());
+    assertEquals(1, records1.count());
+    assertEquals(singleton(PARTITION_1), records1.partitions());
+    assertFalse(consumer.paused().contains(PARTITION_1));
+    assertEquals(1, view1.position(PARTITION_1));
+  }
+
+  @Test
+  public void seek_pausedPartition_resumesPartition() {
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(() -> { });
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+    view1.assign(singletonList(PARTITION_1));
+    view0.poll(Duration.ZERO);
+    consumer.addRecord(new ConsumerRecord<>("topic", 1, 0, null, new byte[]{1}));
+    view0.poll(Duration.ZERO);
+    assertTrue(consumer.paused().contains(PARTITION_1));
+
+    view1.seek(PARTITION_1, 0);
+    consumer.addRecord(new ConsumerRecord<>("topic", 1, 0, null, new byte[]{2}));
+    ConsumerRecords<byte[], byte[]> records = view1.poll(Duration.ZERO);
+
+    assertFalse(consumer.paused().contains(PARTITION_1));
+    assertEquals(1, records.count());
+    assertArrayEquals(new byte[]{2}, records.records(PARTITION_1).get(0).value());
+  }
+
+  @Test
+  public void assign_pausedPartitionOfOtherInstance_resumesPartition() {
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(() -> { });
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+    view1.assign(singletonList(PARTITION_1));
+    view0.poll(Duration.ZERO);
+    consumer.addRecord(new ConsumerRecord<>("topic", 1, 0, null, new byte[]{1}));
+    view0.poll(Duration.ZERO);
+    assertTrue(consumer.paused().contains(PARTITION_1));
+
+    view1.assign(emptyList());
+    view0.assign(Arrays.asList(PARTITION_0, PARTITION_1));
+
+    assertFalse(consumer.paused().contains(PARTITION_1));
+  }
+
+  @Test
+  public void poll_anotherInstanceWaitingForRecords_doesNotBlockOperations() throws Exception {
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(() -> { });
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+    view1.assign(singletonList(PARTITION_1));
+    view0.poll(Duration.ZERO);
+
+    CompletableFuture<ConsumerRecords<byte[], byte[]>> waiting =
+        CompletableFuture.supplyAsync(() -> view0.poll(Duration.ofSeconds(30)));
+    // Neither waits for the other instance's poll to time out.
+    view1.seek(PARTITION_1, 0);
+    assertEquals(0, view1.position(PARTITION_1));
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 0, null, new byte[]{0}));
+
+    assertEquals(1, waiting.get(10, TimeUnit.SECONDS).count());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void assign_partitionOfAnotherInstance_throws() {
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(() -> { });
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+
+    view1.assign(Arrays.asList(PARTITION_0, PARTITION_1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void subscribe_throws() {
+    shared.newView(() -> { }).subscribe(singletonList("topic"));
+  }
+
+  @Test
+  public void commitSync_commitsOnlyAssignedPartitions() {
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(() -> { });
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+    view1.assign(singletonList(PARTITION_1));
+    view0.poll(Duration.ZERO);
+    consumer.addRecord(new ConsumerRecord<>("topic", 0, 0, null, new byte[]{0}));
+    consumer.addRecord(new ConsumerRecord<>("topic", 1, 0, null, new byte[]{1}));
+    view0.poll(Duration.ZERO);
+
+    view0.commitSync();
+
+    assertEquals(1, consumer.committed(singleton(PARTITION_0)).get(PARTITION_0).offset());
+    // The shared consumer is past the record kept for the other instance, which isn't committed.
+    assertNull(consumer.committed(singleton(PARTITION_1)).get(PARTITION_1));
+  }
+
+  @Test
+  public void close_unassignsPartitionsOnce() {
+    AtomicInteger closed = new AtomicInteger();
+    MultiplexedConsumer<byte[], byte[]> view0 = shared.newView(closed::incrementAndGet);
+    MultiplexedConsumer<byte[], byte[]> view1 = shared.newView(() -> { });
+    view0.assign(singletonList(PARTITION_0));
+    view1.assign(singletonList(PARTITION_1));
+
+    view0.close();
+    view0.close();
+
+    assertEquals(1, closed.get());
+    assertEquals(singleton(PARTITION_1), consumer.assignment());
+    assertEquals(1, shared.getViewCount());
+    assertFalse(consumer.closed());
+  }
+}
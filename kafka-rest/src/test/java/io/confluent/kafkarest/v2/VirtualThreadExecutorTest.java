@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafkarest.v2;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class VirtualThreadExecutorTest {
+
+  @Test
+  public void execute_moreTasksThanLimit_runsAtMostLimitAtOnce() throws Exception {
+    Optional<ExecutorService> created =
+        VirtualThreadExecutor.create(/* maxConcurrency= */ 2, task -> true);
+    // Only on JDKs with virtual threads.
+    assumeTrue(created.isPresent());
+    ExecutorService executor = created.get();
+
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(20);
+    for (int i = 0; i < 20; i++) {
+      executor.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(10);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertTrue(maxRunning.get() <= 2);
+    executor.shutdown();
+  }
+
+  @Test
+  public void execute_limitedTaskReleasingPermit_runsOtherLimitedTask() throws Exception {
+    Optional<ExecutorService> created =
+        VirtualThreadExecutor.create(/* maxConcurrency= */ 1, task -> true);
+    assumeTrue(created.isPresent());
+    ExecutorService executor = created.get();
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch otherRan = new CountDownLatch(1);
+    Future<Boolean> waiting = executor.submit(() -> {
+      started.countDown();
+      return VirtualThreadExecutor.releasingPermit(() -> await(otherRan));
+    });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    executor.execute(otherRan::countDown);
+
+    assertTrue(waiting.get(10, TimeUnit.SECONDS));
+    executor.shutdown();
+  }
+
+  @Test
+  public void submit_unlimitedTask_runsWhileLimitIsReached() throws Exception {
+    Optional<ExecutorService> created =
+        VirtualThreadExecutor.create(
+            /* maxConcurrency= */ 1, task -> !(task instanceof UnlimitedTask));
+    assumeTrue(created.isPresent());
+    ExecutorService executor = created.get();
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch unlimitedRan = new CountDownLatch(1);
+    Future<Boolean> limited = executor.submit(() -> {
+      started.countDown();
+      return await(unlimitedRan);
+    });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    executor.submit(new UnlimitedTask(unlimitedRan::countDown));
+
+    assertTrue(limited.get(10, TimeUnit.SECONDS));
+    executor.shutdown();
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static final class UnlimitedTask implements Runnable {
+
+    private final Runnable delegate;
+
+    UnlimitedTask(Runnable delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void run() {
+      delegate.run();
+    }
+  }
+}